@@ -0,0 +1,27 @@
+#!/bin/bash
+#
+# Runs geektrust.jar with an AppCDS archive of the application and Jackson classes.
+# The first run records target/geektrust.jsa at exit; later runs map it and skip most class
+# loading. Requires JDK 13+; older JDKs simply run without the archive.
+#
+# Usage: ./run-cds.sh [options] [input_file]   (defaults to sample_input/input1.txt)
+
+JAR=target/geektrust.jar
+ARCHIVE=target/geektrust.jsa
+
+if [ ! -f "$JAR" ]; then
+    mvn clean install -DskipTests assembly:single -q
+    rm -f "$ARCHIVE"
+fi
+
+if [ $# -eq 0 ]; then
+    set -- sample_input/input1.txt
+fi
+
+if ! java -XX:ArchiveClassesAtExit=/dev/null -version > /dev/null 2>&1; then
+    exec java -jar "$JAR" "$@"
+elif [ -f "$ARCHIVE" ]; then
+    exec java -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto -Xlog:cds=off -Xlog:cds+dynamic=off -jar "$JAR" "$@"
+else
+    exec java -XX:ArchiveClassesAtExit="$ARCHIVE" -Xlog:cds=off -Xlog:cds+dynamic=off -jar "$JAR" "$@"
+fi
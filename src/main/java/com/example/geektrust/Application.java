@@ -1,34 +1,112 @@
 package com.example.geektrust;
 
+import com.example.geektrust.command.ByteNameTable;
+import com.example.geektrust.command.ChunkedCommandParser;
 import com.example.geektrust.command.CommandType;
+import com.example.geektrust.command.MappedCommandReader;
+import com.example.geektrust.command.ParseResult;
 import com.example.geektrust.domain.Portfolio;
 import com.example.geektrust.handler.*;
+import com.example.geektrust.io.CompressedInput;
+import com.example.geektrust.pipeline.CommandPipeline;
+import com.example.geektrust.repository.FundRepository;
 import com.example.geektrust.repository.JsonFundRepository;
 import com.example.geektrust.repository.ModifiableFundRepository;
+import com.example.geektrust.repository.WritableFundRepository;
 import com.example.geektrust.service.CommandExecutor;
 import com.example.geektrust.service.OverlapCalculator;
+import com.example.geektrust.service.SessionForks;
+import com.example.geektrust.service.SimilarityMetric;
+import com.example.geektrust.service.TopOverlapFinder;
+import com.example.geektrust.service.TopOverlapSearch;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 
-public class Application {
+/**
+ * One command session over a fund repository. Some handlers listen to the repository for
+ * modifications; {@link #close} unregisters them, so a shared repository does not keep a closed
+ * session reachable.
+ */
+public class Application implements AutoCloseable {
     private final CommandExecutor commandExecutor;
+    private final Portfolio portfolio;
+    private final WritableFundRepository modifiableRepository;
+    private final PrintStream out;
+    private final CurrentPortfolioCommandHandler currentPortfolioHandler;
+    private final TopOverlapSearch topOverlapSearch;
+    private Runnable firstResultCallback;
+    private ByteNameTable knownNames;
 
     public Application(String stockDataJsonPath) {
-        JsonFundRepository jsonRepository = new JsonFundRepository(stockDataJsonPath);
-        ModifiableFundRepository modifiableRepository = new ModifiableFundRepository(jsonRepository);
-        Portfolio portfolio = new Portfolio();
-        OverlapCalculator overlapCalculator = new OverlapCalculator();
+        this(new JsonFundRepository(stockDataJsonPath));
+    }
+
+    public Application(FundRepository fundRepository) {
+        this(fundRepository, new OverlapCalculator());
+    }
+
+    /**
+     * Wires the handlers over {@code fundRepository}. A {@link WritableFundRepository} receives
+     * ADD_STOCK directly; any other repository gets a {@link ModifiableFundRepository} overlay.
+     */
+    public Application(FundRepository fundRepository, OverlapCalculator overlapCalculator) {
+        this(fundRepository, overlapCalculator, null);
+    }
+
+    /**
+     * As {@link #Application(FundRepository, OverlapCalculator)}, printing results to {@code out},
+     * or to whatever {@link System#out} is at print time when {@code out} is {@code null}.
+     */
+    public Application(FundRepository fundRepository, OverlapCalculator overlapCalculator, PrintStream out) {
+        this.out = out;
+        modifiableRepository = fundRepository instanceof WritableFundRepository
+                ? (WritableFundRepository) fundRepository
+                : new ModifiableFundRepository(fundRepository);
+        portfolio = new Portfolio();
 
         commandExecutor = new CommandExecutor();
-        commandExecutor.registerHandler(CommandType.CURRENT_PORTFOLIO, 
-            new CurrentPortfolioCommandHandler(portfolio, modifiableRepository));
+        currentPortfolioHandler = new CurrentPortfolioCommandHandler(portfolio, modifiableRepository);
+        commandExecutor.registerHandler(CommandType.CURRENT_PORTFOLIO, currentPortfolioHandler);
         commandExecutor.registerHandler(CommandType.CALCULATE_OVERLAP, 
             new CalculateOverlapCommandHandler(portfolio, modifiableRepository, overlapCalculator));
         commandExecutor.registerHandler(CommandType.ADD_STOCK, 
             new AddStockCommandHandler(modifiableRepository));
+        commandExecutor.registerHandler(CommandType.ADD_STOCKS,
+            new AddStocksCommandHandler(modifiableRepository));
+        commandExecutor.registerHandler(CommandType.CALCULATE_WEIGHTED_OVERLAP,
+            new CalculateWeightedOverlapCommandHandler(portfolio, modifiableRepository, overlapCalculator));
+        commandExecutor.registerHandler(CommandType.CALCULATE_SIMILARITY,
+            new CalculateSimilarityCommandHandler(portfolio, modifiableRepository, overlapCalculator));
+        topOverlapSearch = modifiableRepository instanceof TopOverlapFinder
+                ? null
+                : new TopOverlapSearch(modifiableRepository, overlapCalculator);
+        TopOverlapFinder topOverlapFinder = topOverlapSearch != null
+                ? topOverlapSearch
+                : (TopOverlapFinder) modifiableRepository;
+        commandExecutor.registerHandler(CommandType.TOP_OVERLAP,
+            new TopOverlapCommandHandler(modifiableRepository, topOverlapFinder));
+        SessionForks sessionForks = modifiableRepository instanceof ModifiableFundRepository
+                ? new SessionForks(portfolio, (ModifiableFundRepository) modifiableRepository)
+                : null;
+        commandExecutor.registerHandler(CommandType.FORK, new ForkCommandHandler(sessionForks));
+        commandExecutor.registerHandler(CommandType.ROLLBACK, new RollbackCommandHandler(sessionForks));
+    }
+
+    @Override
+    public void close() {
+        currentPortfolioHandler.close();
+        if (topOverlapSearch != null) {
+            topOverlapSearch.close();
+        }
     }
 
     public void run(List<String> commandLines) {
@@ -39,15 +117,41 @@ public class Application {
         }
     }
     
+    /**
+     * Repeated read-only commands reuse earlier results while the portfolio and universe are
+     * unchanged.
+     */
+    public void enableMemoisation() {
+        commandExecutor.enableMemoisation(portfolio, modifiableRepository);
+    }
+
+    public long getMemoHits() {
+        return commandExecutor.getMemoHits();
+    }
+
+    public long getMemoMisses() {
+        return commandExecutor.getMemoMisses();
+    }
+
+    /**
+     * Runs {@code callback} once, right after the first command's result has been printed.
+     */
+    public void setFirstResultCallback(Runnable callback) {
+        this.firstResultCallback = callback;
+    }
+
     private void printResult(CommandResult result) {
         if (shouldPrintError(result)) {
-            System.out.println(result.getErrorMessage());
-            return;
-        }
-        
-        if (result.hasOutput()) {
+            printOutputs(result.getErrorMessages());
+        } else if (result.hasOutput()) {
             printOutputs(result.getOutputs());
         }
+
+        if (firstResultCallback != null) {
+            Runnable callback = firstResultCallback;
+            firstResultCallback = null;
+            callback.run();
+        }
     }
     
     private boolean shouldPrintError(CommandResult result) {
@@ -55,13 +159,115 @@ public class Application {
     }
     
     private void printOutputs(List<String> outputs) {
+        PrintStream stream = output();
         for (String output : outputs) {
-            System.out.println(output);
+            stream.println(output);
         }
     }
 
+    private PrintStream output() {
+        return out != null ? out : System.out;
+    }
+
+    /**
+     * Runs a command file. A gzip file is inflated on a background thread and its commands run as
+     * they are decoded.
+     */
     public void run(String inputFilePath) throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get(inputFilePath));
+        Path inputPath = Paths.get(inputFilePath);
+        if (CompressedInput.isGzip(inputPath)) {
+            try (BufferedReader reader = openCompressed(inputPath)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    printResult(commandExecutor.executeCommand(line));
+                }
+            }
+            return;
+        }
+        List<String> lines = Files.readAllLines(inputPath);
         run(lines);
     }
+
+    /**
+     * Runs a memory-mapped command file, resolving verbs and fund names on the raw bytes.
+     */
+    public void runMapped(String inputFilePath) throws IOException {
+        if (CompressedInput.isGzip(Paths.get(inputFilePath))) {
+            // Compressed bytes cannot be scanned in place
+            run(inputFilePath);
+            return;
+        }
+        try (MappedCommandReader reader = MappedCommandReader.open(Paths.get(inputFilePath), knownNames())) {
+            ParseResult parsed;
+            while ((parsed = reader.next()) != null) {
+                printResult(parsed.isSuccess()
+                    ? commandExecutor.execute(parsed.getCommand())
+                    : commandExecutor.invalidCommand(reader.currentLine(), parsed.getErrorMessage()));
+            }
+        }
+    }
+
+    /**
+     * Parses newline-aligned chunks of the file on {@code parserThreads} threads and executes the
+     * commands in file order on the calling thread.
+     */
+    public void runChunked(String inputFilePath, int parserThreads) throws IOException {
+        if (CompressedInput.isGzip(Paths.get(inputFilePath))) {
+            run(inputFilePath);
+            return;
+        }
+        try (ChunkedCommandParser parser = ChunkedCommandParser.open(Paths.get(inputFilePath), knownNames(), parserThreads)) {
+            ChunkedCommandParser.ParsedChunk chunk;
+            while ((chunk = parser.next()) != null) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    ParseResult parsed = chunk.get(i);
+                    printResult(parsed.isSuccess()
+                        ? commandExecutor.execute(parsed.getCommand())
+                        : commandExecutor.invalidCommand(chunk.failedLine(i), parsed.getErrorMessage()));
+                }
+            }
+        }
+    }
+
+    private static BufferedReader openCompressed(Path inputPath) throws IOException {
+        return new BufferedReader(new InputStreamReader(CompressedInput.open(inputPath), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Uses {@code table}, built by {@link #knownNamesOf} for the universe this application runs
+     * over, instead of building one for the first mapped or chunked run.
+     */
+    void useKnownNames(ByteNameTable table) {
+        this.knownNames = table;
+    }
+
+    private ByteNameTable knownNames() {
+        if (knownNames == null) {
+            knownNames = knownNamesOf(modifiableRepository);
+        }
+        return knownNames;
+    }
+
+    /**
+     * The fund and metric names the byte-level parsers resolve. ADD_STOCK never adds a fund, so
+     * one table serves every session over the same universe.
+     */
+    static ByteNameTable knownNamesOf(FundRepository fundRepository) {
+        List<String> fundNames = fundRepository.getFundNames();
+        List<String> names = new ArrayList<>(fundNames.size() + SimilarityMetric.values().length);
+        names.addAll(fundNames);
+        for (SimilarityMetric metric : SimilarityMetric.values()) {
+            names.add(metric.name());
+        }
+        return ByteNameTable.of(names);
+    }
+
+    public void runPipelined(String inputFilePath) throws IOException {
+        Path inputPath = Paths.get(inputFilePath);
+        try (BufferedReader reader = CompressedInput.isGzip(inputPath)
+                ? openCompressed(inputPath)
+                : Files.newBufferedReader(inputPath)) {
+            new CommandPipeline(commandExecutor).run(reader, this::printResult);
+        }
+    }
 }
\ No newline at end of file
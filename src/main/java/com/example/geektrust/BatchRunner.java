@@ -0,0 +1,191 @@
+package com.example.geektrust;
+
+import com.example.geektrust.command.ByteNameTable;
+import com.example.geektrust.repository.FundRepository;
+import com.example.geektrust.repository.ModifiableFundRepository;
+import com.example.geektrust.service.OverlapCalculator;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many command files against one loaded universe. Each file is an isolated session with its
+ * own portfolio and {@link ModifiableFundRepository} overlay, so ADD_STOCK in one file is never
+ * seen by another, and writes to its own output file. Sessions are spread over a fixed pool and
+ * share one table of the universe's names for the byte-level parsers.
+ */
+public class BatchRunner {
+    static final String OUTPUT_SUFFIX = ".out";
+    private static final String GLOB_CHARACTERS = "*?[{";
+    private static final String CURRENT_DIRECTORY = ".";
+
+    private final FundRepository universe;
+    private final int workerCount;
+    private final boolean pipelined;
+    private final boolean mapped;
+    private final int parseThreadCount;
+    private final boolean memoised;
+
+    public BatchRunner(FundRepository universe, LaunchOptions options) {
+        this.universe = universe;
+        this.workerCount = options.getWorkerCount() > 0
+                ? options.getWorkerCount()
+                : Runtime.getRuntime().availableProcessors();
+        this.pipelined = options.isPipelined();
+        this.mapped = options.isMapped();
+        this.parseThreadCount = options.getParseThreadCount();
+        this.memoised = options.isMemoised();
+    }
+
+    /**
+     * Runs every input file and returns how many failed; failures are reported on stderr and do
+     * not stop the other files. With a {@code null} output directory each output is written next
+     * to its input.
+     */
+    public int run(List<Path> inputFiles, Path outputDirectory) throws IOException, InterruptedException {
+        List<Path> outputFiles = new ArrayList<>(inputFiles.size());
+        Set<Path> distinctOutputs = new HashSet<>();
+        for (Path inputFile : inputFiles) {
+            Path outputFile = outputFileFor(inputFile, outputDirectory);
+            if (!distinctOutputs.add(outputFile.toAbsolutePath().normalize())) {
+                throw new IllegalArgumentException("Two inputs would write to " + outputFile);
+            }
+            outputFiles.add(outputFile);
+        }
+        if (outputDirectory != null) {
+            Files.createDirectories(outputDirectory);
+        }
+
+        ByteNameTable knownNames = !pipelined && (mapped || parseThreadCount > 0)
+                ? Application.knownNamesOf(universe)
+                : null;
+        ExecutorService workers = Executors.newFixedThreadPool(Math.min(workerCount, Math.max(1, inputFiles.size())),
+            runnable -> {
+                Thread thread = new Thread(runnable, "batch-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        try {
+            List<Future<?>> sessions = new ArrayList<>(inputFiles.size());
+            for (int i = 0; i < inputFiles.size(); i++) {
+                Path inputFile = inputFiles.get(i);
+                Path outputFile = outputFiles.get(i);
+                sessions.add(workers.submit(() -> {
+                    runSession(inputFile, outputFile, knownNames);
+                    return null;
+                }));
+            }
+
+            int failures = 0;
+            for (int i = 0; i < sessions.size(); i++) {
+                try {
+                    sessions.get(i).get();
+                } catch (ExecutionException e) {
+                    failures++;
+                    System.err.println("Error: " + inputFiles.get(i) + ": " + e.getCause().getMessage());
+                }
+            }
+            return failures;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void runSession(Path inputFile, Path outputFile, ByteNameTable knownNames) throws IOException {
+        try (PrintStream out = new PrintStream(new BufferedOutputStream(Files.newOutputStream(outputFile)));
+             Application application = new Application(
+                 new ModifiableFundRepository(universe), new OverlapCalculator(), out)) {
+            if (knownNames != null) {
+                application.useKnownNames(knownNames);
+            }
+            if (memoised) {
+                application.enableMemoisation();
+            }
+            if (pipelined) {
+                application.runPipelined(inputFile.toString());
+            } else if (parseThreadCount > 0) {
+                application.runChunked(inputFile.toString(), parseThreadCount);
+            } else if (mapped) {
+                application.runMapped(inputFile.toString());
+            } else {
+                application.run(inputFile.toString());
+            }
+            if (out.checkError()) {
+                throw new IOException("Error writing " + outputFile);
+            }
+        }
+    }
+
+    static Path outputFileFor(Path inputFile, Path outputDirectory) {
+        String outputName = inputFile.getFileName() + OUTPUT_SUFFIX;
+        return outputDirectory != null ? outputDirectory.resolve(outputName) : inputFile.resolveSibling(outputName);
+    }
+
+    /**
+     * Expands each argument into input files, in argument order. A directory yields its regular
+     * files and a glob in the last path segment yields the matching regular files, both sorted by
+     * name and skipping earlier {@value #OUTPUT_SUFFIX} outputs; anything else is taken as a file.
+     */
+    static List<Path> expandInputs(List<String> inputPaths) throws IOException {
+        List<Path> inputFiles = new ArrayList<>();
+        for (String inputPath : inputPaths) {
+            Path path = Paths.get(inputPath);
+            List<Path> matches;
+            if (isGlob(path.getFileName().toString())) {
+                Path directory = path.getParent() != null ? path.getParent() : Paths.get(CURRENT_DIRECTORY);
+                matches = listInputs(directory,
+                    FileSystems.getDefault().getPathMatcher("glob:" + path.getFileName()));
+            } else if (Files.isDirectory(path)) {
+                matches = listInputs(path, file -> true);
+            } else {
+                matches = Collections.singletonList(path);
+            }
+            if (matches.isEmpty()) {
+                throw new IllegalArgumentException("No input files match: " + inputPath);
+            }
+            inputFiles.addAll(matches);
+        }
+        return inputFiles;
+    }
+
+    private static boolean isGlob(String fileName) {
+        for (int i = 0; i < fileName.length(); i++) {
+            if (GLOB_CHARACTERS.indexOf(fileName.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Path> listInputs(Path directory, PathMatcher fileNameMatcher) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                String fileName = entry.getFileName().toString();
+                if (Files.isRegularFile(entry) && !fileName.endsWith(OUTPUT_SUFFIX)
+                        && fileNameMatcher.matches(entry.getFileName())) {
+                    files.add(entry);
+                }
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+}
@@ -0,0 +1,200 @@
+package com.example.geektrust;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class LaunchOptions {
+    static final String PIPELINE_FLAG = "--pipeline";
+    static final String MAPPED_FLAG = "--mapped";
+    static final String PARSE_THREADS_OPTION = "--parse-threads";
+    static final String OFF_HEAP_FLAG = "--off-heap";
+    static final String LAZY_FLAG = "--lazy";
+    static final String SHARED_UNIVERSE_OPTION = "--shared-universe";
+    static final String STARTUP_PROFILE_FLAG = "--startup-profile";
+    static final String PARTITIONS_OPTION = "--partitions";
+    static final String SHARDS_OPTION = "--shards";
+    static final String MEMOISE_FLAG = "--memoise";
+    static final String BATCH_FLAG = "--batch";
+    static final String WORKERS_OPTION = "--workers";
+    static final String OUTPUT_DIR_OPTION = "--output-dir";
+
+    private final List<String> inputPaths = new ArrayList<>();
+    private boolean pipelined;
+    private boolean mapped;
+    private int parseThreadCount;
+    private boolean offHeap;
+    private boolean lazy;
+    private String sharedUniversePath;
+    private boolean startupProfiled;
+    private boolean memoised;
+    private int partitionCount;
+    private List<String> shardAddresses = Collections.emptyList();
+    private boolean batch;
+    private int workerCount;
+    private String outputDirectory;
+
+    private LaunchOptions() {
+    }
+
+    public static LaunchOptions parse(String[] args) {
+        LaunchOptions options = new LaunchOptions();
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (PIPELINE_FLAG.equals(arg)) {
+                options.pipelined = true;
+            } else if (MAPPED_FLAG.equals(arg)) {
+                options.mapped = true;
+            } else if (PARSE_THREADS_OPTION.equals(arg)) {
+                options.parseThreadCount = positiveIntValueOf(args, ++i, arg);
+            } else if (OFF_HEAP_FLAG.equals(arg)) {
+                options.offHeap = true;
+            } else if (LAZY_FLAG.equals(arg)) {
+                options.lazy = true;
+            } else if (STARTUP_PROFILE_FLAG.equals(arg)) {
+                options.startupProfiled = true;
+            } else if (MEMOISE_FLAG.equals(arg)) {
+                options.memoised = true;
+            } else if (BATCH_FLAG.equals(arg)) {
+                options.batch = true;
+            } else if (WORKERS_OPTION.equals(arg)) {
+                options.workerCount = positiveIntValueOf(args, ++i, arg);
+            } else if (OUTPUT_DIR_OPTION.equals(arg)) {
+                options.outputDirectory = valueOf(args, ++i, arg);
+            } else if (PARTITIONS_OPTION.equals(arg)) {
+                options.partitionCount = positiveIntValueOf(args, ++i, arg);
+            } else if (SHARDS_OPTION.equals(arg)) {
+                options.shardAddresses = Arrays.asList(valueOf(args, ++i, arg).split(","));
+            } else if (SHARED_UNIVERSE_OPTION.equals(arg)) {
+                options.sharedUniversePath = valueOf(args, ++i, arg);
+            } else if (arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            } else if (options.inputPaths.isEmpty() || options.batch) {
+                options.inputPaths.add(arg);
+            } else {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+        }
+
+        if (options.inputPaths.isEmpty()) {
+            throw new IllegalArgumentException("Missing input file path");
+        }
+        if (!options.batch && (options.workerCount > 0 || options.outputDirectory != null)) {
+            throw new IllegalArgumentException(WORKERS_OPTION + " and " + OUTPUT_DIR_OPTION + " require " + BATCH_FLAG);
+        }
+        if (options.lazy && (options.offHeap || options.sharedUniversePath != null)) {
+            throw new IllegalArgumentException(LAZY_FLAG + " cannot be combined with off-heap repositories");
+        }
+        if (options.pipelined && (options.mapped || options.parseThreadCount > 0)) {
+            throw new IllegalArgumentException(PIPELINE_FLAG + " cannot be combined with mapped input");
+        }
+        if (options.partitionCount > 0 && !options.shardAddresses.isEmpty()) {
+            throw new IllegalArgumentException(PARTITIONS_OPTION + " and " + SHARDS_OPTION + " cannot be combined");
+        }
+        return options;
+    }
+
+    private static int positiveIntValueOf(String[] args, int index, String option) {
+        String value = valueOf(args, index, option);
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(option + " expects a positive integer: " + value);
+    }
+
+    private static String valueOf(String[] args, int index, String option) {
+        if (index >= args.length || args[index].startsWith("--")) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    public String getInputFilePath() {
+        return inputPaths.get(0);
+    }
+
+    /**
+     * Input files, directories or glob patterns; more than one only in batch mode.
+     */
+    public List<String> getInputPaths() {
+        return Collections.unmodifiableList(inputPaths);
+    }
+
+    public boolean isBatch() {
+        return batch;
+    }
+
+    /**
+     * Number of batch worker threads, or 0 to use one per available processor.
+     */
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * Directory receiving one output file per batch input, or {@code null} to write each output
+     * next to its input.
+     */
+    public String getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    public boolean isMapped() {
+        return mapped;
+    }
+
+    /**
+     * Threads parsing chunks of the mapped input in parallel, or 0 to parse on the executing thread.
+     */
+    public int getParseThreadCount() {
+        return parseThreadCount;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Path of the memory-mapped universe file shared between processes, or {@code null}.
+     */
+    public String getSharedUniversePath() {
+        return sharedUniversePath;
+    }
+
+    public boolean isStartupProfiled() {
+        return startupProfiled;
+    }
+
+    public boolean isMemoised() {
+        return memoised;
+    }
+
+    /**
+     * Number of in-process shards to split the universe into, or 0 when not partitioned.
+     */
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    /**
+     * {@code host:port} addresses of remote shard workers; empty when not used.
+     */
+    public List<String> getShardAddresses() {
+        return shardAddresses;
+    }
+}
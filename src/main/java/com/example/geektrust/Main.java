@@ -1,20 +1,138 @@
 package com.example.geektrust;
 
+import com.example.geektrust.partition.PartitionedFundRepository;
+import com.example.geektrust.partition.PartitionedOverlapCalculator;
+import com.example.geektrust.partition.RemoteFundShard;
+import com.example.geektrust.repository.FundRepository;
+import com.example.geektrust.repository.JsonFundRepository;
+import com.example.geektrust.repository.MappedUniverseFile;
+import com.example.geektrust.repository.OffHeapFundRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
 public class Main {
     private static final String STOCK_DATA_JSON_PATH = "stock_data.json";
+    private static final String USAGE = "Usage: java -jar geektrust.jar [--pipeline | --mapped | --parse-threads <n>] [--startup-profile] [--memoise] [--off-heap | --lazy | --shared-universe <file>] [--partitions <n> | --shards <host:port,...>] <input_file_path>"
+        + "\n       java -jar geektrust.jar --batch [--workers <n>] [--output-dir <dir>] [options] <file|dir|glob>...";
+    
+    private static final int EXIT_SUCCESS = 0;
+    private static final int EXIT_FAILURE = 1;
     
     public static void main(String[] args) {
-        if (args.length != 1) {
-            System.err.println("Usage: java -jar geektrust.jar <input_file_path>");
-            System.exit(1);
+        int status = run(args);
+        if (status != EXIT_SUCCESS) {
+            System.exit(status);
         }
+    }
+
+    /**
+     * Runs the program and returns its exit status, so that every clean-up and profile report
+     * has happened before the caller exits.
+     */
+    static int run(String[] args) {
+        LaunchOptions options;
+        try {
+            options = LaunchOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(USAGE);
+            return EXIT_FAILURE;
+        }
+        StartupProfile profile = options.isStartupProfiled() ? StartupProfile.start() : null;
         
         try {
-            Application application = new Application(STOCK_DATA_JSON_PATH);
-            application.run(args[0]);
+            FundRepository fundRepository = createRepository(options);
+            mark(profile, "repository load");
+            if (options.isBatch()) {
+                runBatch(fundRepository, options);
+                mark(profile, "batch");
+                return EXIT_SUCCESS;
+            }
+            Application application = fundRepository instanceof PartitionedFundRepository
+                ? new Application(fundRepository, new PartitionedOverlapCalculator((PartitionedFundRepository) fundRepository))
+                : new Application(fundRepository);
+            if (options.isMemoised()) {
+                application.enableMemoisation();
+            }
+            mark(profile, "handler wiring");
+            if (profile != null) {
+                application.setFirstResultCallback(() -> profile.mark("first command"));
+            }
+
+            if (options.isPipelined()) {
+                application.runPipelined(options.getInputFilePath());
+            } else if (options.getParseThreadCount() > 0) {
+                application.runChunked(options.getInputFilePath(), options.getParseThreadCount());
+            } else if (options.isMapped()) {
+                application.runMapped(options.getInputFilePath());
+            } else {
+                application.run(options.getInputFilePath());
+            }
+            mark(profile, "remaining commands");
+            if (options.isMemoised()) {
+                printMemoStatistics(application);
+            }
+            return EXIT_SUCCESS;
         } catch (Exception e) {
             System.err.println("Error: " + e.getMessage());
-            System.exit(1);
+            return EXIT_FAILURE;
+        } finally {
+            if (profile != null) {
+                profile.print(System.err);
+            }
+        }
+    }
+
+    private static void runBatch(FundRepository fundRepository, LaunchOptions options) throws IOException, InterruptedException {
+        List<Path> inputFiles = BatchRunner.expandInputs(options.getInputPaths());
+        Path outputDirectory = options.getOutputDirectory() != null ? Paths.get(options.getOutputDirectory()) : null;
+        int failures = new BatchRunner(fundRepository, options).run(inputFiles, outputDirectory);
+        if (failures > 0) {
+            throw new IOException(failures + " of " + inputFiles.size() + " batch files failed");
+        }
+    }
+
+    private static void printMemoStatistics(Application application) {
+        long hits = application.getMemoHits();
+        long lookups = hits + application.getMemoMisses();
+        System.err.printf("[memo] %d of %d read-only commands reused (%.1f%%)%n",
+            hits, lookups, lookups == 0 ? 0.0 : 100.0 * hits / lookups);
+    }
+
+    private static FundRepository createRepository(LaunchOptions options) throws IOException {
+        if (!options.getShardAddresses().isEmpty()) {
+            List<RemoteFundShard> shards = new ArrayList<>();
+            for (String address : options.getShardAddresses()) {
+                shards.add(RemoteFundShard.connect(address));
+            }
+            return new PartitionedFundRepository(shards);
+        }
+        if (options.getPartitionCount() > 0) {
+            return PartitionedFundRepository.inProcess(createBaseRepository(options), options.getPartitionCount());
+        }
+        return createBaseRepository(options);
+    }
+
+    private static FundRepository createBaseRepository(LaunchOptions options) throws IOException {
+        if (options.getSharedUniversePath() != null) {
+            return MappedUniverseFile.open(STOCK_DATA_JSON_PATH, Paths.get(options.getSharedUniversePath()));
+        }
+        if (options.isOffHeap()) {
+            return OffHeapFundRepository.fromJson(STOCK_DATA_JSON_PATH);
+        }
+        if (options.isLazy()) {
+            return new JsonFundRepository(STOCK_DATA_JSON_PATH, JsonFundRepository.LoadMode.LAZY);
+        }
+        return new JsonFundRepository(STOCK_DATA_JSON_PATH);
+    }
+
+    private static void mark(StartupProfile profile, String phase) {
+        if (profile != null) {
+            profile.mark(phase);
         }
     }
 }
@@ -0,0 +1,55 @@
+package com.example.geektrust;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Wall-clock breakdown of a CLI run: time from JVM start to {@code main}, followed by one entry
+ * per phase marked by the launcher.
+ */
+final class StartupProfile {
+    static final String JVM_TO_MAIN = "jvm to main";
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final List<String> phases = new ArrayList<>();
+    private final List<Double> durationsMillis = new ArrayList<>();
+    private final long startNanos;
+    private long lastMarkNanos;
+
+    private StartupProfile(long jvmToMainMillis) {
+        this.startNanos = System.nanoTime();
+        this.lastMarkNanos = startNanos;
+        phases.add(JVM_TO_MAIN);
+        durationsMillis.add((double) jvmToMainMillis);
+    }
+
+    /**
+     * Starts profiling; call first thing in {@code main} so the JVM uptime approximates the
+     * launch cost.
+     */
+    static StartupProfile start() {
+        return new StartupProfile(ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    synchronized void mark(String phase) {
+        long now = System.nanoTime();
+        phases.add(phase);
+        durationsMillis.add((now - lastMarkNanos) / NANOS_PER_MILLI);
+        lastMarkNanos = now;
+    }
+
+    synchronized List<String> getPhases() {
+        return new ArrayList<>(phases);
+    }
+
+    synchronized void print(PrintStream out) {
+        for (int i = 0; i < phases.size(); i++) {
+            out.println(String.format(Locale.ROOT, "[startup] %-18s %10.3f ms", phases.get(i), durationsMillis.get(i)));
+        }
+        out.println(String.format(Locale.ROOT, "[startup] %-18s %10.3f ms", "total in main",
+            (System.nanoTime() - startNanos) / NANOS_PER_MILLI));
+    }
+}
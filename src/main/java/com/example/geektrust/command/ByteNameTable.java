@@ -0,0 +1,89 @@
+package com.example.geektrust.command;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable open-addressing table of names keyed by their UTF-8 bytes. A byte range of a buffer
+ * is resolved to the canonical {@link String} without decoding or allocating.
+ */
+public final class ByteNameTable {
+    private static final int FNV_OFFSET_BASIS = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+    private static final int MIN_CAPACITY = 16;
+
+    private final byte[][] keys;
+    private final String[] names;
+    private final int[] hashes;
+    private final int mask;
+
+    private ByteNameTable(int capacity) {
+        this.keys = new byte[capacity][];
+        this.names = new String[capacity];
+        this.hashes = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public static ByteNameTable of(Collection<String> names) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < names.size() * 2) {
+            capacity <<= 1;
+        }
+        ByteNameTable table = new ByteNameTable(capacity);
+        for (String name : names) {
+            table.insert(name);
+        }
+        return table;
+    }
+
+    private void insert(String name) {
+        byte[] key = name.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(ByteBuffer.wrap(key), 0, key.length);
+        int slot = hash & mask;
+        while (keys[slot] != null) {
+            if (hashes[slot] == hash && Arrays.equals(keys[slot], key)) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        names[slot] = name;
+        hashes[slot] = hash;
+    }
+
+    /**
+     * The name whose UTF-8 encoding equals bytes {@code [start, end)} of {@code buffer}, read with
+     * absolute gets, or {@code null} if there is none.
+     */
+    public String find(ByteBuffer buffer, int start, int end) {
+        int hash = hash(buffer, start, end);
+        for (int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && matches(keys[slot], buffer, start, end)) {
+                return names[slot];
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(byte[] key, ByteBuffer buffer, int start, int end) {
+        if (key.length != end - start) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] != buffer.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(ByteBuffer buffer, int start, int end) {
+        int hash = FNV_OFFSET_BASIS;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ (buffer.get(i) & 0xFF)) * FNV_PRIME;
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
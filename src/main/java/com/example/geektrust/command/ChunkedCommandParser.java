@@ -0,0 +1,169 @@
+package com.example.geektrust.command;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Parses a command file in parallel. The file is cut into byte ranges that end on line breaks,
+ * each range is parsed by a {@link MappedCommandReader} on a worker thread, and the chunks are
+ * handed back strictly in file order, so callers still execute commands sequentially. Only a
+ * bounded number of chunks is parsed ahead of the caller.
+ */
+public final class ChunkedCommandParser implements Closeable {
+    public static final long DEFAULT_CHUNK_SIZE = 8L << 20;
+    private static final int CHUNKS_AHEAD_PER_THREAD = 2;
+    private static final int SCAN_BUFFER_SIZE = 4096;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long chunkSize;
+    private final ByteNameTable names;
+    private final ExecutorService parsers;
+    private final int maxChunksAhead;
+    private final Deque<Future<ParsedChunk>> pending = new ArrayDeque<>();
+    private long nextChunkStart;
+
+    ChunkedCommandParser(FileChannel channel, ByteNameTable names, int threads, long chunkSize) throws IOException {
+        if (threads <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Thread count and chunk size must be positive");
+        }
+        this.channel = channel;
+        this.size = channel.size();
+        this.chunkSize = chunkSize;
+        this.names = names;
+        this.maxChunksAhead = threads * CHUNKS_AHEAD_PER_THREAD;
+        this.parsers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "chunk-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static ChunkedCommandParser open(Path path, ByteNameTable names, int threads) throws IOException {
+        return new ChunkedCommandParser(FileChannel.open(path, StandardOpenOption.READ), names, threads, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * The next chunk in file order, or {@code null} once the whole file has been returned.
+     */
+    public ParsedChunk next() throws IOException {
+        scheduleAhead();
+        Future<ParsedChunk> next = pending.poll();
+        if (next == null) {
+            return null;
+        }
+        try {
+            return next.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing " + channel, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new IOException("Error parsing command chunk", cause);
+        }
+    }
+
+    private void scheduleAhead() throws IOException {
+        while (pending.size() < maxChunksAhead && nextChunkStart < size) {
+            long start = nextChunkStart;
+            long end = chunkEnd(start + chunkSize);
+            pending.add(parsers.submit(() -> parseChunk(start, end)));
+            nextChunkStart = end;
+        }
+    }
+
+    /**
+     * The first offset at or after {@code nominal} that follows a complete line break, keeping a
+     * CR LF pair in one chunk.
+     */
+    private long chunkEnd(long nominal) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long offset = nominal;
+        boolean afterCarriageReturn = false;
+        while (offset < size) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte value = buffer.get(i);
+                if (afterCarriageReturn) {
+                    return value == '\n' ? offset + i + 1 : offset + i;
+                }
+                if (value == '\n') {
+                    return offset + i + 1;
+                }
+                afterCarriageReturn = value == '\r';
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    private ParsedChunk parseChunk(long start, long end) {
+        List<ParseResult> results = new ArrayList<>();
+        List<String> failedLines = new ArrayList<>();
+        try (MappedCommandReader reader = new MappedCommandReader(
+                channel, false, start, end, names, MappedCommandReader.MAX_WINDOW_SIZE)) {
+            ParseResult result;
+            while ((result = reader.next()) != null) {
+                results.add(result);
+                failedLines.add(result.isSuccess() ? null : reader.currentLine());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ParsedChunk(results.toArray(new ParseResult[0]), failedLines.toArray(new String[0]));
+    }
+
+    @Override
+    public void close() throws IOException {
+        parsers.shutdownNow();
+        channel.close();
+    }
+
+    /**
+     * The parsed lines of one chunk, in file order.
+     */
+    public static final class ParsedChunk {
+        private final ParseResult[] results;
+        private final String[] failedLines;
+
+        private ParsedChunk(ParseResult[] results, String[] failedLines) {
+            this.results = results;
+            this.failedLines = failedLines;
+        }
+
+        public int size() {
+            return results.length;
+        }
+
+        public ParseResult get(int index) {
+            return results[index];
+        }
+
+        /**
+         * The text of line {@code index} if it failed to parse, otherwise {@code null}.
+         */
+        public String failedLine(int index) {
+            return failedLines[index];
+        }
+    }
+}
@@ -4,49 +4,110 @@ import com.example.geektrust.exception.InvalidCommandException;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 public class CommandParser {
     
     private static final int CURRENT_PORTFOLIO_MIN_ARGS = 1;
     private static final int CALCULATE_OVERLAP_MIN_ARGS = 1;
     private static final int ADD_STOCK_MIN_ARGS = 2;
+    private static final int CALCULATE_SIMILARITY_MIN_ARGS = 2;
+    private static final int TOP_OVERLAP_MIN_ARGS = 2;
+    private static final int TOP_OVERLAP_MAX_ARGS = 3;
     private static final String WHITESPACE_REGEX = "\\s+";
+    private static final Pattern ADDITION_SEPARATOR = Pattern.compile(";");
     private static final int COMMAND_AND_ARGS_LIMIT = 2;
+    private static final Pattern POSITIVE_INT = Pattern.compile("\\+?0*[1-9]\\d{0,8}");
+    private static final Pattern DECIMAL = Pattern.compile("[+-]?(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d{1,3})?");
+    private static final Map<String, CommandType> COMMAND_TYPES = new HashMap<>();
+
+    static {
+        for (CommandType commandType : CommandType.values()) {
+            COMMAND_TYPES.put(commandType.name(), commandType);
+        }
+    }
     
+    /**
+     * Throwing variant of {@link #tryParse}.
+     */
     public ParsedCommand parse(String commandLine) throws InvalidCommandException {
+        ParseResult result = tryParse(commandLine);
+        if (!result.isSuccess()) {
+            throw new InvalidCommandException(result.getErrorMessage());
+        }
+        return result.getCommand();
+    }
+
+    /**
+     * Parses {@code commandLine} without throwing; invalid lines yield a failed result, so dirty
+     * input costs no exception construction or stack capture.
+     */
+    public ParseResult tryParse(String commandLine) {
         if (commandLine == null || commandLine.trim().isEmpty()) {
-            throw new InvalidCommandException("Command line cannot be null or empty");
+            return ParseResult.failure("Command line cannot be null or empty");
         }
         
         String trimmedLine = commandLine.trim();
         String[] parts = trimmedLine.split(WHITESPACE_REGEX, COMMAND_AND_ARGS_LIMIT);
         
         if (parts.length == 0) {
-            throw new InvalidCommandException("Invalid command format");
+            return ParseResult.failure("Invalid command format");
         }
         
         String commandString = parts[0];
-        CommandType commandType = parseCommandType(commandString);
+        CommandType commandType = COMMAND_TYPES.get(commandString);
+        if (commandType == null) {
+            return ParseResult.failure("Unknown command: " + commandString);
+        }
         
         List<String> arguments = new ArrayList<>();
         if (parts.length > 1) {
             arguments = parseArguments(commandType, parts[1]);
         }
         
-        validateArgumentCount(commandType, arguments.size());
-        
-        return ParsedCommand.create(commandType, arguments);
+        return validated(commandType, arguments);
     }
     
-    private CommandType parseCommandType(String commandString) throws InvalidCommandException {
-        try {
-            return CommandType.valueOf(commandString);
-        } catch (IllegalArgumentException e) {
-            throw new InvalidCommandException("Unknown command: " + commandString);
+    /**
+     * Checks already tokenised arguments; shared with {@link MappedCommandReader}.
+     */
+    ParseResult validated(CommandType commandType, List<String> arguments) {
+        String error = validateArgumentCount(commandType, arguments.size());
+        if (error == null && commandType == CommandType.TOP_OVERLAP) {
+            error = validateTopOverlapArguments(arguments);
+        }
+        if (error == null && commandType == CommandType.ADD_STOCKS) {
+            error = validateAddStocksArguments(arguments);
+        }
+        if (error != null) {
+            return ParseResult.failure(error);
         }
+        
+        return ParseResult.success(ParsedCommand.create(commandType, arguments));
     }
     
+    /**
+     * Splits ADD_STOCKS arguments into one {@code "<fund> <stock>"} argument per addition.
+     */
+    static void splitAdditions(String argumentString, List<String> arguments) {
+        for (String addition : ADDITION_SEPARATOR.split(argumentString)) {
+            String trimmedAddition = addition.trim();
+            if (!trimmedAddition.isEmpty()) {
+                arguments.add(trimmedAddition);
+            }
+        }
+    }
+
+    /**
+     * The fund and stock names of one ADD_STOCKS addition, split as ADD_STOCK splits its line.
+     */
+    public static String[] splitAddition(String addition) {
+        return addition.split(WHITESPACE_REGEX, COMMAND_AND_ARGS_LIMIT);
+    }
+
     private List<String> parseArguments(CommandType commandType, String argumentString) {
         List<String> arguments = new ArrayList<>();
         String trimmedArgs = argumentString.trim();
@@ -57,11 +118,16 @@ public class CommandParser {
         
         switch (commandType) {
             case CURRENT_PORTFOLIO:
-                // Multiple fund names separated by spaces
+            case CALCULATE_SIMILARITY:
+            case TOP_OVERLAP:
+            case FORK:
+            case ROLLBACK:
+                // Multiple names separated by spaces
                 arguments.addAll(Arrays.asList(trimmedArgs.split(WHITESPACE_REGEX)));
                 break;
                 
             case CALCULATE_OVERLAP:
+            case CALCULATE_WEIGHTED_OVERLAP:
                 // Single fund name
                 arguments.add(trimmedArgs);
                 break;
@@ -71,6 +137,10 @@ public class CommandParser {
                 String[] addStockParts = trimmedArgs.split(WHITESPACE_REGEX, COMMAND_AND_ARGS_LIMIT);
                 arguments.addAll(Arrays.asList(addStockParts));
                 break;
+
+            case ADD_STOCKS:
+                splitAdditions(trimmedArgs, arguments);
+                break;
                 
             default:
                 throw new IllegalStateException("Unhandled command type: " + commandType);
@@ -79,31 +149,81 @@ public class CommandParser {
         return arguments;
     }
     
-    private void validateArgumentCount(CommandType commandType, int argCount) throws InvalidCommandException {
+    /**
+     * Returns the error message for a wrong argument count, or {@code null} if it is valid.
+     */
+    private String validateArgumentCount(CommandType commandType, int argCount) {
         switch (commandType) {
             case CURRENT_PORTFOLIO:
                 if (argCount < CURRENT_PORTFOLIO_MIN_ARGS) {
-                    throw new InvalidCommandException(
-                        "CURRENT_PORTFOLIO requires at least " + CURRENT_PORTFOLIO_MIN_ARGS + " fund name(s)");
+                    return "CURRENT_PORTFOLIO requires at least " + CURRENT_PORTFOLIO_MIN_ARGS + " fund name(s)";
                 }
-                break;
+                return null;
                 
             case CALCULATE_OVERLAP:
                 if (argCount < CALCULATE_OVERLAP_MIN_ARGS) {
-                    throw new InvalidCommandException(
-                        "CALCULATE_OVERLAP requires exactly " + CALCULATE_OVERLAP_MIN_ARGS + " fund name");
+                    return "CALCULATE_OVERLAP requires exactly " + CALCULATE_OVERLAP_MIN_ARGS + " fund name";
                 }
-                break;
+                return null;
+                
+            case CALCULATE_WEIGHTED_OVERLAP:
+                if (argCount < CALCULATE_OVERLAP_MIN_ARGS) {
+                    return "CALCULATE_WEIGHTED_OVERLAP requires exactly " + CALCULATE_OVERLAP_MIN_ARGS + " fund name";
+                }
+                return null;
+                
+            case CALCULATE_SIMILARITY:
+                if (argCount < CALCULATE_SIMILARITY_MIN_ARGS) {
+                    return "CALCULATE_SIMILARITY requires a fund name and at least one metric";
+                }
+                return null;
                 
             case ADD_STOCK:
                 if (argCount < ADD_STOCK_MIN_ARGS) {
-                    throw new InvalidCommandException(
-                        "ADD_STOCK requires " + ADD_STOCK_MIN_ARGS + " arguments: fund name and stock name");
+                    return "ADD_STOCK requires " + ADD_STOCK_MIN_ARGS + " arguments: fund name and stock name";
                 }
-                break;
+                return null;
+                
+            case TOP_OVERLAP:
+                if (argCount < TOP_OVERLAP_MIN_ARGS || argCount > TOP_OVERLAP_MAX_ARGS) {
+                    return "TOP_OVERLAP requires a fund name, a count and an optional minimum percentage";
+                }
+                return null;
+
+            case ADD_STOCKS:
+                if (argCount < 1) {
+                    return "ADD_STOCKS requires at least one fund name and stock name";
+                }
+                return null;
+
+            case FORK:
+            case ROLLBACK:
+                if (argCount > 0) {
+                    return commandType + " takes no arguments";
+                }
+                return null;
                 
             default:
                 throw new IllegalStateException("Unhandled command type: " + commandType);
         }
     }
-}
\ No newline at end of file
+    
+    private String validateTopOverlapArguments(List<String> arguments) {
+        if (!POSITIVE_INT.matcher(arguments.get(1)).matches()) {
+            return "TOP_OVERLAP count must be a positive integer: " + arguments.get(1);
+        }
+        if (arguments.size() == TOP_OVERLAP_MAX_ARGS && !DECIMAL.matcher(arguments.get(2)).matches()) {
+            return "TOP_OVERLAP minimum percentage must be a number: " + arguments.get(2);
+        }
+        return null;
+    }
+
+    private String validateAddStocksArguments(List<String> arguments) {
+        for (String addition : arguments) {
+            if (splitAddition(addition).length < ADD_STOCK_MIN_ARGS) {
+                return "ADD_STOCKS addition needs a fund name and a stock name: " + addition;
+            }
+        }
+        return null;
+    }
+}
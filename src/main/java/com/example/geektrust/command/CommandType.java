@@ -3,5 +3,11 @@ package com.example.geektrust.command;
 public enum CommandType {
     CURRENT_PORTFOLIO,
     CALCULATE_OVERLAP,
-    ADD_STOCK
+    ADD_STOCK,
+    CALCULATE_WEIGHTED_OVERLAP,
+    CALCULATE_SIMILARITY,
+    TOP_OVERLAP,
+    FORK,
+    ROLLBACK,
+    ADD_STOCKS
 }
\ No newline at end of file
@@ -0,0 +1,271 @@
+package com.example.geektrust.command;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads commands straight from a memory-mapped command file. Lines, verbs and arguments are
+ * found on the mapped bytes and names are resolved through {@link ByteNameTable}s, so a
+ * {@link String} is only decoded for a token the tables do not know. Lines and tokens split
+ * exactly as {@link java.nio.file.Files#readAllLines} followed by {@link CommandParser} would.
+ * Files larger than one window are mapped window by window, each ending on a line break.
+ */
+public final class MappedCommandReader implements Closeable {
+    static final long MAX_WINDOW_SIZE = 1L << 30;
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final int MAX_TRIMMED_BYTE = ' ';
+    private static final ByteNameTable VERBS = ByteNameTable.of(commandTypeNames());
+
+    private final FileChannel channel;
+    private final boolean ownsChannel;
+    private final long rangeStart;
+    private final long rangeEnd;
+    private final long windowSize;
+    private final ByteNameTable names;
+    private final CommandParser commandParser = new CommandParser();
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int position;
+    private int limit;
+    private boolean pendingCarriageReturn;
+    private int lineStart;
+    private int lineEnd;
+
+    MappedCommandReader(FileChannel channel, ByteNameTable names, long windowSize) throws IOException {
+        this(channel, true, 0, channel.size(), names, windowSize);
+    }
+
+    /**
+     * Reads only bytes {@code [rangeStart, rangeEnd)}, which must start a line and end just after a
+     * line break or at the end of the file. The channel is closed with the reader only if owned.
+     */
+    MappedCommandReader(FileChannel channel, boolean ownsChannel, long rangeStart, long rangeEnd,
+                        ByteNameTable names, long windowSize) {
+        this.channel = channel;
+        this.ownsChannel = ownsChannel;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+        this.names = names;
+        this.windowSize = windowSize;
+    }
+
+    public static MappedCommandReader open(Path path, ByteNameTable names) throws IOException {
+        return new MappedCommandReader(FileChannel.open(path, StandardOpenOption.READ), names, MAX_WINDOW_SIZE);
+    }
+
+    private static List<String> commandTypeNames() {
+        List<String> verbs = new ArrayList<>();
+        for (CommandType commandType : CommandType.values()) {
+            verbs.add(commandType.name());
+        }
+        return verbs;
+    }
+
+    /**
+     * Parses the next line, or returns {@code null} at the end of the file.
+     */
+    public ParseResult next() throws IOException {
+        if (!nextLine()) {
+            return null;
+        }
+        return parseLine(lineStart, lineEnd);
+    }
+
+    /**
+     * Decodes the line last returned by {@link #next}, for messages that need its text.
+     */
+    public String currentLine() {
+        return decode(lineStart, lineEnd);
+    }
+
+    private boolean nextLine() throws IOException {
+        while (window == null || position >= limit) {
+            if (!mapNextWindow()) {
+                return false;
+            }
+        }
+
+        lineStart = position;
+        int index = position;
+        while (index < limit && window.get(index) != LINE_FEED && window.get(index) != CARRIAGE_RETURN) {
+            index++;
+        }
+        lineEnd = index;
+        if (index < limit) {
+            if (window.get(index) == CARRIAGE_RETURN) {
+                if (index + 1 < limit) {
+                    if (window.get(index + 1) == LINE_FEED) {
+                        index++;
+                    }
+                } else {
+                    pendingCarriageReturn = true;
+                }
+            }
+            index++;
+        }
+        position = index;
+        return true;
+    }
+
+    private boolean mapNextWindow() throws IOException {
+        long start = window == null ? rangeStart : windowStart + limit;
+        if (start >= rangeEnd) {
+            return false;
+        }
+        long length = Math.min(windowSize, rangeEnd - start);
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        int end = (int) length;
+        if (start + length < rangeEnd) {
+            end = lastLineBreak(mapped, end) + 1;
+            if (end == 0) {
+                throw new IOException("Command line longer than " + windowSize + " bytes at offset " + start);
+            }
+        }
+
+        window = mapped;
+        windowStart = start;
+        position = 0;
+        limit = end;
+        if (pendingCarriageReturn && limit > 0 && window.get(0) == LINE_FEED) {
+            position = 1;
+        }
+        pendingCarriageReturn = false;
+        return true;
+    }
+
+    /**
+     * Prefers a line feed so that a CR LF pair never straddles two windows.
+     */
+    private static int lastLineBreak(MappedByteBuffer buffer, int end) {
+        for (int i = end - 1; i >= 0; i--) {
+            if (buffer.get(i) == LINE_FEED) {
+                return i;
+            }
+        }
+        for (int i = end - 1; i >= 0; i--) {
+            if (buffer.get(i) == CARRIAGE_RETURN) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private ParseResult parseLine(int start, int end) {
+        // String.trim() semantics, then the parser's \s+ splits
+        while (start < end && isTrimmed(window.get(start))) {
+            start++;
+        }
+        while (end > start && isTrimmed(window.get(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return ParseResult.failure("Command line cannot be null or empty");
+        }
+
+        int verbEnd = skipToken(start, end);
+        String verb = VERBS.find(window, start, verbEnd);
+        if (verb == null) {
+            return ParseResult.failure("Unknown command: " + decode(start, verbEnd));
+        }
+        CommandType commandType = CommandType.valueOf(verb);
+
+        int argumentsStart = verbEnd;
+        while (argumentsStart < end && isTrimmed(window.get(argumentsStart))) {
+            argumentsStart++;
+        }
+        List<String> arguments = new ArrayList<>();
+        if (argumentsStart < end) {
+            tokenise(commandType, argumentsStart, end, arguments);
+        }
+        return commandParser.validated(commandType, arguments);
+    }
+
+    private void tokenise(CommandType commandType, int start, int end, List<String> arguments) {
+        switch (commandType) {
+            case CURRENT_PORTFOLIO:
+            case CALCULATE_SIMILARITY:
+            case TOP_OVERLAP:
+            case FORK:
+            case ROLLBACK:
+                while (start < end) {
+                    int tokenEnd = skipToken(start, end);
+                    arguments.add(name(start, tokenEnd));
+                    start = skipWhitespace(tokenEnd, end);
+                }
+                break;
+
+            case CALCULATE_OVERLAP:
+            case CALCULATE_WEIGHTED_OVERLAP:
+                arguments.add(name(start, end));
+                break;
+
+            case ADD_STOCK:
+                int fundEnd = skipToken(start, end);
+                arguments.add(name(start, fundEnd));
+                if (fundEnd < end) {
+                    arguments.add(decode(skipWhitespace(fundEnd, end), end));
+                }
+                break;
+
+            case ADD_STOCKS:
+                CommandParser.splitAdditions(decode(start, end), arguments);
+                break;
+
+            default:
+                throw new IllegalStateException("Unhandled command type: " + commandType);
+        }
+    }
+
+    private String name(int start, int end) {
+        String known = names.find(window, start, end);
+        return known != null ? known : decode(start, end);
+    }
+
+    private int skipToken(int index, int end) {
+        while (index < end && !isWhitespace(window.get(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private int skipWhitespace(int index, int end) {
+        while (index < end && isWhitespace(window.get(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private String decode(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = window.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isTrimmed(byte value) {
+        return value >= 0 && value <= MAX_TRIMMED_BYTE;
+    }
+
+    /**
+     * The regex {@code \s} class: space, tab, line feed, vertical tab, form feed, carriage return.
+     */
+    private static boolean isWhitespace(byte value) {
+        return value == ' ' || (value >= '\t' && value <= '\r');
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (ownsChannel) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.geektrust.command;
+
+import java.util.Objects;
+
+/**
+ * Outcome of {@link CommandParser#tryParse}: either a command or the reason the line was rejected.
+ */
+public final class ParseResult {
+    private final ParsedCommand command;
+    private final String errorMessage;
+
+    private ParseResult(ParsedCommand command, String errorMessage) {
+        this.command = command;
+        this.errorMessage = errorMessage;
+    }
+
+    public static ParseResult success(ParsedCommand command) {
+        return new ParseResult(Objects.requireNonNull(command, "Command cannot be null"), null);
+    }
+
+    public static ParseResult failure(String errorMessage) {
+        return new ParseResult(null, Objects.requireNonNull(errorMessage, "Error message cannot be null"));
+    }
+
+    public boolean isSuccess() {
+        return command != null;
+    }
+
+    /**
+     * The parsed command, or {@code null} on failure.
+     */
+    public ParsedCommand getCommand() {
+        return command;
+    }
+
+    /**
+     * Why the line was rejected, or {@code null} on success.
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess() ? "ParseResult{" + command + '}' : "ParseResult{error='" + errorMessage + "'}";
+    }
+}
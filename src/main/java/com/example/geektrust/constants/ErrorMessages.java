@@ -2,6 +2,9 @@ package com.example.geektrust.constants;
 
 public final class ErrorMessages {
     public static final String FUND_NOT_FOUND = "FUND_NOT_FOUND";
+    public static final String UNKNOWN_METRIC = "UNKNOWN_METRIC";
+    public static final String NO_FORK = "NO_FORK";
+    public static final String FORK_NOT_SUPPORTED = "FORK_NOT_SUPPORTED";
     
     private ErrorMessages() {
         // Utility class - prevent instantiation
@@ -0,0 +1,242 @@
+package com.example.geektrust.domain;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable sorted set of names packed into one byte array with front coding. Names are sorted by
+ * their UTF-8 bytes and cut into buckets of {@value #BUCKET_SIZE}; the first name of a bucket is
+ * stored whole and every other name as the length of the prefix it shares with its predecessor
+ * followed by the remaining bytes. Lookups binary-search the bucket heads and then scan one
+ * bucket.
+ */
+final class FrontCodedNames implements SortedNames {
+    static final int BUCKET_SIZE = 16;
+    private static final int VARINT_PAYLOAD_BITS = 7;
+    private static final int VARINT_PAYLOAD_MASK = 0x7F;
+    private static final int VARINT_CONTINUATION = 0x80;
+
+    private final byte[] data;
+    private final int[] bucketOffsets;
+    private final int size;
+    private final int maxLength;
+
+    private FrontCodedNames(byte[] data, int[] bucketOffsets, int size, int maxLength) {
+        this.data = data;
+        this.bucketOffsets = bucketOffsets;
+        this.size = size;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Packs the distinct {@code names}; the index of a name is its rank in UTF-8 byte order.
+     */
+    static FrontCodedNames of(Collection<String> names) {
+        byte[][] encoded = new byte[names.size()][];
+        int count = 0;
+        for (String name : names) {
+            encoded[count++] = name.getBytes(StandardCharsets.UTF_8);
+        }
+        Arrays.sort(encoded, FrontCodedNames::compare);
+
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        int[] bucketOffsets = new int[(count + BUCKET_SIZE - 1) / BUCKET_SIZE];
+        int maxLength = 0;
+        int size = 0;
+        byte[] previous = null;
+        for (int i = 0; i < count; i++) {
+            byte[] name = encoded[i];
+            if (previous != null && compare(previous, name) == 0) {
+                continue;
+            }
+            if (size % BUCKET_SIZE == 0) {
+                bucketOffsets[size / BUCKET_SIZE] = data.size();
+                writeVarint(data, name.length);
+                data.write(name, 0, name.length);
+            } else {
+                int shared = sharedPrefixLength(previous, name);
+                writeVarint(data, shared);
+                writeVarint(data, name.length - shared);
+                data.write(name, shared, name.length - shared);
+            }
+            maxLength = Math.max(maxLength, name.length);
+            previous = name;
+            size++;
+        }
+        return new FrontCodedNames(data.toByteArray(),
+            Arrays.copyOf(bucketOffsets, (size + BUCKET_SIZE - 1) / BUCKET_SIZE), size, maxLength);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Bytes held by the packed names, for comparing against plain strings.
+     */
+    int packedSize() {
+        return data.length + bucketOffsets.length * Integer.BYTES;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + size);
+        }
+        byte[] name = new byte[maxLength];
+        int[] position = {bucketOffsets[index / BUCKET_SIZE]};
+        int length = readVarint(position);
+        System.arraycopy(data, position[0], name, 0, length);
+        position[0] += length;
+        for (int i = index % BUCKET_SIZE; i > 0; i--) {
+            length = readEntry(position, name);
+        }
+        return new String(name, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Index of the name whose UTF-8 encoding is {@code key}, or -1 if there is none. Allocates
+     * nothing: the bucket is compared entry by entry in its front-coded form.
+     */
+    @Override
+    public int indexOf(byte[] key) {
+        int low = 0;
+        int high = bucketOffsets.length - 1;
+        int bucket = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int position = bucketOffsets[mid];
+            int comparison = compare(data, skipVarint(position), varintAt(position), key, 0);
+            if (comparison < 0) {
+                bucket = mid;
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid * BUCKET_SIZE;
+            }
+        }
+        if (bucket < 0) {
+            return -1;
+        }
+
+        // Each entry is compared only past the prefix the previous entry is known to share with key
+        int position = bucketOffsets[bucket];
+        int headLength = varintAt(position);
+        position = skipVarint(position);
+        int matched = sharedPrefixLength(data, position, headLength, key, 0);
+        position += headLength;
+        int end = Math.min(size, (bucket + 1) * BUCKET_SIZE);
+        for (int index = bucket * BUCKET_SIZE + 1; index < end; index++) {
+            int shared = varintAt(position);
+            position = skipVarint(position);
+            int suffix = varintAt(position);
+            position = skipVarint(position);
+            if (shared < matched) {
+                // Greater than the previous entry where that entry still agreed with key
+                return -1;
+            }
+            if (shared == matched) {
+                int comparison = compare(data, position, suffix, key, matched);
+                if (comparison == 0) {
+                    return index;
+                }
+                if (comparison > 0) {
+                    return -1;
+                }
+                matched += sharedPrefixLength(data, position, suffix, key, matched);
+            }
+            position += suffix;
+        }
+        return -1;
+    }
+
+    /**
+     * Applies the front-coded entry at {@code position} to {@code name} and returns its length.
+     */
+    private int readEntry(int[] position, byte[] name) {
+        int shared = readVarint(position);
+        int suffix = readVarint(position);
+        System.arraycopy(data, position[0], name, shared, suffix);
+        position[0] += suffix;
+        return shared + suffix;
+    }
+
+    private int readVarint(int[] position) {
+        int value = varintAt(position[0]);
+        position[0] = skipVarint(position[0]);
+        return value;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~VARINT_PAYLOAD_MASK) != 0) {
+            out.write((value & VARINT_PAYLOAD_MASK) | VARINT_CONTINUATION);
+            value >>>= VARINT_PAYLOAD_BITS;
+        }
+        out.write(value);
+    }
+
+    private int varintAt(int position) {
+        int value = 0;
+        int shift = 0;
+        int next;
+        do {
+            next = data[position++] & 0xFF;
+            value |= (next & VARINT_PAYLOAD_MASK) << shift;
+            shift += VARINT_PAYLOAD_BITS;
+        } while ((next & VARINT_CONTINUATION) != 0);
+        return value;
+    }
+
+    private int skipVarint(int position) {
+        while ((data[position++] & VARINT_CONTINUATION) != 0) {
+            // Continuation bytes carry no information needed here
+        }
+        return position;
+    }
+
+    /**
+     * Length of the prefix {@code bytes[offset..offset + length)} shares with {@code key} from
+     * {@code keyOffset}.
+     */
+    private static int sharedPrefixLength(byte[] bytes, int offset, int length, byte[] key, int keyOffset) {
+        int limit = Math.min(length, key.length - keyOffset);
+        int shared = 0;
+        while (shared < limit && bytes[offset + shared] == key[keyOffset + shared]) {
+            shared++;
+        }
+        return shared;
+    }
+
+    private static int sharedPrefixLength(byte[] first, byte[] second) {
+        int limit = Math.min(first.length, second.length);
+        int shared = 0;
+        while (shared < limit && first[shared] == second[shared]) {
+            shared++;
+        }
+        return shared;
+    }
+
+    private static int compare(byte[] first, byte[] second) {
+        return compare(first, 0, first.length, second, 0);
+    }
+
+    /**
+     * Unsigned lexicographic comparison of {@code bytes[offset..offset + length)} with {@code key}
+     * from {@code keyOffset}.
+     */
+    private static int compare(byte[] bytes, int offset, int length, byte[] key, int keyOffset) {
+        int keyLength = key.length - keyOffset;
+        int limit = Math.min(length, keyLength);
+        for (int i = 0; i < limit; i++) {
+            int difference = (bytes[offset + i] & 0xFF) - (key[keyOffset + i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - keyLength;
+    }
+}
@@ -1,13 +1,26 @@
 package com.example.geektrust.domain;
 
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
+/**
+ * A fund's holdings are kept as ids in {@link StockDictionary#shared()}, which is the only place
+ * stock names are stored; {@link #getStocks()} decodes them on demand.
+ */
 public class Fund {
+    private static final double TOTAL_WEIGHT = 100.0;
+    private static final double ADDED_STOCK_WEIGHT = 0.0;
+    /** Marks a fund whose bitmap has been checked and has no dense chunk, so is not kept. */
+    private static final StockBitmap NO_DENSE_CHUNKS = StockBitmap.EMPTY;
+
     private final String name;
-    private final Set<String> stocks;
+    private final int[] stockIds;
+    private final double[] stockWeights;
+    private final boolean weighted;
+    private volatile StockBitmap stockBitmap;
 
     public Fund(String name, Set<String> stocks) {
         if (name == null || name.trim().isEmpty()) {
@@ -18,45 +31,294 @@ public class Fund {
         }
         
         this.name = name.trim();
-        this.stocks = Collections.unmodifiableSet(new HashSet<>(stocks));
+        this.stockIds = toSortedStockIds(stocks);
+        this.stockWeights = null;
+        this.weighted = false;
+    }
+
+    /**
+     * Creates a fund whose holdings carry explicit weights; {@code weights[i]} is the weight of
+     * {@code stocks[i]}. Weights of repeated stock names are summed.
+     */
+    public Fund(String name, String[] stocks, double[] weights) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Fund name cannot be null or empty");
+        }
+        if (stocks == null || weights == null) {
+            throw new IllegalArgumentException("Stocks and weights cannot be null");
+        }
+        if (stocks.length != weights.length) {
+            throw new IllegalArgumentException("Stocks and weights must have the same length");
+        }
+
+        StockDictionary dictionary = StockDictionary.shared();
+        long[] idAndPosition = new long[stocks.length];
+        for (int i = 0; i < stocks.length; i++) {
+            if (stocks[i] == null) {
+                throw new IllegalArgumentException("Stocks cannot contain null");
+            }
+            if (!(weights[i] >= 0) || Double.isInfinite(weights[i])) {
+                throw new IllegalArgumentException("Invalid weight for stock " + stocks[i] + ": " + weights[i]);
+            }
+            idAndPosition[i] = ((long) dictionary.idOf(stocks[i]) << Integer.SIZE) | i;
+        }
+        Arrays.sort(idAndPosition);
+
+        int[] ids = new int[stocks.length];
+        double[] sortedWeights = new double[stocks.length];
+        int count = 0;
+        for (long entry : idAndPosition) {
+            int id = (int) (entry >>> Integer.SIZE);
+            double weight = weights[(int) entry];
+            if (count > 0 && ids[count - 1] == id) {
+                sortedWeights[count - 1] += weight;
+            } else {
+                ids[count] = id;
+                sortedWeights[count] = weight;
+                count++;
+            }
+        }
+
+        this.name = name.trim();
+        this.stockIds = Arrays.copyOf(ids, count);
+        this.stockWeights = Arrays.copyOf(sortedWeights, count);
+        this.weighted = true;
+    }
+
+    private Fund(String name, int[] stockIds, double[] stockWeights, boolean weighted) {
+        this.name = name;
+        this.stockIds = stockIds;
+        this.stockWeights = stockWeights;
+        this.weighted = weighted;
+    }
+
+    /**
+     * For subclasses that supply holdings lazily; they must override every holdings accessor.
+     */
+    protected Fund(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Fund name cannot be null or empty");
+        }
+
+        this.name = name.trim();
+        this.stockIds = null;
+        this.stockWeights = null;
+        this.weighted = false;
+    }
+
+    private static int[] toSortedStockIds(Set<String> stocks) {
+        StockDictionary dictionary = StockDictionary.shared();
+        int[] ids = new int[stocks.size()];
+        int index = 0;
+        for (String stock : stocks) {
+            if (stock == null) {
+                throw new IllegalArgumentException("Stocks cannot contain null");
+            }
+            ids[index++] = dictionary.idOf(stock);
+        }
+        Arrays.sort(ids);
+        // A set can only repeat an id if its equality is looser than String.equals
+        int distinct = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (distinct == 0 || ids[distinct - 1] != ids[i]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return distinct == ids.length ? ids : Arrays.copyOf(ids, distinct);
+    }
+
+    /**
+     * The weight each stock carries in a fund of {@code stockCount} stocks without explicit
+     * weights.
+     */
+    public static double equalWeight(int stockCount) {
+        return TOTAL_WEIGHT / stockCount;
     }
 
     public String getName() {
         return name;
     }
 
+    /**
+     * Unmodifiable view of the stock names, decoded from the dictionary as they are read.
+     */
     public Set<String> getStocks() {
-        return stocks;
+        return new StockNameSet(getStockIds());
+    }
+
+    /**
+     * Ids of this fund's stocks in {@link StockDictionary#shared()}, in ascending order.
+     * The returned array is shared and must not be modified.
+     */
+    public int[] getStockIds() {
+        return stockIds;
+    }
+
+    /**
+     * The stock ids as a compressed bitmap. A fund whose ids fill at least one dense 64K chunk
+     * keeps its bitmap once built, alongside the id array: 8 KiB per dense chunk plus 2 bytes per
+     * remaining id. Every other fund builds a new bitmap on each call; the overlap code scores
+     * those funds from their ids instead.
+     */
+    public StockBitmap getStockBitmap() {
+        StockBitmap dense = denseStockBitmap();
+        return dense != null ? dense : StockBitmap.of(getStockIds());
+    }
+
+    /**
+     * Whether the fund's ids fill at least one bitmap chunk, which is when intersecting bitmaps
+     * beats streaming the ids.
+     */
+    public boolean hasDenseStockChunks() {
+        return denseStockBitmap() != null;
+    }
+
+    private StockBitmap denseStockBitmap() {
+        StockBitmap bitmap = stockBitmap;
+        if (bitmap == null) {
+            bitmap = NO_DENSE_CHUNKS;
+            if (getStockCount() > StockBitmap.ARRAY_CHUNK_MAX) {
+                StockBitmap built = StockBitmap.of(getStockIds());
+                if (built.bitmapChunkCount() > 0) {
+                    bitmap = built;
+                }
+            }
+            stockBitmap = bitmap;
+        }
+        return bitmap == NO_DENSE_CHUNKS ? null : bitmap;
+    }
+
+    /**
+     * Weights parallel to {@link #getStockIds()}. The array of a weighted fund is shared and must
+     * not be modified; a fund without explicit weights stores none and returns a new array of
+     * {@link #equalWeight} values.
+     */
+    public double[] getStockWeights() {
+        if (stockWeights != null) {
+            return stockWeights;
+        }
+        double[] weights = new double[getStockCount()];
+        Arrays.fill(weights, equalWeight(weights.length));
+        return weights;
+    }
+
+    public boolean isWeighted() {
+        return weighted;
     }
 
     public boolean containsStock(String stockName) {
-        return stocks.contains(stockName);
+        int id = StockDictionary.shared().lookup(stockName);
+        return id != StockDictionary.UNKNOWN_STOCK && Arrays.binarySearch(getStockIds(), id) >= 0;
     }
 
     public int getStockCount() {
-        return stocks.size();
+        return getStockIds().length;
+    }
+
+    /**
+     * Returns a copy of this fund that also holds {@code stockName}. In a weighted fund the
+     * added stock carries zero weight, leaving the existing weights untouched.
+     */
+    public Fund withStock(String stockName) {
+        if (stockName == null) {
+            throw new IllegalArgumentException("Stocks cannot contain null");
+        }
+        int[] ids = getStockIds();
+        int id = StockDictionary.shared().idOf(stockName);
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return this;
+        }
+
+        int insertAt = -position - 1;
+        int[] extendedIds = new int[ids.length + 1];
+        System.arraycopy(ids, 0, extendedIds, 0, insertAt);
+        extendedIds[insertAt] = id;
+        System.arraycopy(ids, insertAt, extendedIds, insertAt + 1, ids.length - insertAt);
+        if (!isWeighted()) {
+            return new Fund(name, extendedIds, null, false);
+        }
+
+        double[] weights = getStockWeights();
+        double[] extendedWeights = new double[weights.length + 1];
+        System.arraycopy(weights, 0, extendedWeights, 0, insertAt);
+        extendedWeights[insertAt] = ADDED_STOCK_WEIGHT;
+        System.arraycopy(weights, insertAt, extendedWeights, insertAt + 1, weights.length - insertAt);
+        return new Fund(name, extendedIds, extendedWeights, true);
+    }
+
+    /**
+     * The fund a run of {@link #withStock} calls for {@code stockNames} would give, built with one
+     * merge instead of a copy per stock. Returns this fund if it already holds every stock.
+     */
+    public Fund withStocks(Collection<String> stockNames) {
+        int[] ids = getStockIds();
+        int[] added = new int[stockNames.size()];
+        int addedCount = 0;
+        for (String stockName : stockNames) {
+            if (stockName == null) {
+                throw new IllegalArgumentException("Stocks cannot contain null");
+            }
+            int id = StockDictionary.shared().idOf(stockName);
+            if (Arrays.binarySearch(ids, id) < 0) {
+                added[addedCount++] = id;
+            }
+        }
+        if (addedCount == 0) {
+            return this;
+        }
+        Arrays.sort(added, 0, addedCount);
+        int distinct = 1;
+        for (int i = 1; i < addedCount; i++) {
+            if (added[i] != added[distinct - 1]) {
+                added[distinct++] = added[i];
+            }
+        }
+
+        boolean weightedMerge = isWeighted();
+        double[] weights = weightedMerge ? getStockWeights() : null;
+        int[] mergedIds = new int[ids.length + distinct];
+        double[] mergedWeights = weightedMerge ? new double[mergedIds.length] : null;
+        int existing = 0;
+        int next = 0;
+        for (int merged = 0; merged < mergedIds.length; merged++) {
+            if (next == distinct || (existing < ids.length && ids[existing] < added[next])) {
+                if (weightedMerge) {
+                    mergedWeights[merged] = weights[existing];
+                }
+                mergedIds[merged] = ids[existing++];
+            } else {
+                if (weightedMerge) {
+                    mergedWeights[merged] = ADDED_STOCK_WEIGHT;
+                }
+                mergedIds[merged] = added[next++];
+            }
+        }
+        return new Fund(name, mergedIds, mergedWeights, weightedMerge);
     }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Fund)) return false;
         
         Fund fund = (Fund) o;
         return Objects.equals(name, fund.name) && 
-               Objects.equals(stocks, fund.stocks);
+               Arrays.equals(getStockIds(), fund.getStockIds()) &&
+               isWeighted() == fund.isWeighted() &&
+               (!isWeighted() || Arrays.equals(getStockWeights(), fund.getStockWeights()));
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, stocks);
+        return 31 * Objects.hashCode(name) + Arrays.hashCode(getStockIds());
     }
 
     @Override
     public String toString() {
         return "Fund{" +
                 "name='" + name + '\'' +
-                ", stocks=" + stocks +
+                ", stocks=" + getStocks() +
                 '}';
     }
 
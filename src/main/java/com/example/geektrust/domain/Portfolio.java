@@ -1,57 +1,157 @@
 package com.example.geektrust.domain;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class Portfolio {
-    private final List<String> currentFundNames;
+    private static final Snapshot EMPTY_SNAPSHOT = new Snapshot(new String[0], null, 0L);
 
-    public Portfolio() {
-        this.currentFundNames = new ArrayList<>();
-    }
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(EMPTY_SNAPSHOT);
 
-    public synchronized void setCurrentFundNames(List<String> fundNames) {
+    public void setCurrentFundNames(List<String> fundNames) {
         Objects.requireNonNull(fundNames, "Fund names list cannot be null");
-        
-        this.currentFundNames.clear();
-        this.currentFundNames.addAll(fundNames);
+
+        String[] names = fundNames.toArray(new String[0]);
+        snapshot.updateAndGet(current -> new Snapshot(names, null, current.version + 1));
+    }
+
+    public void setCurrentFunds(List<Fund> funds) {
+        Objects.requireNonNull(funds, "Funds list cannot be null");
+
+        Fund[] fundArray = funds.toArray(new Fund[0]);
+        String[] fundNames = new String[fundArray.length];
+        for (int i = 0; i < fundArray.length; i++) {
+            fundNames[i] = Objects.requireNonNull(fundArray[i], "Fund cannot be null").getName();
+        }
+        snapshot.updateAndGet(current -> new Snapshot(fundNames, fundArray, current.version + 1));
+    }
+
+    public List<String> getCurrentFundNames() {
+        return snapshot.get().fundNames;
     }
 
-    public synchronized List<String> getCurrentFundNames() {
-        return Collections.unmodifiableList(new ArrayList<>(currentFundNames));
+    public List<Fund> getCurrentFunds() {
+        return snapshot.get().funds;
     }
 
-    public synchronized boolean isEmpty() {
-        return currentFundNames.isEmpty();
+    /**
+     * Incremented by every change to the portfolio, including {@link #replaceFund}.
+     */
+    public long getVersion() {
+        return snapshot.get().version;
     }
 
-    public synchronized int size() {
-        return currentFundNames.size();
+    public boolean hasResolvedFunds() {
+        return snapshot.get().resolved;
     }
 
-    public synchronized void clear() {
-        currentFundNames.clear();
+    public void replaceFund(Fund updatedFund) {
+        Objects.requireNonNull(updatedFund, "Fund cannot be null");
+
+        while (true) {
+            Snapshot current = snapshot.get();
+            int index = current.fundNames.indexOf(updatedFund.getName());
+            if (!current.resolved || index < 0) {
+                return;
+            }
+
+            Fund[] funds = current.funds.toArray(new Fund[0]);
+            for (int i = index; i < funds.length; i++) {
+                if (funds[i].getName().equals(updatedFund.getName())) {
+                    funds[i] = updatedFund;
+                }
+            }
+            Snapshot updated = new Snapshot(current.fundNames.toArray(new String[0]), funds, current.version + 1);
+            if (snapshot.compareAndSet(current, updated)) {
+                return;
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return snapshot.get().fundNames.isEmpty();
+    }
+
+    public int size() {
+        return snapshot.get().fundNames.size();
+    }
+
+    public void clear() {
+        snapshot.updateAndGet(current -> new Snapshot(new String[0], null, current.version + 1));
+    }
+
+    /**
+     * Captures the current funds in O(1); snapshots are immutable, so nothing is copied.
+     */
+    public Checkpoint checkpoint() {
+        return new Checkpoint(snapshot.get());
+    }
+
+    /**
+     * Returns to the funds captured by {@code checkpoint}. This is a change like any other, so
+     * the version still increases.
+     */
+    public void restore(Checkpoint checkpoint) {
+        Objects.requireNonNull(checkpoint, "Checkpoint cannot be null");
+
+        Snapshot saved = checkpoint.snapshot;
+        snapshot.updateAndGet(current -> new Snapshot(saved.fundNames, saved.funds, saved.resolved, current.version + 1));
     }
 
     @Override
-    public synchronized boolean equals(Object o) {
+    public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Portfolio portfolio = (Portfolio) o;
-        return Objects.equals(currentFundNames, portfolio.currentFundNames);
+        return Objects.equals(snapshot.get().fundNames, portfolio.snapshot.get().fundNames);
     }
 
     @Override
-    public synchronized int hashCode() {
-        return Objects.hash(currentFundNames);
+    public int hashCode() {
+        return Objects.hash(snapshot.get().fundNames);
     }
 
     @Override
-    public synchronized String toString() {
+    public String toString() {
         return "Portfolio{" +
-                "currentFundNames=" + currentFundNames +
+                "currentFundNames=" + snapshot.get().fundNames +
                 '}';
     }
+
+    /**
+     * The funds of a {@link Portfolio} at one point in time.
+     */
+    public static final class Checkpoint {
+        private final Snapshot snapshot;
+
+        private Checkpoint(Snapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+
+    private static final class Snapshot {
+        private final List<String> fundNames;
+        private final List<Fund> funds;
+        private final boolean resolved;
+        private final long version;
+
+        private Snapshot(String[] fundNames, Fund[] funds, long version) {
+            this.fundNames = Collections.unmodifiableList(Arrays.asList(fundNames));
+            this.funds = funds != null
+                    ? Collections.unmodifiableList(Arrays.asList(funds))
+                    : Collections.<Fund>emptyList();
+            this.resolved = funds != null;
+            this.version = version;
+        }
+
+        private Snapshot(List<String> fundNames, List<Fund> funds, boolean resolved, long version) {
+            this.fundNames = fundNames;
+            this.funds = funds;
+            this.resolved = resolved;
+            this.version = version;
+        }
+    }
 }
\ No newline at end of file
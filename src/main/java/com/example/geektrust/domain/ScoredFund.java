@@ -0,0 +1,53 @@
+package com.example.geektrust.domain;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * A fund name with its overlap against some target, as returned by top-k queries.
+ */
+public final class ScoredFund {
+    /**
+     * Highest overlap first; ties are broken by fund name so merged results are deterministic.
+     */
+    public static final Comparator<ScoredFund> BY_OVERLAP_DESCENDING =
+        Comparator.comparingDouble(ScoredFund::getOverlapPercentage).reversed()
+                  .thenComparing(ScoredFund::getFundName);
+
+    private final String fundName;
+    private final double overlapPercentage;
+
+    public ScoredFund(String fundName, double overlapPercentage) {
+        this.fundName = Objects.requireNonNull(fundName, "Fund name cannot be null");
+        this.overlapPercentage = overlapPercentage;
+    }
+
+    public String getFundName() {
+        return fundName;
+    }
+
+    public double getOverlapPercentage() {
+        return overlapPercentage;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ScoredFund that = (ScoredFund) o;
+        return Double.compare(overlapPercentage, that.overlapPercentage) == 0 && fundName.equals(that.fundName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fundName, overlapPercentage);
+    }
+
+    @Override
+    public String toString() {
+        return "ScoredFund{" +
+                "fundName='" + fundName + '\'' +
+                ", overlapPercentage=" + overlapPercentage +
+                '}';
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.geektrust.domain;
+
+/**
+ * Read-only table of distinct names sorted by their UTF-8 bytes and addressed by rank, which
+ * {@link StockDictionary} can hold as a segment without copying the names.
+ */
+public interface SortedNames {
+
+    int size();
+
+    String get(int index);
+
+    /**
+     * Index of the name whose UTF-8 encoding is {@code key}, or -1 if there is none.
+     */
+    int indexOf(byte[] key);
+}
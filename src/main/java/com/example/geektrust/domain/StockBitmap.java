@@ -0,0 +1,301 @@
+package com.example.geektrust.domain;
+
+import java.util.Arrays;
+
+/**
+ * Immutable compressed set of stock ids in the style of a Roaring bitmap. Ids are split by their
+ * high 16 bits into chunks; a chunk with few ids stores its low bits as a sorted run of
+ * {@code char}s and a dense chunk as a 65536-bit bitmap, so a fund of a hundred stocks costs a
+ * few hundred bytes however large the stock universe grows. The sorted runs of all chunks share
+ * one array to keep a fund's holdings contiguous.
+ */
+public final class StockBitmap {
+    public static final StockBitmap EMPTY = new StockBitmap(new char[0], new int[1], new char[0], null, null, 0);
+
+    /**
+     * Most ids a chunk holds as a sorted run; a fund with no more stocks than this has no bitmap
+     * chunks.
+     */
+    public static final int ARRAY_CHUNK_MAX = 4096;
+
+    private static final int CHUNK_SHIFT = 16;
+    private static final int LOW_BITS_MASK = 0xFFFF;
+    private static final int WORD_SHIFT = 6;
+    private static final int BITMAP_WORDS = 1 << (CHUNK_SHIFT - WORD_SHIFT);
+    private static final int GALLOP_RATIO = 32;
+
+    private final char[] keys;
+    private final int[] offsets;
+    private final char[] values;
+    private final long[][] bitmaps;
+    private final long[][] bitmapsByKey;
+    private final int cardinality;
+
+    /**
+     * Chunk {@code i} holds {@code values[offsets[i]..offsets[i + 1])}, unless {@code bitmaps} is
+     * non-null and {@code bitmaps[i]} is set, in which case that bitmap holds it. Only a
+     * {@link #densified()} bitmap has {@code bitmapsByKey}, its bitmaps indexed by chunk key.
+     */
+    private StockBitmap(char[] keys, int[] offsets, char[] values, long[][] bitmaps, long[][] bitmapsByKey,
+                        int cardinality) {
+        this.keys = keys;
+        this.offsets = offsets;
+        this.values = values;
+        this.bitmaps = bitmaps;
+        this.bitmapsByKey = bitmapsByKey;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Builds a bitmap from non-negative ids in strictly ascending order, such as
+     * {@link Fund#getStockIds()}.
+     */
+    public static StockBitmap of(int[] sortedIds) {
+        if (sortedIds.length == 0) {
+            return EMPTY;
+        }
+        for (int i = 0; i < sortedIds.length; i++) {
+            if (sortedIds[i] < 0 || (i > 0 && sortedIds[i] <= sortedIds[i - 1])) {
+                throw new IllegalArgumentException("Stock ids must be non-negative and strictly ascending");
+            }
+        }
+
+        char[] keys = new char[sortedIds.length];
+        int[] offsets = new int[sortedIds.length + 1];
+        char[] values = new char[sortedIds.length];
+        long[][] bitmaps = null;
+        int chunks = 0;
+        int valueCount = 0;
+        int start = 0;
+        while (start < sortedIds.length) {
+            int key = sortedIds[start] >>> CHUNK_SHIFT;
+            int end = start + 1;
+            while (end < sortedIds.length && sortedIds[end] >>> CHUNK_SHIFT == key) {
+                end++;
+            }
+            keys[chunks] = (char) key;
+            if (end - start > ARRAY_CHUNK_MAX) {
+                if (bitmaps == null) {
+                    bitmaps = new long[sortedIds.length][];
+                }
+                long[] words = new long[BITMAP_WORDS];
+                for (int i = start; i < end; i++) {
+                    setBit(words, sortedIds[i] & LOW_BITS_MASK);
+                }
+                bitmaps[chunks] = words;
+            } else {
+                for (int i = start; i < end; i++) {
+                    values[valueCount++] = (char) (sortedIds[i] & LOW_BITS_MASK);
+                }
+            }
+            chunks++;
+            offsets[chunks] = valueCount;
+            start = end;
+        }
+        return new StockBitmap(
+            Arrays.copyOf(keys, chunks),
+            Arrays.copyOf(offsets, chunks + 1),
+            valueCount == values.length ? values : Arrays.copyOf(values, valueCount),
+            bitmaps == null ? null : Arrays.copyOf(bitmaps, chunks),
+            null,
+            sortedIds.length);
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean contains(int id) {
+        if (id < 0) {
+            return false;
+        }
+        int chunk = Arrays.binarySearch(keys, (char) (id >>> CHUNK_SHIFT));
+        if (chunk < 0) {
+            return false;
+        }
+        char low = (char) (id & LOW_BITS_MASK);
+        long[] words = bitmapOf(chunk);
+        return words != null
+            ? testBit(words, low)
+            : Arrays.binarySearch(values, offsets[chunk], offsets[chunk + 1], low) >= 0;
+    }
+
+    /**
+     * Number of ids held by both bitmaps, counted chunk by chunk without building the
+     * intersection.
+     */
+    public int intersectionCardinality(StockBitmap other) {
+        if (cardinality == 0 || other.cardinality == 0) {
+            return 0;
+        }
+        if (bitmapsByKey != null) {
+            return other.countIn(bitmapsByKey);
+        }
+        if (other.bitmapsByKey != null) {
+            return countIn(other.bitmapsByKey);
+        }
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                count += chunkIntersectionCardinality(i, other, j);
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The same ids with every chunk held as a bitmap. Intersecting the result with a sparse
+     * bitmap costs one bit test per id of the sparse side, which suits scoring one target against
+     * many funds; it takes 8 KiB per chunk, so it is meant to be short-lived.
+     */
+    public StockBitmap densified() {
+        if (bitmapsByKey != null) {
+            return this;
+        }
+        long[][] dense = new long[keys.length][];
+        long[][] denseByKey = new long[keys.length == 0 ? 0 : keys[keys.length - 1] + 1][];
+        for (int chunk = 0; chunk < keys.length; chunk++) {
+            long[] words = bitmapOf(chunk);
+            if (words == null) {
+                words = new long[BITMAP_WORDS];
+                for (int v = offsets[chunk]; v < offsets[chunk + 1]; v++) {
+                    setBit(words, values[v]);
+                }
+            }
+            dense[chunk] = words;
+            denseByKey[keys[chunk]] = words;
+        }
+        return new StockBitmap(keys, new int[keys.length + 1], new char[0], dense, denseByKey, cardinality);
+    }
+
+    /**
+     * Chunks held as bitmaps; the rest are sorted runs.
+     */
+    int bitmapChunkCount() {
+        int count = 0;
+        for (int chunk = 0; chunk < keys.length; chunk++) {
+            if (bitmapOf(chunk) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts this bitmap's ids that are set in the dense chunks {@code bitmapsByKey}.
+     */
+    private int countIn(long[][] bitmapsByKey) {
+        int count = 0;
+        for (int chunk = 0; chunk < keys.length; chunk++) {
+            int key = keys[chunk];
+            long[] dense = key < bitmapsByKey.length ? bitmapsByKey[key] : null;
+            if (dense == null) {
+                continue;
+            }
+            long[] words = bitmapOf(chunk);
+            if (words != null) {
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    count += Long.bitCount(words[w] & dense[w]);
+                }
+            } else {
+                count += countBits(dense, values, offsets[chunk], offsets[chunk + 1]);
+            }
+        }
+        return count;
+    }
+
+    private int chunkIntersectionCardinality(int chunk, StockBitmap other, int otherChunk) {
+        long[] words = bitmapOf(chunk);
+        long[] otherWords = other.bitmapOf(otherChunk);
+        if (words != null && otherWords != null) {
+            int count = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                count += Long.bitCount(words[w] & otherWords[w]);
+            }
+            return count;
+        }
+        if (words != null) {
+            return countBits(words, other.values, other.offsets[otherChunk], other.offsets[otherChunk + 1]);
+        }
+        if (otherWords != null) {
+            return countBits(otherWords, values, offsets[chunk], offsets[chunk + 1]);
+        }
+        return countCommon(values, offsets[chunk], offsets[chunk + 1],
+            other.values, other.offsets[otherChunk], other.offsets[otherChunk + 1]);
+    }
+
+    private long[] bitmapOf(int chunk) {
+        return bitmaps != null ? bitmaps[chunk] : null;
+    }
+
+    private static int countBits(long[] words, char[] values, int from, int to) {
+        int count = 0;
+        for (int v = from; v < to; v++) {
+            char value = values[v];
+            count += (int) ((words[value >>> WORD_SHIFT] >>> value) & 1L);
+        }
+        return count;
+    }
+
+    private static int countCommon(char[] values1, int from1, int to1, char[] values2, int from2, int to2) {
+        int length1 = to1 - from1;
+        int length2 = to2 - from2;
+        if (length1 * GALLOP_RATIO < length2) {
+            return countBySearch(values1, from1, to1, values2, from2, to2);
+        }
+        if (length2 * GALLOP_RATIO < length1) {
+            return countBySearch(values2, from2, to2, values1, from1, to1);
+        }
+
+        int count = 0;
+        int i = from1;
+        int j = from2;
+        while (i < to1 && j < to2) {
+            if (values1[i] < values2[j]) {
+                i++;
+            } else if (values1[i] > values2[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Looks each of the few {@code small} values up in {@code large}, narrowing the search range
+     * as the values ascend.
+     */
+    private static int countBySearch(char[] small, int smallFrom, int smallTo, char[] large, int largeFrom, int largeTo) {
+        int count = 0;
+        int from = largeFrom;
+        for (int s = smallFrom; s < smallTo && from < largeTo; s++) {
+            int found = Arrays.binarySearch(large, from, largeTo, small[s]);
+            if (found >= 0) {
+                count++;
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+        }
+        return count;
+    }
+
+    private static void setBit(long[] words, int value) {
+        words[value >>> WORD_SHIFT] |= 1L << value;
+    }
+
+    private static boolean testBit(long[] words, int value) {
+        return (words[value >>> WORD_SHIFT] & (1L << value)) != 0;
+    }
+}
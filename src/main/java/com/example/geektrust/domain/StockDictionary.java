@@ -0,0 +1,202 @@
+package com.example.geektrust.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns dense integer ids to stock names. Ids are stable for the lifetime of the
+ * dictionary, so funds built against the same dictionary can be compared by id.
+ * <p>
+ * Names registered in bulk through {@link #registerAll} are packed into sorted, front-coded
+ * segments, each owning a consecutive run of ids, and {@link #registerSorted} adopts an existing
+ * sorted table, such as a mapped universe file, as a segment in place. Names registered one at
+ * a time, such as ADD_STOCK arguments, are appended to a plain string array. Each bulk call that
+ * introduces names adds one segment, so a process holds one segment per universe it loads and a
+ * lookup miss probes each of them once.
+ */
+public final class StockDictionary {
+    public static final int UNKNOWN_STOCK = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final StockDictionary SHARED = new StockDictionary();
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile Singles singles = new Singles(new int[INITIAL_CAPACITY], new String[INITIAL_CAPACITY], 0);
+    private volatile Segment[] segments = new Segment[0];
+    private volatile int size;
+
+    /**
+     * The process-wide dictionary every {@link Fund} is built against. It never evicts, but it
+     * holds exactly one entry per distinct stock name it has seen, so it is bounded by the loaded
+     * universes plus the distinct names added through ADD_STOCK; building the same funds again,
+     * reloading a universe or replaying commands in another session does not grow it. The
+     * exception is {@link #registerSorted}, which reserves a full id range for every table it
+     * adopts, so mapping the same universe file twice reserves its range twice.
+     */
+    public static StockDictionary shared() {
+        return SHARED;
+    }
+
+    public int idOf(String stockName) {
+        int id = lookup(stockName);
+        if (id != UNKNOWN_STOCK) {
+            return id;
+        }
+        return register(stockName);
+    }
+
+    public int lookup(String stockName) {
+        if (stockName == null) {
+            return UNKNOWN_STOCK;
+        }
+        Integer id = ids.get(stockName);
+        if (id != null) {
+            return id;
+        }
+        Segment[] current = segments;
+        if (current.length == 0) {
+            return UNKNOWN_STOCK;
+        }
+        byte[] key = stockName.getBytes(StandardCharsets.UTF_8);
+        for (Segment segment : current) {
+            int index = segment.names.indexOf(key);
+            if (index >= 0) {
+                return segment.firstId + index;
+            }
+        }
+        return UNKNOWN_STOCK;
+    }
+
+    public String nameOf(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Unknown stock id: " + id);
+        }
+        String name = singles.nameOf(id);
+        if (name != null) {
+            return name;
+        }
+        Segment[] current = segments;
+        int low = 0;
+        int high = current.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Segment segment = current[mid];
+            if (id < segment.firstId) {
+                high = mid - 1;
+            } else if (id >= segment.firstId + segment.names.size()) {
+                low = mid + 1;
+            } else {
+                return segment.names.get(id - segment.firstId);
+            }
+        }
+        throw new IllegalStateException("Stock id " + id + " has no name");
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Registers every name not yet known as one front-coded segment, numbering them in sorted
+     * order. Meant for loading a universe before its funds are built.
+     */
+    public synchronized void registerAll(Collection<String> stockNames) {
+        List<String> unknown = new ArrayList<>();
+        for (String stockName : stockNames) {
+            if (stockName == null) {
+                throw new IllegalArgumentException("Stocks cannot contain null");
+            }
+            if (lookup(stockName) == UNKNOWN_STOCK) {
+                unknown.add(stockName);
+            }
+        }
+        if (unknown.isEmpty()) {
+            return;
+        }
+
+        // Size grows before the names are published, so any id a reader can look up is below it
+        FrontCodedNames packed = FrontCodedNames.of(unknown);
+        Segment[] extended = Arrays.copyOf(segments, segments.length + 1);
+        extended[segments.length] = new Segment(size, packed);
+        size += packed.size();
+        segments = extended;
+    }
+
+    /**
+     * Adds {@code names} as a segment without copying or checking them and returns the id of its
+     * first name; name {@code i} gets id {@code firstId + i}. A name registered earlier keeps its
+     * earlier id, which {@link #lookup} keeps returning, so callers must resolve such names
+     * through {@code lookup}; if the dictionary was empty, every id in the range is the one
+     * {@code lookup} returns. The segment stays referenced for the life of the dictionary.
+     */
+    public synchronized int registerSorted(SortedNames names) {
+        int firstId = size;
+        Segment[] extended = Arrays.copyOf(segments, segments.length + 1);
+        extended[segments.length] = new Segment(firstId, names);
+        size = firstId + names.size();
+        segments = extended;
+        return firstId;
+    }
+
+    private synchronized int register(String stockName) {
+        int id = lookup(stockName);
+        if (id != UNKNOWN_STOCK) {
+            return id;
+        }
+
+        // Published in the order a reader follows them: size, then the name, then the id
+        int newId = size;
+        size = newId + 1;
+        singles = singles.append(newId, stockName);
+        ids.put(stockName, newId);
+        return newId;
+    }
+
+    /**
+     * Ids and names registered one at a time, in ascending id order. The arrays only grow at the
+     * end, so a new snapshot shares them with the old one until they are full.
+     */
+    private static final class Singles {
+        private final int[] ids;
+        private final String[] names;
+        private final int count;
+
+        private Singles(int[] ids, String[] names, int count) {
+            this.ids = ids;
+            this.names = names;
+            this.count = count;
+        }
+
+        private Singles append(int id, String name) {
+            int[] nextIds = ids;
+            String[] nextNames = names;
+            if (count == ids.length) {
+                nextIds = Arrays.copyOf(ids, count * 2);
+                nextNames = Arrays.copyOf(names, count * 2);
+            }
+            nextIds[count] = id;
+            nextNames[count] = name;
+            return new Singles(nextIds, nextNames, count + 1);
+        }
+
+        private String nameOf(int id) {
+            int index = Arrays.binarySearch(ids, 0, count, id);
+            return index >= 0 ? names[index] : null;
+        }
+    }
+
+    private static final class Segment {
+        private final int firstId;
+        private final SortedNames names;
+
+        private Segment(int firstId, SortedNames names) {
+            this.firstId = firstId;
+            this.names = names;
+        }
+    }
+}
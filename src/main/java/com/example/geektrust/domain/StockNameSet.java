@@ -0,0 +1,52 @@
+package com.example.geektrust.domain;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Unmodifiable set of stock names backed by sorted ids in {@link StockDictionary#shared()}.
+ * Membership is answered from the ids; names are decoded only while iterating.
+ */
+final class StockNameSet extends AbstractSet<String> {
+    private final int[] sortedIds;
+
+    StockNameSet(int[] sortedIds) {
+        this.sortedIds = sortedIds;
+    }
+
+    @Override
+    public int size() {
+        return sortedIds.length;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String)) {
+            return false;
+        }
+        int id = StockDictionary.shared().lookup((String) o);
+        return id != StockDictionary.UNKNOWN_STOCK && Arrays.binarySearch(sortedIds, id) >= 0;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < sortedIds.length;
+            }
+
+            @Override
+            public String next() {
+                if (next >= sortedIds.length) {
+                    throw new NoSuchElementException();
+                }
+                return StockDictionary.shared().nameOf(sortedIds[next++]);
+            }
+        };
+    }
+}
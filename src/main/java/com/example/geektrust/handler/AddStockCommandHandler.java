@@ -3,14 +3,14 @@ package com.example.geektrust.handler;
 import com.example.geektrust.command.ParsedCommand;
 import com.example.geektrust.constants.ErrorMessages;
 import com.example.geektrust.repository.FundRepository;
-import com.example.geektrust.repository.ModifiableFundRepository;
+import com.example.geektrust.repository.WritableFundRepository;
 
 import java.util.Optional;
 
 public class AddStockCommandHandler implements CommandHandler {
-    private final ModifiableFundRepository fundRepository;
+    private final WritableFundRepository fundRepository;
 
-    public AddStockCommandHandler(ModifiableFundRepository fundRepository) {
+    public AddStockCommandHandler(WritableFundRepository fundRepository) {
         this.fundRepository = fundRepository;
     }
 
@@ -19,7 +19,7 @@ public class AddStockCommandHandler implements CommandHandler {
         String fundName = command.getArgument(0);
         String stockName = command.getArgument(1);
 
-        if (!fundRepository.getFundByName(fundName).isPresent()) {
+        if (fundRepository.findFundByName(fundName) == null) {
             return CommandResult.error(ErrorMessages.FUND_NOT_FOUND);
         }
 
@@ -0,0 +1,46 @@
+package com.example.geektrust.handler;
+
+import com.example.geektrust.command.CommandParser;
+import com.example.geektrust.command.ParsedCommand;
+import com.example.geektrust.constants.ErrorMessages;
+import com.example.geektrust.repository.WritableFundRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies a batch of additions grouped by fund. As with separate ADD_STOCK lines, additions to
+ * known funds take effect even if others name an unknown fund, and each addition naming an
+ * unknown fund is reported with its own FUND_NOT_FOUND, in input order.
+ */
+public class AddStocksCommandHandler implements CommandHandler {
+    private final WritableFundRepository fundRepository;
+
+    public AddStocksCommandHandler(WritableFundRepository fundRepository) {
+        this.fundRepository = fundRepository;
+    }
+
+    @Override
+    public CommandResult handle(ParsedCommand command) {
+        Map<String, List<String>> stocksByFund = new LinkedHashMap<>();
+        List<String> errors = new ArrayList<>();
+        for (String addition : command.getArguments()) {
+            String[] parts = CommandParser.splitAddition(addition);
+            List<String> stocks = stocksByFund.get(parts[0]);
+            if (stocks == null) {
+                if (fundRepository.findFundByName(parts[0]) == null) {
+                    errors.add(ErrorMessages.FUND_NOT_FOUND);
+                    continue;
+                }
+                stocks = new ArrayList<>();
+                stocksByFund.put(parts[0], stocks);
+            }
+            stocks.add(parts[1]);
+        }
+
+        fundRepository.addStocksToFunds(stocksByFund);
+        return errors.isEmpty() ? CommandResult.success() : CommandResult.errors(errors);
+    }
+}
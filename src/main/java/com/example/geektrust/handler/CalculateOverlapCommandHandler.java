@@ -8,46 +8,85 @@ import com.example.geektrust.repository.FundRepository;
 import com.example.geektrust.service.OverlapCalculator;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 public class CalculateOverlapCommandHandler implements CommandHandler {
+    private static final String NO_OVERLAP = "";
+    private static final int MAX_CACHED_TARGETS = 1024;
+
     private final Portfolio portfolio;
     private final FundRepository fundRepository;
     private final OverlapCalculator overlapCalculator;
+    private final OverlapLineRenderer lineRenderer = new OverlapLineRenderer();
+    private final Map<String, Map<String, String>> renderedLines = new HashMap<>();
+    private long renderedLinesVersion;
+    private double[] overlapBuffer = new double[0];
 
     public CalculateOverlapCommandHandler(Portfolio portfolio, FundRepository fundRepository, OverlapCalculator overlapCalculator) {
         this.portfolio = portfolio;
         this.fundRepository = fundRepository;
         this.overlapCalculator = overlapCalculator;
+        this.renderedLinesVersion = fundRepository.getVersion();
     }
 
     @Override
     public CommandResult handle(ParsedCommand command) {
         String fundName = command.getArgument(0);
-        Optional<Fund> targetFund = fundRepository.getFundByName(fundName);
+        Fund targetFund = fundRepository.findFundByName(fundName);
         
-        if (!targetFund.isPresent()) {
+        if (targetFund == null) {
             return CommandResult.error(ErrorMessages.FUND_NOT_FOUND);
         }
 
-        List<String> currentFundNames = portfolio.getCurrentFundNames();
-        if (currentFundNames.isEmpty()) {
+        List<Fund> portfolioFunds = PortfolioFunds.resolve(portfolio, fundRepository);
+        if (portfolioFunds.isEmpty()) {
             return CommandResult.success();
         }
 
+        Map<String, String> targetLines = renderedLinesFor(fundName);
+        double[] overlaps = null;
         List<String> outputs = new ArrayList<>();
-        for (String portfolioFundName : currentFundNames) {
-            Optional<Fund> portfolioFund = fundRepository.getFundByName(portfolioFundName);
-            if (portfolioFund.isPresent()) {
-                double overlap = overlapCalculator.calculateOverlapPercentage(targetFund.get(), portfolioFund.get());
-                if (overlap > 0) {
-                    String output = String.format("%s %s %.2f%%", fundName, portfolioFundName, overlap);
-                    outputs.add(output);
+        for (int i = 0; i < portfolioFunds.size(); i++) {
+            String portfolioFundName = portfolioFunds.get(i).getName();
+            String line = targetLines.get(portfolioFundName);
+            if (line == null) {
+                if (overlaps == null) {
+                    overlaps = scorePortfolio(targetFund, portfolioFunds);
                 }
+                line = overlaps[i] > 0
+                        ? lineRenderer.render(fundName, portfolioFundName, overlaps[i])
+                        : NO_OVERLAP;
+                targetLines.put(portfolioFundName, line);
+            }
+            if (line != NO_OVERLAP) {
+                outputs.add(line);
             }
         }
 
         return CommandResult.success(outputs);
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    private double[] scorePortfolio(Fund targetFund, List<Fund> portfolioFunds) {
+        if (overlapBuffer.length < portfolioFunds.size()) {
+            overlapBuffer = new double[portfolioFunds.size()];
+        }
+        overlapCalculator.calculateOverlapPercentages(targetFund, portfolioFunds, overlapBuffer);
+        return overlapBuffer;
+    }
+
+    private Map<String, String> renderedLinesFor(String targetFundName) {
+        long currentVersion = fundRepository.getVersion();
+        if (currentVersion != renderedLinesVersion || renderedLines.size() >= MAX_CACHED_TARGETS) {
+            renderedLines.clear();
+            renderedLinesVersion = currentVersion;
+        }
+        return renderedLines.computeIfAbsent(targetFundName, k -> new HashMap<>());
+    }
+}
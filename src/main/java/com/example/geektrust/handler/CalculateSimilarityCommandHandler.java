@@ -0,0 +1,71 @@
+package com.example.geektrust.handler;
+
+import com.example.geektrust.command.ParsedCommand;
+import com.example.geektrust.constants.ErrorMessages;
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.Portfolio;
+import com.example.geektrust.repository.FundRepository;
+import com.example.geektrust.service.OverlapCalculator;
+import com.example.geektrust.service.SimilarityMetric;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CalculateSimilarityCommandHandler implements CommandHandler {
+    private final Portfolio portfolio;
+    private final FundRepository fundRepository;
+    private final OverlapCalculator overlapCalculator;
+    private final OverlapLineRenderer lineRenderer = new OverlapLineRenderer();
+    private double[] similarityBuffer = new double[0];
+
+    public CalculateSimilarityCommandHandler(Portfolio portfolio, FundRepository fundRepository, OverlapCalculator overlapCalculator) {
+        this.portfolio = portfolio;
+        this.fundRepository = fundRepository;
+        this.overlapCalculator = overlapCalculator;
+    }
+
+    @Override
+    public CommandResult handle(ParsedCommand command) {
+        String fundName = command.getArgument(0);
+        SimilarityMetric[] metrics = new SimilarityMetric[command.getArgumentCount() - 1];
+        for (int m = 0; m < metrics.length; m++) {
+            metrics[m] = SimilarityMetric.fromName(command.getArgument(m + 1));
+            if (metrics[m] == null) {
+                return CommandResult.error(ErrorMessages.UNKNOWN_METRIC);
+            }
+        }
+
+        Fund targetFund = fundRepository.findFundByName(fundName);
+        if (targetFund == null) {
+            return CommandResult.error(ErrorMessages.FUND_NOT_FOUND);
+        }
+
+        List<Fund> portfolioFunds = PortfolioFunds.resolve(portfolio, fundRepository);
+        if (portfolioFunds.isEmpty()) {
+            return CommandResult.success();
+        }
+
+        int resultCount = portfolioFunds.size() * metrics.length;
+        if (similarityBuffer.length < resultCount) {
+            similarityBuffer = new double[resultCount];
+        }
+        overlapCalculator.calculateSimilarities(targetFund, portfolioFunds, metrics, similarityBuffer);
+
+        List<String> outputs = new ArrayList<>();
+        for (int i = 0; i < portfolioFunds.size(); i++) {
+            for (int m = 0; m < metrics.length; m++) {
+                double similarity = similarityBuffer[i * metrics.length + m];
+                if (similarity > 0) {
+                    outputs.add(metrics[m].name() + " "
+                        + lineRenderer.render(fundName, portfolioFunds.get(i).getName(), similarity));
+                }
+            }
+        }
+        return CommandResult.success(outputs);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
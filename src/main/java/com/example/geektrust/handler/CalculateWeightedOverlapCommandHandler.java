@@ -0,0 +1,58 @@
+package com.example.geektrust.handler;
+
+import com.example.geektrust.command.ParsedCommand;
+import com.example.geektrust.constants.ErrorMessages;
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.Portfolio;
+import com.example.geektrust.repository.FundRepository;
+import com.example.geektrust.service.OverlapCalculator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CalculateWeightedOverlapCommandHandler implements CommandHandler {
+    private final Portfolio portfolio;
+    private final FundRepository fundRepository;
+    private final OverlapCalculator overlapCalculator;
+    private final OverlapLineRenderer lineRenderer = new OverlapLineRenderer();
+    private double[] overlapBuffer = new double[0];
+
+    public CalculateWeightedOverlapCommandHandler(Portfolio portfolio, FundRepository fundRepository, OverlapCalculator overlapCalculator) {
+        this.portfolio = portfolio;
+        this.fundRepository = fundRepository;
+        this.overlapCalculator = overlapCalculator;
+    }
+
+    @Override
+    public CommandResult handle(ParsedCommand command) {
+        String fundName = command.getArgument(0);
+        Fund targetFund = fundRepository.findFundByName(fundName);
+
+        if (targetFund == null) {
+            return CommandResult.error(ErrorMessages.FUND_NOT_FOUND);
+        }
+
+        List<Fund> portfolioFunds = PortfolioFunds.resolve(portfolio, fundRepository);
+        if (portfolioFunds.isEmpty()) {
+            return CommandResult.success();
+        }
+
+        if (overlapBuffer.length < portfolioFunds.size()) {
+            overlapBuffer = new double[portfolioFunds.size()];
+        }
+        overlapCalculator.calculateWeightedOverlapPercentages(targetFund, portfolioFunds, overlapBuffer);
+
+        List<String> outputs = new ArrayList<>();
+        for (int i = 0; i < portfolioFunds.size(); i++) {
+            if (overlapBuffer[i] > 0) {
+                outputs.add(lineRenderer.render(fundName, portfolioFunds.get(i).getName(), overlapBuffer[i]));
+            }
+        }
+        return CommandResult.success(outputs);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
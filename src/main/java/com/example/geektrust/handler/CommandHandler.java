@@ -4,4 +4,12 @@ import com.example.geektrust.command.ParsedCommand;
 
 public interface CommandHandler {
     CommandResult handle(ParsedCommand command);
+
+    /**
+     * Whether {@link #handle} changes neither the portfolio nor the repository, so its result is
+     * fully determined by the command and their versions and may be reused.
+     */
+    default boolean isReadOnly() {
+        return false;
+    }
 }
\ No newline at end of file
@@ -8,24 +8,36 @@ import java.util.Objects;
 public class CommandResult {
     private final boolean success;
     private final List<String> outputs;
-    private final String errorMessage;
+    private final List<String> errorMessages;
 
-    private CommandResult(boolean success, List<String> outputs, String errorMessage) {
+    private CommandResult(boolean success, List<String> outputs, List<String> errorMessages) {
         this.success = success;
         this.outputs = Collections.unmodifiableList(new ArrayList<>(outputs != null ? outputs : new ArrayList<>()));
-        this.errorMessage = errorMessage;
+        this.errorMessages = Collections.unmodifiableList(new ArrayList<>(errorMessages));
     }
 
     public static CommandResult success() {
-        return new CommandResult(true, new ArrayList<>(), null);
+        return new CommandResult(true, new ArrayList<>(), Collections.emptyList());
     }
 
     public static CommandResult success(List<String> outputs) {
-        return new CommandResult(true, outputs, null);
+        return new CommandResult(true, outputs, Collections.emptyList());
     }
 
     public static CommandResult error(String errorMessage) {
-        return new CommandResult(false, new ArrayList<>(), errorMessage);
+        return new CommandResult(false, new ArrayList<>(),
+            errorMessage != null ? Collections.singletonList(errorMessage) : Collections.emptyList());
+    }
+
+    /**
+     * A failure reporting several errors, each printed on its own line, such as one per rejected
+     * part of a bulk command.
+     */
+    public static CommandResult errors(List<String> errorMessages) {
+        if (errorMessages == null || errorMessages.isEmpty()) {
+            throw new IllegalArgumentException("At least one error message is required");
+        }
+        return new CommandResult(false, new ArrayList<>(), errorMessages);
     }
 
     public boolean isSuccess() {
@@ -36,8 +48,15 @@ public class CommandResult {
         return outputs;
     }
 
+    /**
+     * The first error message, or {@code null} if there is none.
+     */
     public String getErrorMessage() {
-        return errorMessage;
+        return errorMessages.isEmpty() ? null : errorMessages.get(0);
+    }
+
+    public List<String> getErrorMessages() {
+        return errorMessages;
     }
 
     public boolean hasOutput() {
@@ -51,12 +70,12 @@ public class CommandResult {
         CommandResult that = (CommandResult) o;
         return success == that.success &&
                Objects.equals(outputs, that.outputs) &&
-               Objects.equals(errorMessage, that.errorMessage);
+               Objects.equals(errorMessages, that.errorMessages);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(success, outputs, errorMessage);
+        return Objects.hash(success, outputs, errorMessages);
     }
 
     @Override
@@ -64,7 +83,7 @@ public class CommandResult {
         return "CommandResult{" +
                 "success=" + success +
                 ", outputs=" + outputs +
-                ", errorMessage='" + errorMessage + '\'' +
+                ", errorMessages=" + errorMessages +
                 '}';
     }
 }
\ No newline at end of file
@@ -4,33 +4,53 @@ import com.example.geektrust.command.ParsedCommand;
 import com.example.geektrust.constants.ErrorMessages;
 import com.example.geektrust.domain.Fund;
 import com.example.geektrust.domain.Portfolio;
+import com.example.geektrust.repository.FundModificationListener;
 import com.example.geektrust.repository.FundRepository;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
-public class CurrentPortfolioCommandHandler implements CommandHandler {
+/**
+ * Resolves the named funds and keeps the portfolio's copies current through the repository's
+ * modification listener until {@link #close}.
+ */
+public class CurrentPortfolioCommandHandler implements CommandHandler, AutoCloseable {
     private final Portfolio portfolio;
     private final FundRepository fundRepository;
+    private final FundModificationListener listener;
 
     public CurrentPortfolioCommandHandler(Portfolio portfolio, FundRepository fundRepository) {
         this.portfolio = portfolio;
         this.fundRepository = fundRepository;
+        this.listener = portfolio::replaceFund;
+        fundRepository.addModificationListener(listener);
     }
 
+    /**
+     * A modification notified while the funds are being resolved finds the portfolio not yet
+     * holding them and is dropped, so the funds are resolved again until no write lands in between.
+     */
     @Override
     public CommandResult handle(ParsedCommand command) {
         List<String> fundNames = command.getArguments();
-
-        for (String fundName : fundNames) {
-            Optional<Fund> fund = fundRepository.getFundByName(fundName);
-            if (!fund.isPresent()) {
-                return CommandResult.error(ErrorMessages.FUND_NOT_FOUND);
+        long version;
+        do {
+            version = fundRepository.getVersion();
+            List<Fund> funds = new ArrayList<>(fundNames.size());
+            for (String fundName : fundNames) {
+                Fund fund = fundRepository.findFundByName(fundName);
+                if (fund == null) {
+                    return CommandResult.error(ErrorMessages.FUND_NOT_FOUND);
+                }
+                funds.add(fund);
             }
-        }
-
-        portfolio.setCurrentFundNames(fundNames);
+            portfolio.setCurrentFunds(funds);
+        } while (fundRepository.getVersion() != version);
         return CommandResult.success();
     }
-}
\ No newline at end of file
+
+    @Override
+    public void close() {
+        fundRepository.removeModificationListener(listener);
+    }
+}
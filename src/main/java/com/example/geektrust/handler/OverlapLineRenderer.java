@@ -0,0 +1,62 @@
+package com.example.geektrust.handler;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Renders overlap output lines in the {@code "%s %s %.2f%%"} format without going through
+ * {@link java.util.Formatter}. Values that are not already rounded to two decimal places, or
+ * locales with non-ASCII digits, fall back to {@link String#format} so the output stays identical.
+ * Instances reuse an internal buffer and are not thread-safe.
+ */
+public class OverlapLineRenderer {
+    private static final String LINE_FORMAT = "%s %s %.2f%%";
+    private static final char FIELD_SEPARATOR = ' ';
+    private static final char PERCENT_SIGN = '%';
+    private static final double HUNDREDTHS_MULTIPLIER = 100.0;
+    private static final double ROUNDING_TOLERANCE = 1e-6;
+    private static final double MAX_FAST_PATH_VALUE = 1e12;
+    private static final int INITIAL_BUFFER_CAPACITY = 128;
+
+    private final Locale locale;
+    private final char decimalSeparator;
+    private final boolean asciiDigits;
+    private final StringBuilder buffer = new StringBuilder(INITIAL_BUFFER_CAPACITY);
+
+    public OverlapLineRenderer() {
+        this(Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    public OverlapLineRenderer(Locale locale) {
+        this.locale = locale;
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.asciiDigits = symbols.getZeroDigit() == '0';
+    }
+
+    public String render(String targetFundName, String portfolioFundName, double overlapPercentage) {
+        double scaled = overlapPercentage * HUNDREDTHS_MULTIPLIER;
+        long hundredths = Math.round(scaled);
+
+        if (!asciiDigits
+                || !(overlapPercentage >= 0 && overlapPercentage < MAX_FAST_PATH_VALUE)
+                || Math.abs(scaled - hundredths) > ROUNDING_TOLERANCE) {
+            return String.format(locale, LINE_FORMAT, targetFundName, portfolioFundName, overlapPercentage);
+        }
+
+        buffer.setLength(0);
+        buffer.append(targetFundName)
+              .append(FIELD_SEPARATOR)
+              .append(portfolioFundName)
+              .append(FIELD_SEPARATOR)
+              .append(hundredths / 100)
+              .append(decimalSeparator);
+
+        int fraction = (int) (hundredths % 100);
+        if (fraction < 10) {
+            buffer.append('0');
+        }
+        buffer.append(fraction).append(PERCENT_SIGN);
+        return buffer.toString();
+    }
+}
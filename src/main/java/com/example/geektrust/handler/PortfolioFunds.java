@@ -0,0 +1,32 @@
+package com.example.geektrust.handler;
+
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.Portfolio;
+import com.example.geektrust.repository.FundRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class PortfolioFunds {
+
+    private PortfolioFunds() {
+        // Utility class - prevent instantiation
+    }
+
+    static List<Fund> resolve(Portfolio portfolio, FundRepository fundRepository) {
+        List<Fund> funds = portfolio.getCurrentFunds();
+        if (!funds.isEmpty()) {
+            return funds;
+        }
+
+        List<String> fundNames = portfolio.getCurrentFundNames();
+        List<Fund> resolvedFunds = new ArrayList<>(fundNames.size());
+        for (String name : fundNames) {
+            Fund fund = fundRepository.findFundByName(name);
+            if (fund != null) {
+                resolvedFunds.add(fund);
+            }
+        }
+        return resolvedFunds;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.geektrust.handler;
+
+import com.example.geektrust.command.ParsedCommand;
+import com.example.geektrust.constants.ErrorMessages;
+import com.example.geektrust.service.SessionForks;
+
+public class RollbackCommandHandler implements CommandHandler {
+    private final SessionForks sessionForks;
+
+    /**
+     * {@code sessionForks} is {@code null} when the repository cannot be forked.
+     */
+    public RollbackCommandHandler(SessionForks sessionForks) {
+        this.sessionForks = sessionForks;
+    }
+
+    @Override
+    public CommandResult handle(ParsedCommand command) {
+        if (sessionForks == null) {
+            return CommandResult.error(ErrorMessages.FORK_NOT_SUPPORTED);
+        }
+        if (!sessionForks.rollback()) {
+            return CommandResult.error(ErrorMessages.NO_FORK);
+        }
+        return CommandResult.success();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.geektrust.handler;
+
+import com.example.geektrust.command.ParsedCommand;
+import com.example.geektrust.constants.ErrorMessages;
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.ScoredFund;
+import com.example.geektrust.repository.FundRepository;
+import com.example.geektrust.service.TopOverlapFinder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TopOverlapCommandHandler implements CommandHandler {
+    private static final double DEFAULT_MIN_PERCENT = 0.0;
+
+    private final FundRepository fundRepository;
+    private final TopOverlapFinder topOverlapFinder;
+    private final OverlapLineRenderer lineRenderer = new OverlapLineRenderer();
+
+    public TopOverlapCommandHandler(FundRepository fundRepository, TopOverlapFinder topOverlapFinder) {
+        this.fundRepository = fundRepository;
+        this.topOverlapFinder = topOverlapFinder;
+    }
+
+    @Override
+    public CommandResult handle(ParsedCommand command) {
+        String fundName = command.getArgument(0);
+        Fund targetFund = fundRepository.findFundByName(fundName);
+
+        if (targetFund == null) {
+            return CommandResult.error(ErrorMessages.FUND_NOT_FOUND);
+        }
+
+        int k = Integer.parseInt(command.getArgument(1));
+        double minPercent = command.getArgumentCount() > 2
+                ? Double.parseDouble(command.getArgument(2))
+                : DEFAULT_MIN_PERCENT;
+
+        List<String> outputs = new ArrayList<>();
+        for (ScoredFund scoredFund : topOverlapFinder.findTopOverlaps(targetFund, k, minPercent)) {
+            outputs.add(lineRenderer.render(fundName, scoredFund.getFundName(), scoredFund.getOverlapPercentage()));
+        }
+        return CommandResult.success(outputs);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.geektrust.io;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Opens input that may be gzip-compressed, recognised by its magic bytes rather than its name.
+ * Compressed input is inflated with a large buffer on a background thread, so decompression
+ * overlaps with whatever consumes the stream.
+ */
+public final class CompressedInput {
+    static final int GZIP_MAGIC_FIRST = 0x1F;
+    static final int GZIP_MAGIC_SECOND = 0x8B;
+    private static final int MAGIC_LENGTH = 2;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private CompressedInput() {
+        // Utility class - prevent instantiation
+    }
+
+    public static boolean isGzip(Path path) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            return inputStream.read() == GZIP_MAGIC_FIRST && inputStream.read() == GZIP_MAGIC_SECOND;
+        }
+    }
+
+    public static InputStream open(Path path) throws IOException {
+        return wrap(Files.newInputStream(path));
+    }
+
+    /**
+     * Returns a buffered view of {@code inputStream}, inflated in the background if it is gzip.
+     */
+    public static InputStream wrap(InputStream inputStream) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(inputStream, BUFFER_SIZE);
+        buffered.mark(MAGIC_LENGTH);
+        boolean gzip = buffered.read() == GZIP_MAGIC_FIRST && buffered.read() == GZIP_MAGIC_SECOND;
+        buffered.reset();
+        if (!gzip) {
+            return buffered;
+        }
+        return new ReadAheadInputStream(new GZIPInputStream(buffered, BUFFER_SIZE));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.geektrust.io;
+
+import com.example.geektrust.pipeline.SpscRingBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a source stream on a background thread into a fixed set of recycled blocks, handed over
+ * through {@link SpscRingBuffer}s. The consumer only copies bytes out of filled blocks, so a
+ * costly source such as an inflater runs concurrently with the consumer. Not thread-safe on the
+ * consumer side.
+ */
+public final class ReadAheadInputStream extends InputStream {
+    static final int BLOCK_SIZE = 64 * 1024;
+    static final int BLOCK_COUNT = 8;
+
+    private final InputStream source;
+    private final SpscRingBuffer<Block> filled = new SpscRingBuffer<>(BLOCK_COUNT);
+    private final SpscRingBuffer<Block> free = new SpscRingBuffer<>(BLOCK_COUNT);
+    private final Block[] handoff = new Block[1];
+    private volatile Throwable failure;
+    private Block current;
+    private int position;
+    private boolean finished;
+
+    public ReadAheadInputStream(InputStream source) {
+        this.source = source;
+        Block[] blocks = new Block[BLOCK_COUNT];
+        for (int i = 0; i < BLOCK_COUNT; i++) {
+            blocks[i] = new Block();
+        }
+        free.putAll(blocks, BLOCK_COUNT);
+
+        Thread reader = new Thread(this::readAhead, "read-ahead");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private void readAhead() {
+        Block[] taken = new Block[1];
+        try (InputStream input = source) {
+            while (true) {
+                free.takeBatch(taken);
+                Block block = taken[0];
+                block.length = 0;
+                int read = 0;
+                while (block.length < BLOCK_SIZE && (read = input.read(block.data, block.length, BLOCK_SIZE - block.length)) >= 0) {
+                    block.length += read;
+                }
+                if (block.length > 0) {
+                    filled.putAll(taken, 1);
+                }
+                if (read < 0) {
+                    break;
+                }
+            }
+        } catch (Throwable e) {
+            // Includes the abort thrown after close(), which nobody is left to see
+            failure = e;
+        } finally {
+            // Published after the failure, so the consumer finds it once the blocks run out
+            filled.close();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        return current.data[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        int count = Math.min(length, current.length - position);
+        System.arraycopy(current.data, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return current != null ? current.length - position : 0;
+    }
+
+    private boolean ensureAvailable() throws IOException {
+        if (current != null && position < current.length) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        if (current != null) {
+            handoff[0] = current;
+            free.putAll(handoff, 1);
+            current = null;
+        }
+        if (filled.takeBatch(handoff) < 0) {
+            finished = true;
+            rethrowFailure();
+            return false;
+        }
+        current = handoff[0];
+        position = 0;
+        return true;
+    }
+
+    private void rethrowFailure() throws IOException {
+        Throwable cause = failure;
+        if (cause instanceof IOException) {
+            throw (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        if (cause != null) {
+            throw new IOException("Read-ahead failed", cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+        current = null;
+        filled.abort();
+        free.abort();
+    }
+
+    private static final class Block {
+        private final byte[] data = new byte[BLOCK_SIZE];
+        private int length;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.geektrust.partition;
+
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.ScoredFund;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One partition of the fund universe. Implementations may live in-process or behind a socket;
+ * remote failures surface as unchecked exceptions.
+ */
+public interface FundShard {
+    /**
+     * Marks an overlap slot whose fund is not held by this shard.
+     */
+    double NOT_HELD = -1.0;
+
+    Fund findFund(String fundName);
+
+    List<Fund> getFunds();
+
+    /**
+     * Names of the funds this shard holds, in {@link #getFunds} order.
+     */
+    List<String> getFundNames();
+
+    /**
+     * Overlap of {@code target} against each named fund, or {@link #NOT_HELD} for names this
+     * shard does not hold.
+     */
+    double[] calculateOverlaps(Fund target, List<String> fundNames);
+
+    /**
+     * This shard's {@code k} best funds by overlap with {@code target}, excluding the target itself,
+     * overlaps below {@code minPercent} and zero overlaps, ordered by {@link ScoredFund#BY_OVERLAP_DESCENDING}.
+     */
+    List<ScoredFund> topOverlaps(Fund target, int k, double minPercent);
+
+    /**
+     * Adds the stock and returns the updated fund, or {@code null} if the fund is not held here
+     * or already holds the stock.
+     */
+    Fund addStock(String fundName, String stockName);
+
+    /**
+     * Adds each held fund's stocks as one write, stepping the version once, and returns the funds
+     * that changed.
+     */
+    List<Fund> addStocks(Map<String, ? extends Collection<String>> stocksByFund);
+
+    long getVersion();
+}
@@ -0,0 +1,181 @@
+package com.example.geektrust.partition;
+
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.ScoredFund;
+import com.example.geektrust.repository.JsonFundRepository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Serves one {@link LocalFundShard} over a local socket using {@link ShardProtocol}, with a thread
+ * per connection. Each connection works on its own {@link LocalFundShard#newSession}, so one
+ * client's ADD_STOCKs are never seen by another and are dropped when it disconnects. Run as a
+ * worker process with
+ * {@code FundShardServer <port> <shardIndex> <shardCount> [stock_data.json]}.
+ */
+public class FundShardServer implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(FundShardServer.class.getName());
+    private static final String DEFAULT_STOCK_DATA_JSON_PATH = "stock_data.json";
+
+    private final LocalFundShard shard;
+    private final ServerSocket serverSocket;
+    private final Thread acceptThread;
+
+    public FundShardServer(LocalFundShard shard, int port) throws IOException {
+        this.shard = shard;
+        this.serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        this.acceptThread = new Thread(this::acceptConnections, "shard-server-" + getPort());
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 3) {
+            System.err.println("Usage: FundShardServer <port> <shardIndex> <shardCount> [stock_data.json]");
+            System.exit(1);
+        }
+        int port = Integer.parseInt(args[0]);
+        int shardIndex = Integer.parseInt(args[1]);
+        int shardCount = Integer.parseInt(args[2]);
+        String jsonPath = args.length > 3 ? args[3] : DEFAULT_STOCK_DATA_JSON_PATH;
+
+        JsonFundRepository owned = new JsonFundRepository(jsonPath,
+            fundName -> PartitionedFundRepository.shardIndexOf(fundName, shardCount) == shardIndex);
+        FundShardServer server = new FundShardServer(new LocalFundShard(owned.getAllFunds()), port);
+        server.start();
+        server.acceptThread.join();
+    }
+
+    public void start() {
+        acceptThread.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Thread connection = new Thread(() -> serve(socket), "shard-connection");
+                connection.setDaemon(true);
+                connection.start();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    LOGGER.log(Level.WARNING, "Error accepting shard connection", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        FundShard session = shard.newSession();
+        try (Socket connection = socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()))) {
+            while (true) {
+                byte opcode;
+                try {
+                    opcode = in.readByte();
+                } catch (EOFException e) {
+                    return;
+                }
+                try {
+                    handle(session, opcode, in, out);
+                } catch (RuntimeException e) {
+                    // Arguments are fully read before the shard is called, so the stream is in sync
+                    LOGGER.log(Level.WARNING, "Shard request failed", e);
+                    out.writeByte(ShardProtocol.STATUS_ERROR);
+                    out.writeUTF(String.valueOf(e.getMessage()));
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Shard connection failed", e);
+        }
+    }
+
+    private void handle(FundShard shard, byte opcode, DataInputStream in, DataOutputStream out) throws IOException {
+        switch (opcode) {
+            case ShardProtocol.FIND_FUND: {
+                Fund fund = shard.findFund(in.readUTF());
+                out.writeByte(ShardProtocol.STATUS_OK);
+                ShardProtocol.writeNullableFund(out, fund);
+                break;
+            }
+            case ShardProtocol.GET_FUNDS: {
+                List<Fund> funds = shard.getFunds();
+                out.writeByte(ShardProtocol.STATUS_OK);
+                ShardProtocol.writeFunds(out, funds);
+                break;
+            }
+            case ShardProtocol.GET_FUND_NAMES: {
+                List<String> fundNames = shard.getFundNames();
+                out.writeByte(ShardProtocol.STATUS_OK);
+                ShardProtocol.writeStrings(out, fundNames);
+                break;
+            }
+            case ShardProtocol.CALCULATE_OVERLAPS: {
+                Fund target = ShardProtocol.readFund(in);
+                double[] overlaps = shard.calculateOverlaps(target, ShardProtocol.readStrings(in));
+                out.writeByte(ShardProtocol.STATUS_OK);
+                out.writeInt(overlaps.length);
+                for (double overlap : overlaps) {
+                    out.writeDouble(overlap);
+                }
+                break;
+            }
+            case ShardProtocol.TOP_OVERLAPS: {
+                Fund target = ShardProtocol.readFund(in);
+                int k = in.readInt();
+                List<ScoredFund> top = shard.topOverlaps(target, k, in.readDouble());
+                out.writeByte(ShardProtocol.STATUS_OK);
+                ShardProtocol.writeScoredFunds(out, top);
+                break;
+            }
+            case ShardProtocol.ADD_STOCK: {
+                String fundName = in.readUTF();
+                Fund updated = shard.addStock(fundName, in.readUTF());
+                out.writeByte(ShardProtocol.STATUS_OK);
+                ShardProtocol.writeNullableFund(out, updated);
+                out.writeLong(shard.getVersion());
+                break;
+            }
+            case ShardProtocol.ADD_STOCKS: {
+                List<Fund> modified = shard.addStocks(ShardProtocol.readStocksByFund(in));
+                out.writeByte(ShardProtocol.STATUS_OK);
+                ShardProtocol.writeFunds(out, modified);
+                out.writeLong(shard.getVersion());
+                break;
+            }
+            case ShardProtocol.GET_VERSION: {
+                long version = shard.getVersion();
+                out.writeByte(ShardProtocol.STATUS_OK);
+                out.writeLong(version);
+                break;
+            }
+            default:
+                // The request body cannot be skipped without knowing its layout; drop the link
+                out.writeByte(ShardProtocol.STATUS_ERROR);
+                out.writeUTF("Unknown opcode: " + opcode);
+                out.flush();
+                throw new IOException("Unknown opcode: " + opcode);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.geektrust.partition;
+
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.ScoredFund;
+import com.example.geektrust.service.OverlapCalculator;
+import com.example.geektrust.service.TopOverlapIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process shard; also the backing store of a {@link FundShardServer}, which gives each
+ * connection its own {@link #newSession}.
+ */
+public class LocalFundShard implements FundShard {
+    private final Map<String, Fund> funds = new ConcurrentHashMap<>();
+    private final List<String> fundOrder = new CopyOnWriteArrayList<>();
+    private final OverlapCalculator overlapCalculator = new OverlapCalculator();
+    private final AtomicLong version = new AtomicLong();
+    private TopOverlapIndex topOverlapIndex;
+
+    public LocalFundShard(Collection<Fund> shardFunds) {
+        for (Fund fund : shardFunds) {
+            if (funds.put(fund.getName(), fund) == null) {
+                fundOrder.add(fund.getName());
+            }
+        }
+    }
+
+    private LocalFundShard(LocalFundShard base) {
+        long baseVersion = base.version.get();
+        funds.putAll(base.funds);
+        fundOrder.addAll(base.fundOrder);
+        TopOverlapIndex baseIndex = base.index();
+        if (base.version.get() == baseVersion) {
+            topOverlapIndex = baseIndex;
+        }
+    }
+
+    /**
+     * A shard starting from this one's current funds whose ADD_STOCKs stay its own. Funds are
+     * immutable, so only the name map is copied, and this shard's top-overlap index is shared
+     * until the session's first write.
+     */
+    public LocalFundShard newSession() {
+        return new LocalFundShard(this);
+    }
+
+    @Override
+    public Fund findFund(String fundName) {
+        return fundName != null ? funds.get(fundName) : null;
+    }
+
+    @Override
+    public List<Fund> getFunds() {
+        List<Fund> result = new ArrayList<>(fundOrder.size());
+        for (String fundName : fundOrder) {
+            result.add(funds.get(fundName));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public List<String> getFundNames() {
+        return Collections.unmodifiableList(new ArrayList<>(fundOrder));
+    }
+
+    @Override
+    public double[] calculateOverlaps(Fund target, List<String> fundNames) {
+        double[] overlaps = new double[fundNames.size()];
+        for (int i = 0; i < overlaps.length; i++) {
+            Fund fund = findFund(fundNames.get(i));
+            overlaps[i] = fund != null ? overlapCalculator.calculateOverlapPercentage(target, fund) : NOT_HELD;
+        }
+        return overlaps;
+    }
+
+    @Override
+    public List<ScoredFund> topOverlaps(Fund target, int k, double minPercent) {
+        return index().top(target, k, minPercent, overlapCalculator);
+    }
+
+    private synchronized TopOverlapIndex index() {
+        if (topOverlapIndex == null) {
+            topOverlapIndex = TopOverlapIndex.build(getFunds());
+        }
+        return topOverlapIndex;
+    }
+
+    /**
+     * Moves a modified fund to its new size bucket. Called while its map entry is locked, so one
+     * fund's moves arrive in order.
+     */
+    private synchronized void reindex(Fund previous, Fund updated) {
+        if (topOverlapIndex != null) {
+            topOverlapIndex = topOverlapIndex.withFund(previous.getStockCount(), updated);
+        }
+    }
+
+    @Override
+    public Fund addStock(String fundName, String stockName) {
+        if (fundName == null) {
+            return null;
+        }
+        boolean[] changed = new boolean[1];
+        Fund updated = funds.computeIfPresent(fundName, (name, fund) -> {
+            if (fund.containsStock(stockName)) {
+                return fund;
+            }
+            changed[0] = true;
+            Fund modified = fund.withStock(stockName);
+            reindex(fund, modified);
+            return modified;
+        });
+        if (!changed[0]) {
+            return null;
+        }
+        version.incrementAndGet();
+        return updated;
+    }
+
+    @Override
+    public List<Fund> addStocks(Map<String, ? extends Collection<String>> stocksByFund) {
+        List<Fund> modified = new ArrayList<>();
+        for (Map.Entry<String, ? extends Collection<String>> entry : stocksByFund.entrySet()) {
+            if (entry.getKey() == null) {
+                continue;
+            }
+            funds.computeIfPresent(entry.getKey(), (name, fund) -> {
+                Fund updated = fund.withStocks(entry.getValue());
+                if (updated != fund) {
+                    reindex(fund, updated);
+                    modified.add(updated);
+                }
+                return updated;
+            });
+        }
+        if (!modified.isEmpty()) {
+            version.incrementAndGet();
+        }
+        return modified;
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+}
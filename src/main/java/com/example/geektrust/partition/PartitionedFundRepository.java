@@ -0,0 +1,278 @@
+package com.example.geektrust.partition;
+
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.ScoredFund;
+import com.example.geektrust.repository.FundModificationListener;
+import com.example.geektrust.repository.FundRepository;
+import com.example.geektrust.repository.WritableFundRepository;
+import com.example.geektrust.service.TopOverlapFinder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Coordinator over funds sharded by name hash. Point lookups and ADD_STOCK go to the shard that
+ * owns the fund; overlap and top-k queries are scattered to the shards in parallel and the
+ * answers merged in a deterministic order.
+ */
+public class PartitionedFundRepository implements WritableFundRepository, TopOverlapFinder, AutoCloseable {
+    private final List<FundShard> shards;
+    private final ExecutorService scatterExecutor;
+    private final List<FundModificationListener> listeners = new CopyOnWriteArrayList<>();
+
+    public PartitionedFundRepository(List<? extends FundShard> shards) {
+        if (shards == null || shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+        this.scatterExecutor = Executors.newFixedThreadPool(shards.size(), runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Splits {@code source} into {@code shardCount} in-process shards.
+     */
+    public static PartitionedFundRepository inProcess(FundRepository source, int shardCount) {
+        List<LocalFundShard> shards = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards.add(new LocalFundShard(fundsOwnedBy(source, shard, shardCount)));
+        }
+        return new PartitionedFundRepository(shards);
+    }
+
+    static List<Fund> fundsOwnedBy(FundRepository source, int shard, int shardCount) {
+        List<Fund> owned = new ArrayList<>();
+        for (Fund fund : source.getAllFunds()) {
+            if (shardIndexOf(fund.getName(), shardCount) == shard) {
+                owned.add(fund);
+            }
+        }
+        return owned;
+    }
+
+    public static int shardIndexOf(String fundName, int shardCount) {
+        int hash = fundName.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shardCount);
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    @Override
+    public Optional<Fund> getFundByName(String fundName) {
+        return Optional.ofNullable(findFundByName(fundName));
+    }
+
+    @Override
+    public Fund findFundByName(String fundName) {
+        return fundName != null ? ownerOf(fundName).findFund(fundName) : null;
+    }
+
+    @Override
+    public List<Fund> getAllFunds() {
+        List<Fund> funds = new ArrayList<>();
+        for (List<Fund> shardFunds : scatter(shard -> shards.get(shard).getFunds())) {
+            funds.addAll(shardFunds);
+        }
+        return Collections.unmodifiableList(funds);
+    }
+
+    /**
+     * Gathers only the names from the shards; no holdings cross the wire.
+     */
+    @Override
+    public List<String> getFundNames() {
+        List<String> names = new ArrayList<>();
+        for (List<String> shardNames : scatter(shard -> shards.get(shard).getFundNames())) {
+            names.addAll(shardNames);
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Sum of the shards' versions. Remote shards track theirs from their write replies, so this
+     * is called on every read without a round trip.
+     */
+    @Override
+    public long getVersion() {
+        long version = 0;
+        for (FundShard shard : shards) {
+            version += shard.getVersion();
+        }
+        return version;
+    }
+
+    @Override
+    public void addModificationListener(FundModificationListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeModificationListener(FundModificationListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void addStockToFund(String fundName, String stockName) {
+        if (fundName == null) {
+            return;
+        }
+        Fund updated = ownerOf(fundName).addStock(fundName, stockName);
+        if (updated != null) {
+            for (FundModificationListener listener : listeners) {
+                listener.onFundModified(updated);
+            }
+        }
+    }
+
+    /**
+     * Sends each shard its part of the batch in one ADD_STOCKS round trip, in parallel, so every
+     * touched shard steps its version once.
+     */
+    @Override
+    public void addStocksToFunds(Map<String, ? extends Collection<String>> stocksByFund) {
+        List<Map<String, Collection<String>>> batchByShard = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            batchByShard.add(new HashMap<>());
+        }
+        for (Map.Entry<String, ? extends Collection<String>> entry : stocksByFund.entrySet()) {
+            if (entry.getKey() != null) {
+                batchByShard.get(shardIndexOf(entry.getKey(), shards.size())).put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        List<List<Fund>> shardModified = scatter(shard -> {
+            Map<String, Collection<String>> batch = batchByShard.get(shard);
+            return batch.isEmpty() ? Collections.<Fund>emptyList() : shards.get(shard).addStocks(batch);
+        });
+        for (List<Fund> modified : shardModified) {
+            for (Fund fund : modified) {
+                for (FundModificationListener listener : listeners) {
+                    listener.onFundModified(fund);
+                }
+            }
+        }
+    }
+
+    /**
+     * Overlap of {@code target} with each named fund; each shard scores the names it owns.
+     * Names no shard holds come back as {@link FundShard#NOT_HELD}.
+     */
+    public double[] calculateOverlaps(Fund target, List<String> fundNames) {
+        List<List<Integer>> positionsByShard = new ArrayList<>(shards.size());
+        List<List<String>> namesByShard = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            positionsByShard.add(new ArrayList<>());
+            namesByShard.add(new ArrayList<>());
+        }
+        for (int i = 0; i < fundNames.size(); i++) {
+            int shard = shardIndexOf(fundNames.get(i), shards.size());
+            positionsByShard.get(shard).add(i);
+            namesByShard.get(shard).add(fundNames.get(i));
+        }
+
+        List<double[]> shardOverlaps = scatter(shard -> {
+            List<String> names = namesByShard.get(shard);
+            return names.isEmpty() ? new double[0] : shards.get(shard).calculateOverlaps(target, names);
+        });
+
+        double[] overlaps = new double[fundNames.size()];
+        for (int shard = 0; shard < shards.size(); shard++) {
+            List<Integer> positions = positionsByShard.get(shard);
+            double[] values = shardOverlaps.get(shard);
+            for (int i = 0; i < positions.size(); i++) {
+                overlaps[positions.get(i)] = values[i];
+            }
+        }
+        return overlaps;
+    }
+
+    /**
+     * Merges each shard's top {@code k}; the global top {@code k} is within their union.
+     */
+    @Override
+    public List<ScoredFund> findTopOverlaps(Fund target, int k, double minPercent) {
+        if (k <= 0) {
+            return Collections.emptyList();
+        }
+        List<ScoredFund> merged = new ArrayList<>();
+        for (List<ScoredFund> shardTop : scatter(shard -> shards.get(shard).topOverlaps(target, k, minPercent))) {
+            merged.addAll(shardTop);
+        }
+        merged.sort(ScoredFund.BY_OVERLAP_DESCENDING);
+        return merged.size() > k ? new ArrayList<>(merged.subList(0, k)) : merged;
+    }
+
+    @Override
+    public void close() {
+        scatterExecutor.shutdownNow();
+        for (FundShard shard : shards) {
+            if (shard instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) shard).close();
+                } catch (Exception e) {
+                    // Closing is best effort; the shard is unusable either way
+                }
+            }
+        }
+    }
+
+    private FundShard ownerOf(String fundName) {
+        return shards.get(shardIndexOf(fundName, shards.size()));
+    }
+
+    /**
+     * Runs {@code request} for every shard index in parallel and returns the answers in shard
+     * order.
+     */
+    private <T> List<T> scatter(IntFunction<T> request) {
+        List<T> results = new ArrayList<>(shards.size());
+        if (shards.size() == 1) {
+            results.add(request.apply(0));
+            return results;
+        }
+
+        List<Future<T>> futures = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            int index = shard;
+            futures.add(scatterExecutor.submit(() -> request.apply(index)));
+        }
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shards", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Shard request failed", cause);
+        } finally {
+            for (Future<T> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.geektrust.partition;
+
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.service.OverlapCalculator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch overlap that scatters the portfolio to the shards owning each fund and gathers the
+ * results in portfolio order. Funds no shard holds are scored locally.
+ */
+public class PartitionedOverlapCalculator extends OverlapCalculator {
+    private final PartitionedFundRepository repository;
+
+    public PartitionedOverlapCalculator(PartitionedFundRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void calculateOverlapPercentages(Fund target, List<Fund> funds, double[] results) {
+        if (target == null || funds == null || results == null) {
+            throw new IllegalArgumentException("Target, funds and results cannot be null");
+        }
+        if (results.length < funds.size()) {
+            throw new IllegalArgumentException("Results array is smaller than the number of funds");
+        }
+
+        List<String> fundNames = new ArrayList<>(funds.size());
+        for (Fund fund : funds) {
+            if (fund == null) {
+                throw new IllegalArgumentException("Funds cannot be null");
+            }
+            fundNames.add(fund.getName());
+        }
+
+        double[] overlaps = repository.calculateOverlaps(target, fundNames);
+        for (int i = 0; i < overlaps.length; i++) {
+            results[i] = overlaps[i] != FundShard.NOT_HELD
+                    ? overlaps[i]
+                    : calculateOverlapPercentage(target, funds.get(i));
+        }
+    }
+}
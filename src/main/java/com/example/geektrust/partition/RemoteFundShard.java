@@ -0,0 +1,175 @@
+package com.example.geektrust.partition;
+
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.ScoredFund;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client side of a {@link FundShardServer}. Requests are serialised over one connection.
+ * The connection's session changes only through this client's writes, whose replies carry the
+ * new version, so the version is fetched once and then tracked locally.
+ */
+public class RemoteFundShard implements FundShard, AutoCloseable {
+    private static final long UNKNOWN_VERSION = -1L;
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private volatile long version = UNKNOWN_VERSION;
+
+    public RemoteFundShard(String host, int port) throws IOException {
+        this.socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(new InetSocketAddress(host, port));
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    /**
+     * Connects to an address of the form {@code host:port}.
+     */
+    public static RemoteFundShard connect(String address) throws IOException {
+        int separator = address.lastIndexOf(':');
+        if (separator <= 0 || separator == address.length() - 1) {
+            throw new IllegalArgumentException("Shard address must be host:port: " + address);
+        }
+        return new RemoteFundShard(address.substring(0, separator), Integer.parseInt(address.substring(separator + 1)));
+    }
+
+    @Override
+    public synchronized Fund findFund(String fundName) {
+        try {
+            out.writeByte(ShardProtocol.FIND_FUND);
+            out.writeUTF(fundName);
+            awaitResponse();
+            return ShardProtocol.readNullableFund(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Shard request failed", e);
+        }
+    }
+
+    @Override
+    public synchronized List<Fund> getFunds() {
+        try {
+            out.writeByte(ShardProtocol.GET_FUNDS);
+            awaitResponse();
+            return ShardProtocol.readFunds(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Shard request failed", e);
+        }
+    }
+
+    @Override
+    public synchronized List<String> getFundNames() {
+        try {
+            out.writeByte(ShardProtocol.GET_FUND_NAMES);
+            awaitResponse();
+            return ShardProtocol.readStrings(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Shard request failed", e);
+        }
+    }
+
+    @Override
+    public synchronized double[] calculateOverlaps(Fund target, List<String> fundNames) {
+        try {
+            out.writeByte(ShardProtocol.CALCULATE_OVERLAPS);
+            ShardProtocol.writeFund(out, target);
+            ShardProtocol.writeStrings(out, fundNames);
+            awaitResponse();
+            double[] overlaps = new double[in.readInt()];
+            for (int i = 0; i < overlaps.length; i++) {
+                overlaps[i] = in.readDouble();
+            }
+            return overlaps;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Shard request failed", e);
+        }
+    }
+
+    @Override
+    public synchronized List<ScoredFund> topOverlaps(Fund target, int k, double minPercent) {
+        try {
+            out.writeByte(ShardProtocol.TOP_OVERLAPS);
+            ShardProtocol.writeFund(out, target);
+            out.writeInt(k);
+            out.writeDouble(minPercent);
+            awaitResponse();
+            return ShardProtocol.readScoredFunds(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Shard request failed", e);
+        }
+    }
+
+    @Override
+    public synchronized Fund addStock(String fundName, String stockName) {
+        try {
+            out.writeByte(ShardProtocol.ADD_STOCK);
+            out.writeUTF(fundName);
+            out.writeUTF(stockName);
+            awaitResponse();
+            Fund updated = ShardProtocol.readNullableFund(in);
+            version = in.readLong();
+            return updated;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Shard request failed", e);
+        }
+    }
+
+    @Override
+    public synchronized List<Fund> addStocks(Map<String, ? extends Collection<String>> stocksByFund) {
+        try {
+            out.writeByte(ShardProtocol.ADD_STOCKS);
+            ShardProtocol.writeStocksByFund(out, stocksByFund);
+            awaitResponse();
+            List<Fund> modified = ShardProtocol.readFunds(in);
+            version = in.readLong();
+            return modified;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Shard request failed", e);
+        }
+    }
+
+    @Override
+    public long getVersion() {
+        long known = version;
+        return known != UNKNOWN_VERSION ? known : fetchVersion();
+    }
+
+    private synchronized long fetchVersion() {
+        if (version != UNKNOWN_VERSION) {
+            return version;
+        }
+        try {
+            out.writeByte(ShardProtocol.GET_VERSION);
+            awaitResponse();
+            version = in.readLong();
+            return version;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Shard request failed", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    private void awaitResponse() throws IOException {
+        out.flush();
+        if (in.readByte() != ShardProtocol.STATUS_OK) {
+            throw new IllegalStateException("Shard error: " + in.readUTF());
+        }
+    }
+}
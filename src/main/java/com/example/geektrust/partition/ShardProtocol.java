@@ -0,0 +1,150 @@
+package com.example.geektrust.partition;
+
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.ScoredFund;
+import com.example.geektrust.domain.StockDictionary;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wire format shared by {@link FundShardServer} and {@link RemoteFundShard}. Each request is an
+ * opcode byte followed by its arguments; each response starts with a status byte, followed by
+ * the result on success or a UTF message on failure. Strings use {@code writeUTF}. Replies to
+ * writes end with the session's version, so clients never have to poll GET_VERSION for it.
+ */
+final class ShardProtocol {
+    static final byte FIND_FUND = 1;
+    static final byte GET_FUNDS = 2;
+    static final byte CALCULATE_OVERLAPS = 3;
+    static final byte TOP_OVERLAPS = 4;
+    static final byte ADD_STOCK = 5;
+    static final byte GET_VERSION = 6;
+    static final byte ADD_STOCKS = 7;
+    static final byte GET_FUND_NAMES = 8;
+
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_ERROR = 1;
+
+    private ShardProtocol() {
+        // Utility class - prevent instantiation
+    }
+
+    static void writeFund(DataOutputStream out, Fund fund) throws IOException {
+        StockDictionary dictionary = StockDictionary.shared();
+        int[] ids = fund.getStockIds();
+        boolean weighted = fund.isWeighted();
+        double[] weights = weighted ? fund.getStockWeights() : null;
+        out.writeUTF(fund.getName());
+        out.writeBoolean(weighted);
+        out.writeInt(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            out.writeUTF(dictionary.nameOf(ids[i]));
+            if (weighted) {
+                out.writeDouble(weights[i]);
+            }
+        }
+    }
+
+    static Fund readFund(DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        boolean weighted = in.readBoolean();
+        int stockCount = in.readInt();
+        String[] stocks = new String[stockCount];
+        double[] weights = new double[stockCount];
+        for (int i = 0; i < stockCount; i++) {
+            stocks[i] = in.readUTF();
+            if (weighted) {
+                weights[i] = in.readDouble();
+            }
+        }
+        return weighted ? new Fund(name, stocks, weights) : new Fund(name, new HashSet<>(Arrays.asList(stocks)));
+    }
+
+    static void writeNullableFund(DataOutputStream out, Fund fund) throws IOException {
+        out.writeBoolean(fund != null);
+        if (fund != null) {
+            writeFund(out, fund);
+        }
+    }
+
+    static Fund readNullableFund(DataInputStream in) throws IOException {
+        return in.readBoolean() ? readFund(in) : null;
+    }
+
+    static void writeFunds(DataOutputStream out, List<Fund> funds) throws IOException {
+        out.writeInt(funds.size());
+        for (Fund fund : funds) {
+            writeFund(out, fund);
+        }
+    }
+
+    static List<Fund> readFunds(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<Fund> funds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            funds.add(readFund(in));
+        }
+        return funds;
+    }
+
+    static void writeStocksByFund(DataOutputStream out, Map<String, ? extends Collection<String>> stocksByFund)
+            throws IOException {
+        out.writeInt(stocksByFund.size());
+        for (Map.Entry<String, ? extends Collection<String>> entry : stocksByFund.entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeStrings(out, entry.getValue());
+        }
+    }
+
+    static Map<String, List<String>> readStocksByFund(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        Map<String, List<String>> stocksByFund = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String fundName = in.readUTF();
+            stocksByFund.put(fundName, readStrings(in));
+        }
+        return stocksByFund;
+    }
+
+    static void writeStrings(DataOutputStream out, Collection<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    static List<String> readStrings(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+
+    static void writeScoredFunds(DataOutputStream out, List<ScoredFund> scoredFunds) throws IOException {
+        out.writeInt(scoredFunds.size());
+        for (ScoredFund scoredFund : scoredFunds) {
+            out.writeUTF(scoredFund.getFundName());
+            out.writeDouble(scoredFund.getOverlapPercentage());
+        }
+    }
+
+    static List<ScoredFund> readScoredFunds(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<ScoredFund> scoredFunds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            scoredFunds.add(new ScoredFund(in.readUTF(), in.readDouble()));
+        }
+        return scoredFunds;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.geektrust.pipeline;
+
+import com.example.geektrust.command.CommandParser;
+import com.example.geektrust.command.ParseResult;
+import com.example.geektrust.command.ParsedCommand;
+import com.example.geektrust.handler.CommandResult;
+import com.example.geektrust.service.CommandExecutor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Runs a command stream through four stages - read, parse, execute and write - each on its
+ * own thread, connected by {@link SpscRingBuffer}s. The execute stage is a single thread, so
+ * commands are applied and their results written in input order.
+ */
+public class CommandPipeline {
+    private static final int DEFAULT_BUFFER_CAPACITY = 1024;
+    private static final int BATCH_SIZE = 64;
+
+    private final CommandExecutor commandExecutor;
+    private final CommandParser commandParser = new CommandParser();
+    private final int bufferCapacity;
+
+    public CommandPipeline(CommandExecutor commandExecutor) {
+        this(commandExecutor, DEFAULT_BUFFER_CAPACITY);
+    }
+
+    public CommandPipeline(CommandExecutor commandExecutor, int bufferCapacity) {
+        this.commandExecutor = commandExecutor;
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    public void run(BufferedReader reader, Consumer<CommandResult> sink) throws IOException {
+        SpscRingBuffer<Item> readLines = new SpscRingBuffer<>(bufferCapacity);
+        SpscRingBuffer<Item> parsedCommands = new SpscRingBuffer<>(bufferCapacity);
+        SpscRingBuffer<Item> executedCommands = new SpscRingBuffer<>(bufferCapacity);
+        List<SpscRingBuffer<Item>> buffers = new ArrayList<>();
+        buffers.add(readLines);
+        buffers.add(parsedCommands);
+        buffers.add(executedCommands);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<Thread> stages = new ArrayList<>();
+        stages.add(startStage("command-reader", () -> read(reader, readLines), failure, buffers));
+        stages.add(startStage("command-parser", () -> parse(readLines, parsedCommands), failure, buffers));
+        stages.add(startStage("command-executor", () -> execute(parsedCommands, executedCommands), failure, buffers));
+        stages.add(startStage("command-writer", () -> write(executedCommands, sink), failure, buffers));
+
+        awaitStages(stages);
+        rethrow(failure.get());
+    }
+
+    private void read(BufferedReader reader, SpscRingBuffer<Item> output) throws IOException {
+        Object[] batch = new Object[BATCH_SIZE];
+        int count = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            batch[count++] = new Item(line);
+            if (count == BATCH_SIZE) {
+                output.putAll(batch, count);
+                count = 0;
+            }
+        }
+        output.putAll(batch, count);
+        output.close();
+    }
+
+    private void parse(SpscRingBuffer<Item> input, SpscRingBuffer<Item> output) {
+        Item[] batch = new Item[BATCH_SIZE];
+        int count;
+        while ((count = input.takeBatch(batch)) >= 0) {
+            for (int i = 0; i < count; i++) {
+                Item item = batch[i];
+                ParseResult parsed = commandParser.tryParse(item.line);
+                if (parsed.isSuccess()) {
+                    item.command = parsed.getCommand();
+                } else {
+                    item.result = commandExecutor.invalidCommand(item.line, parsed.getErrorMessage());
+                }
+            }
+            output.putAll(batch, count);
+        }
+        output.close();
+    }
+
+    private void execute(SpscRingBuffer<Item> input, SpscRingBuffer<Item> output) {
+        Item[] batch = new Item[BATCH_SIZE];
+        int count;
+        while ((count = input.takeBatch(batch)) >= 0) {
+            for (int i = 0; i < count; i++) {
+                Item item = batch[i];
+                if (item.result == null) {
+                    item.result = commandExecutor.execute(item.command, item.line);
+                }
+            }
+            output.putAll(batch, count);
+        }
+        output.close();
+    }
+
+    private void write(SpscRingBuffer<Item> input, Consumer<CommandResult> sink) {
+        Item[] batch = new Item[BATCH_SIZE];
+        int count;
+        while ((count = input.takeBatch(batch)) >= 0) {
+            for (int i = 0; i < count; i++) {
+                sink.accept(batch[i].result);
+                batch[i] = null;
+            }
+        }
+    }
+
+    private Thread startStage(String name, Stage stage, AtomicReference<Throwable> failure,
+                              List<SpscRingBuffer<Item>> buffers) {
+        Thread thread = new Thread(() -> {
+            try {
+                stage.run();
+            } catch (SpscRingBuffer.PipelineAbortedException e) {
+                // Another stage failed first and already recorded the cause
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+                buffers.forEach(SpscRingBuffer::abort);
+            }
+        }, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private void awaitStages(List<Thread> stages) {
+        boolean interrupted = false;
+        for (Thread stage : stages) {
+            while (stage.isAlive()) {
+                try {
+                    stage.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void rethrow(Throwable failure) throws IOException {
+        if (failure == null) {
+            return;
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        throw new IllegalStateException("Pipeline stage failed", failure);
+    }
+
+    private interface Stage {
+        void run() throws Exception;
+    }
+
+    private static final class Item {
+        private final String line;
+        private ParsedCommand command;
+        private CommandResult result;
+
+        private Item(String line) {
+            this.line = line;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.geektrust.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded single-producer/single-consumer ring buffer. Producer and consumer only
+ * coordinate through the head and tail sequences, and both sides move items in batches
+ * so a sequence is published once per batch rather than once per item.
+ */
+public final class SpscRingBuffer<T> {
+    private static final int SPIN_TRIES = 100;
+    private static final long PARK_NANOS = 50_000L;
+
+    private final Object[] slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private volatile boolean closed;
+    private volatile boolean aborted;
+
+    public SpscRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two: " + capacity);
+        }
+        this.slots = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public void putAll(Object[] items, int count) {
+        int published = 0;
+        int idle = 0;
+        while (published < count) {
+            checkNotAborted();
+            long currentTail = tail.get();
+            int free = (int) (slots.length - (currentTail - head.get()));
+            if (free == 0) {
+                idle = backOff(idle);
+                continue;
+            }
+            int batch = Math.min(free, count - published);
+            for (int i = 0; i < batch; i++) {
+                slots[(int) ((currentTail + i) & mask)] = items[published + i];
+            }
+            tail.lazySet(currentTail + batch);
+            published += batch;
+            idle = 0;
+        }
+    }
+
+    /**
+     * Moves up to {@code batch.length} items into {@code batch}, waiting until at least one is
+     * available. Returns -1 once the buffer is closed and fully drained.
+     */
+    @SuppressWarnings("unchecked")
+    public int takeBatch(T[] batch) {
+        int idle = 0;
+        while (true) {
+            checkNotAborted();
+            long currentHead = head.get();
+            int available = (int) (tail.get() - currentHead);
+            if (available == 0) {
+                if (closed && tail.get() == currentHead) {
+                    return -1;
+                }
+                idle = backOff(idle);
+                continue;
+            }
+            int count = Math.min(available, batch.length);
+            for (int i = 0; i < count; i++) {
+                int index = (int) ((currentHead + i) & mask);
+                batch[i] = (T) slots[index];
+                slots[index] = null;
+            }
+            head.lazySet(currentHead + count);
+            return count;
+        }
+    }
+
+    public void close() {
+        closed = true;
+    }
+
+    public void abort() {
+        aborted = true;
+    }
+
+    private void checkNotAborted() {
+        if (aborted) {
+            throw new PipelineAbortedException();
+        }
+    }
+
+    private static int backOff(int idle) {
+        if (idle < SPIN_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return idle + 1;
+    }
+
+    static final class PipelineAbortedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        PipelineAbortedException() {
+            super("Pipeline aborted", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.geektrust.repository;
+
+import com.example.geektrust.domain.Fund;
+
+public interface FundModificationListener {
+    void onFundModified(Fund modifiedFund);
+}
@@ -0,0 +1,70 @@
+package com.example.geektrust.repository;
+
+import java.util.List;
+
+/**
+ * Immutable open-addressing table from fund name to its position in a list. Keys, their
+ * cached hashes and positions live in flat parallel arrays and collisions are resolved by
+ * linear probing, so a lookup allocates nothing and returns {@link #NOT_FOUND} on a miss.
+ */
+final class FundNameIndex {
+    static final int NOT_FOUND = -1;
+
+    private static final FundNameIndex EMPTY = new FundNameIndex(new String[0]);
+
+    private final String[] keys;
+    private final int[] hashes;
+    private final int[] positions;
+    private final int mask;
+
+    private FundNameIndex(String[] names) {
+        int capacity = Integer.highestOneBit(Math.max(2, names.length * 2 - 1)) << 1;
+        this.keys = new String[capacity];
+        this.hashes = new int[capacity];
+        this.positions = new int[capacity];
+        this.mask = capacity - 1;
+
+        for (int position = 0; position < names.length; position++) {
+            insert(names[position], position);
+        }
+    }
+
+    /**
+     * Indexes {@code names} by position; when a name repeats, the later position wins.
+     */
+    static FundNameIndex of(List<String> names) {
+        return names.isEmpty() ? EMPTY : new FundNameIndex(names.toArray(new String[0]));
+    }
+
+    static FundNameIndex empty() {
+        return EMPTY;
+    }
+
+    int indexOf(String name) {
+        if (name == null) {
+            return NOT_FOUND;
+        }
+        int hash = spread(name.hashCode());
+        for (int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && keys[slot].equals(name)) {
+                return positions[slot];
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private void insert(String name, int position) {
+        int hash = spread(name.hashCode());
+        int slot = hash & mask;
+        while (keys[slot] != null && !(hashes[slot] == hash && keys[slot].equals(name))) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = name;
+        hashes[slot] = hash;
+        positions[slot] = position;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -2,12 +2,46 @@ package com.example.geektrust.repository;
 
 import com.example.geektrust.domain.Fund;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 public interface FundRepository {
     
     Optional<Fund> getFundByName(String fundName);
+
+    /**
+     * Same lookup as {@link #getFundByName} but returns {@code null} for a missing fund, so hot
+     * paths avoid the {@code Optional} allocation.
+     */
+    default Fund findFundByName(String fundName) {
+        return getFundByName(fundName).orElse(null);
+    }
     
     List<Fund> getAllFunds();
+
+    /**
+     * The name of every fund, in {@link #getAllFunds} order. Repositories that know their names
+     * up front return them without building a single fund.
+     */
+    default List<String> getFundNames() {
+        List<Fund> funds = getAllFunds();
+        List<String> names = new ArrayList<>(funds.size());
+        for (Fund fund : funds) {
+            names.add(fund.getName());
+        }
+        return names;
+    }
+
+    default long getVersion() {
+        return 0L;
+    }
+
+    default void addModificationListener(FundModificationListener listener) {
+        // Read-only repositories never modify their funds
+    }
+
+    default void removeModificationListener(FundModificationListener listener) {
+        // Read-only repositories keep no listeners
+    }
 }
\ No newline at end of file
@@ -1,39 +1,90 @@
 package com.example.geektrust.repository;
 
 import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.StockDictionary;
+import com.example.geektrust.io.CompressedInput;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 public class JsonFundRepository implements FundRepository {
+    /**
+     * EAGER builds every fund while loading. LAZY only indexes fund names and the byte range of
+     * each fund's stock array; a fund is parsed on first access and cached.
+     */
+    public enum LoadMode {
+        EAGER,
+        LAZY
+    }
+
     private static final Logger LOGGER = Logger.getLogger(JsonFundRepository.class.getName());
     private static final String FUNDS_ARRAY_KEY = "funds";
     private static final String FUND_NAME_KEY = "name";
     private static final String FUND_STOCKS_KEY = "stocks";
+    private static final String STOCK_NAME_KEY = "name";
+    private static final String STOCK_WEIGHT_KEY = "weight";
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
     
-    private final Map<String, Fund> fundCache = new ConcurrentHashMap<>();
+    private final List<String> fundNames = new ArrayList<>();
     private final List<Fund> allFunds = new ArrayList<>();
+    private final List<LazyFund> lazyFunds = new ArrayList<>();
+    private FundNameIndex fundIndex = FundNameIndex.empty();
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LoadMode loadMode;
+    private final Predicate<String> fundNameFilter;
+    private byte[] source;
     private boolean isLoaded = false;
 
     public JsonFundRepository(String jsonFilePath) {
+        this(jsonFilePath, LoadMode.EAGER);
+    }
+
+    public JsonFundRepository(String jsonFilePath, LoadMode loadMode) {
         if (jsonFilePath == null || jsonFilePath.trim().isEmpty()) {
             throw new IllegalArgumentException("JSON file path cannot be null or empty");
         }
+        this.loadMode = Objects.requireNonNull(loadMode, "Load mode cannot be null");
+        this.fundNameFilter = null;
+        loadFundsFromPath(jsonFilePath);
+    }
+
+    /**
+     * Eagerly loads only the funds whose names pass {@code fundNameFilter}. The JSON is streamed
+     * one fund at a time, so neither the document nor the other funds' stocks are ever held;
+     * a shard worker uses this to load just the funds it owns.
+     */
+    public JsonFundRepository(String jsonFilePath, Predicate<String> fundNameFilter) {
+        if (jsonFilePath == null || jsonFilePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("JSON file path cannot be null or empty");
+        }
+        this.loadMode = LoadMode.EAGER;
+        this.fundNameFilter = Objects.requireNonNull(fundNameFilter, "Fund name filter cannot be null");
         loadFundsFromPath(jsonFilePath);
     }
 
     public JsonFundRepository(InputStream inputStream) {
+        this(inputStream, LoadMode.EAGER);
+    }
+
+    public JsonFundRepository(InputStream inputStream, LoadMode loadMode) {
         if (inputStream == null) {
             throw new IllegalArgumentException("Input stream cannot be null");
         }
+        this.loadMode = Objects.requireNonNull(loadMode, "Load mode cannot be null");
+        this.fundNameFilter = null;
         loadFunds(inputStream);
     }
 
@@ -46,7 +97,14 @@ public class JsonFundRepository implements FundRepository {
             File jsonFile = new File(jsonFilePath);
             if (jsonFile.exists()) {
                 // LOGGER.log(Level.INFO, "Loading funds from file: " + jsonFile.getAbsolutePath());
-                processJson(objectMapper.readTree(jsonFile));
+                if (CompressedInput.isGzip(jsonFile.toPath()) || fundNameFilter != null) {
+                    inputStream = Files.newInputStream(jsonFile.toPath());
+                    load(inputStream);
+                } else if (loadMode == LoadMode.LAZY) {
+                    indexJson(Files.readAllBytes(jsonFile.toPath()));
+                } else {
+                    processJson(objectMapper.readTree(jsonFile));
+                }
                 return;
             }
             
@@ -54,7 +112,7 @@ public class JsonFundRepository implements FundRepository {
             inputStream = getClass().getClassLoader().getResourceAsStream(jsonFilePath);
             if (inputStream != null) {
                 // LOGGER.log(Level.INFO, "Loading funds from classpath resource: " + jsonFilePath);
-                processJson(objectMapper.readTree(inputStream));
+                load(inputStream);
                 return;
             }
             
@@ -75,12 +133,140 @@ public class JsonFundRepository implements FundRepository {
 
     private void loadFunds(InputStream inputStream) {
         try {
-            processJson(objectMapper.readTree(inputStream));
+            load(inputStream);
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Error loading funds from input stream", e);
         }
     }
 
+    /**
+     * Loads plain or gzip-compressed JSON; compressed input is inflated while it is parsed.
+     */
+    private void load(InputStream inputStream) throws IOException {
+        try (InputStream json = CompressedInput.wrap(inputStream)) {
+            if (loadMode == LoadMode.LAZY) {
+                indexJson(readAllBytes(json));
+            } else if (fundNameFilter != null) {
+                processJson(readFilteredFunds(json));
+            } else {
+                processJson(objectMapper.readTree(json));
+            }
+        }
+    }
+
+    /**
+     * Streams the document and returns it with only the funds that pass the filter; each fund's
+     * tree is read, checked and dropped before the next one is parsed.
+     */
+    private JsonNode readFilteredFunds(InputStream json) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return root;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (FUNDS_ARRAY_KEY.equals(field) && value == JsonToken.START_ARRAY) {
+                    ArrayNode kept = root.putArray(FUNDS_ARRAY_KEY);
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        JsonNode fundNode = parser.readValueAsTree();
+                        JsonNode nameNode = fundNode.get(FUND_NAME_KEY);
+                        if (nameNode == null || fundNameFilter.test(nameNode.asText())) {
+                            kept.add(fundNode);
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return root;
+    }
+
+    private static byte[] readAllBytes(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(READ_BUFFER_SIZE);
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * First pass of the lazy mode: records each fund's name and the byte range of its stocks
+     * value without building any holdings.
+     */
+    private void indexJson(byte[] json) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                LOGGER.log(Level.WARNING, "Invalid JSON structure: missing '" + FUNDS_ARRAY_KEY + "' array");
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (FUNDS_ARRAY_KEY.equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        indexFund(parser);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        source = json;
+        fundIndex = FundNameIndex.of(fundNames);
+        isLoaded = true;
+    }
+
+    private void indexFund(JsonParser parser) throws IOException {
+        String fundName = null;
+        int stocksStart = -1;
+        int stocksEnd = -1;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (FUND_NAME_KEY.equals(field)) {
+                fundName = parser.getValueAsString();
+            } else if (FUND_STOCKS_KEY.equals(field)) {
+                stocksStart = (int) parser.getTokenLocation().getByteOffset();
+                parser.skipChildren();
+                stocksEnd = (int) parser.getCurrentLocation().getByteOffset();
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (fundName == null) {
+            LOGGER.log(Level.WARNING, "Error parsing fund: missing '" + FUND_NAME_KEY + "'");
+            return;
+        }
+        fundNames.add(fundName);
+        lazyFunds.add(new LazyFund(fundName, stocksStart, stocksEnd - stocksStart));
+    }
+
+    private Fund materialise(LazyFund lazyFund) {
+        if (!lazyFund.materialised) {
+            synchronized (lazyFund) {
+                if (!lazyFund.materialised) {
+                    try {
+                        JsonNode stocksArray = lazyFund.stocksStart < 0
+                                ? null
+                                : objectMapper.readTree(source, lazyFund.stocksStart, lazyFund.stocksLength);
+                        lazyFund.fund = parseFund(lazyFund.name, stocksArray);
+                    } catch (Exception e) {
+                        LOGGER.log(Level.WARNING, "Error parsing fund: " + lazyFund.name, e);
+                    }
+                    lazyFund.materialised = true;
+                }
+            }
+        }
+        return lazyFund.fund;
+    }
+
     private void processJson(JsonNode rootNode) {
         if (rootNode == null || !rootNode.has(FUNDS_ARRAY_KEY)) {
             LOGGER.log(Level.WARNING, "Invalid JSON structure: missing '" + FUNDS_ARRAY_KEY + "' array");
@@ -93,44 +279,128 @@ public class JsonFundRepository implements FundRepository {
             return;
         }
 
+        StockDictionary.shared().registerAll(stockNamesIn(fundsArray));
         for (JsonNode fundNode : fundsArray) {
             try {
                 String fundName = fundNode.get(FUND_NAME_KEY).asText();
-                Set<String> stocks = new HashSet<>();
-                
-                JsonNode stocksArray = fundNode.get(FUND_STOCKS_KEY);
-                if (stocksArray != null && stocksArray.isArray()) {
-                    for (JsonNode stockNode : stocksArray) {
-                        stocks.add(stockNode.asText());
-                    }
-                }
-                
-                Fund fund = new Fund(fundName, stocks);
-                fundCache.put(fundName, fund);
+                Fund fund = parseFund(fundName, fundNode.get(FUND_STOCKS_KEY));
+                fundNames.add(fundName);
                 allFunds.add(fund);
             } catch (Exception e) {
                 LOGGER.log(Level.WARNING, "Error parsing fund: " + fundNode, e);
             }
         }
         
+        fundIndex = FundNameIndex.of(fundNames);
         isLoaded = true;
         // LOGGER.log(Level.INFO, "Successfully loaded " + allFunds.size() + " funds");
     }
 
+    /**
+     * Every stock name in the document, so that they can be packed into the dictionary together
+     * before any fund refers to them.
+     */
+    private static Set<String> stockNamesIn(JsonNode fundsArray) {
+        Set<String> stockNames = new HashSet<>();
+        for (JsonNode fundNode : fundsArray) {
+            JsonNode stocksArray = fundNode.get(FUND_STOCKS_KEY);
+            if (stocksArray == null || !stocksArray.isArray()) {
+                continue;
+            }
+            for (JsonNode stockNode : stocksArray) {
+                JsonNode nameNode = stockNode.isObject() ? stockNode.get(STOCK_NAME_KEY) : stockNode;
+                if (nameNode != null) {
+                    stockNames.add(nameNode.asText());
+                }
+            }
+        }
+        return stockNames;
+    }
+
+    private Fund parseFund(String fundName, JsonNode stocksArray) {
+        if (stocksArray == null || !stocksArray.isArray()) {
+            return new Fund(fundName, new HashSet<>());
+        }
+
+        int stockCount = stocksArray.size();
+        String[] stockNames = new String[stockCount];
+        double[] weights = new double[stockCount];
+        int weightedStocks = 0;
+        for (int i = 0; i < stockCount; i++) {
+            JsonNode stockNode = stocksArray.get(i);
+            if (stockNode.isObject()) {
+                stockNames[i] = stockNode.get(STOCK_NAME_KEY).asText();
+                JsonNode weightNode = stockNode.get(STOCK_WEIGHT_KEY);
+                if (weightNode != null && weightNode.isNumber()) {
+                    weights[i] = weightNode.asDouble();
+                    weightedStocks++;
+                }
+            } else {
+                stockNames[i] = stockNode.asText();
+            }
+        }
+
+        if (weightedStocks == 0) {
+            return new Fund(fundName, new HashSet<>(Arrays.asList(stockNames)));
+        }
+        if (weightedStocks != stockCount) {
+            throw new IllegalArgumentException("Either all or none of the stocks must have a weight");
+        }
+        return new Fund(fundName, stockNames, weights);
+    }
+
     @Override
     public Optional<Fund> getFundByName(String fundName) {
-        if (fundName == null) {
-            return Optional.empty();
+        return Optional.ofNullable(findFundByName(fundName));
+    }
+
+    @Override
+    public Fund findFundByName(String fundName) {
+        int index = fundIndex.indexOf(fundName);
+        if (index == FundNameIndex.NOT_FOUND) {
+            return null;
         }
-        return Optional.ofNullable(fundCache.get(fundName));
+        return loadMode == LoadMode.LAZY ? materialise(lazyFunds.get(index)) : allFunds.get(index);
     }
 
     @Override
     public List<Fund> getAllFunds() {
+        if (loadMode == LoadMode.LAZY) {
+            List<Fund> funds = new ArrayList<>(lazyFunds.size());
+            for (LazyFund lazyFund : lazyFunds) {
+                Fund fund = materialise(lazyFund);
+                if (fund != null) {
+                    funds.add(fund);
+                }
+            }
+            return Collections.unmodifiableList(funds);
+        }
         return Collections.unmodifiableList(new ArrayList<>(allFunds));
     }
 
+    /**
+     * In lazy mode this includes funds whose stocks have not been, or cannot be, parsed.
+     */
+    @Override
+    public List<String> getFundNames() {
+        return Collections.unmodifiableList(fundNames);
+    }
+
     public boolean isLoaded() {
         return isLoaded;
     }
+
+    private static final class LazyFund {
+        private final String name;
+        private final int stocksStart;
+        private final int stocksLength;
+        private volatile boolean materialised;
+        private Fund fund;
+
+        private LazyFund(String name, int stocksStart, int stocksLength) {
+            this.name = name;
+            this.stocksStart = stocksStart;
+            this.stocksLength = stocksLength;
+        }
+    }
 }
\ No newline at end of file
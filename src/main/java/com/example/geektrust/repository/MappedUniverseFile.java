@@ -0,0 +1,244 @@
+package com.example.geektrust.repository;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Shares one {@link OffHeapFundRepository} arena between processes through a read-only,
+ * memory-mapped file. The file header records the length, modification time and CRC-32 of the
+ * JSON it was built from. A process whose JSON has the recorded length and modification time
+ * maps the file without reading the JSON; if only the time differs the JSON is checksummed as a
+ * stream. Otherwise the arena is rebuilt and the file atomically replaced. Concurrent mappers
+ * share the pages through the page cache.
+ */
+public final class MappedUniverseFile {
+    private static final Logger LOGGER = Logger.getLogger(MappedUniverseFile.class.getName());
+
+    static final int FILE_MAGIC = 0x554E4956;
+    private static final int FILE_FORMAT_VERSION = 2;
+    private static final int LITTLE_ENDIAN = 1;
+    private static final int BIG_ENDIAN = 2;
+    private static final long UNKNOWN_MODIFIED = 0L;
+
+    private static final int MAGIC_POS = 0;
+    private static final int FORMAT_VERSION_POS = 4;
+    private static final int BYTE_ORDER_POS = 8;
+    private static final int ARENA_LENGTH_POS = 12;
+    private static final int SOURCE_LENGTH_POS = 16;
+    private static final int SOURCE_CHECKSUM_POS = 24;
+    private static final int SOURCE_MODIFIED_POS = 32;
+    static final int FILE_HEADER_SIZE = 40;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private MappedUniverseFile() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Maps {@code universePath} if it was built from the current contents of
+     * {@code jsonFilePath}; otherwise builds it first. If the universe file cannot be written,
+     * the freshly built arena is used in-process instead.
+     */
+    public static OffHeapFundRepository open(String jsonFilePath, Path universePath) throws IOException {
+        // Sampled before the JSON is read, so a later edit always changes what the header records
+        File jsonFile = new File(jsonFilePath);
+        long modified = jsonFile.isFile() ? jsonFile.lastModified() : UNKNOWN_MODIFIED;
+        if (modified != UNKNOWN_MODIFIED) {
+            OffHeapFundRepository mapped = tryMap(universePath, jsonFile.length(), modified);
+            if (mapped != null) {
+                return mapped;
+            }
+        }
+
+        SourceDigest source = digest(jsonFilePath);
+        OffHeapFundRepository mapped = tryMap(universePath, source.length, source.checksum, modified);
+        if (mapped != null) {
+            return mapped;
+        }
+
+        // Only the arena that ends up in use is opened, so the dictionary adopts one stock table
+        ByteBuffer built = OffHeapFundRepository.arenaFromJson(jsonFilePath);
+        try {
+            write(universePath, built, source, modified);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not write universe file: " + universePath, e);
+            return new OffHeapFundRepository(built);
+        }
+
+        mapped = tryMap(universePath, source.length, source.checksum, modified);
+        return mapped != null ? mapped : new OffHeapFundRepository(built);
+    }
+
+    /**
+     * Maps the universe file if its header records {@code sourceLength} and
+     * {@code sourceModified}.
+     */
+    private static OffHeapFundRepository tryMap(Path universePath, long sourceLength, long sourceModified)
+            throws IOException {
+        MappedByteBuffer file = mapHeader(universePath);
+        if (file == null
+                || file.getLong(SOURCE_LENGTH_POS) != sourceLength
+                || file.getLong(SOURCE_MODIFIED_POS) != sourceModified) {
+            return null;
+        }
+        return repository(universePath, file);
+    }
+
+    /**
+     * Maps the universe file if its header records {@code sourceLength} and {@code checksum}. A
+     * file whose source was only touched gets its recorded modification time refreshed, so the
+     * next process can skip the checksum again.
+     */
+    static OffHeapFundRepository tryMap(Path universePath, long sourceLength, long checksum, long sourceModified)
+            throws IOException {
+        MappedByteBuffer file = mapHeader(universePath);
+        if (file == null
+                || file.getLong(SOURCE_LENGTH_POS) != sourceLength
+                || file.getLong(SOURCE_CHECKSUM_POS) != checksum) {
+            return null;
+        }
+        OffHeapFundRepository repository = repository(universePath, file);
+        if (repository != null && file.getLong(SOURCE_MODIFIED_POS) != sourceModified) {
+            try {
+                write(universePath, repository.getArena(), new SourceDigest(sourceLength, checksum), sourceModified);
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Could not refresh universe file: " + universePath, e);
+            }
+        }
+        return repository;
+    }
+
+    /**
+     * Maps the universe file if it is one this version wrote for this byte order, or returns null.
+     */
+    private static MappedByteBuffer mapHeader(Path universePath) throws IOException {
+        if (!Files.isRegularFile(universePath)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(universePath, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < FILE_HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            file.order(ByteOrder.LITTLE_ENDIAN);
+            if (file.getInt(MAGIC_POS) != FILE_MAGIC
+                    || file.getInt(FORMAT_VERSION_POS) != FILE_FORMAT_VERSION
+                    || file.getInt(BYTE_ORDER_POS) != byteOrderCode(ByteOrder.nativeOrder())
+                    || file.getInt(ARENA_LENGTH_POS) != fileSize - FILE_HEADER_SIZE) {
+                return null;
+            }
+            return file;
+        }
+    }
+
+    private static OffHeapFundRepository repository(Path universePath, MappedByteBuffer file) {
+        file.position(FILE_HEADER_SIZE);
+        try {
+            return new OffHeapFundRepository(file.slice());
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Ignoring corrupt universe file: " + universePath, e);
+            return null;
+        }
+    }
+
+    private static void write(Path universePath, ByteBuffer arena, SourceDigest source, long sourceModified)
+            throws IOException {
+        Path directory = universePath.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, universePath.getFileName().toString(), TEMP_FILE_SUFFIX);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC_POS, FILE_MAGIC)
+                  .putInt(FORMAT_VERSION_POS, FILE_FORMAT_VERSION)
+                  .putInt(BYTE_ORDER_POS, byteOrderCode(ByteOrder.nativeOrder()))
+                  .putInt(ARENA_LENGTH_POS, arena.remaining())
+                  .putLong(SOURCE_LENGTH_POS, source.length)
+                  .putLong(SOURCE_CHECKSUM_POS, source.checksum)
+                  .putLong(SOURCE_MODIFIED_POS, sourceModified);
+
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                ByteBuffer body = arena.duplicate();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                while (body.hasRemaining()) {
+                    channel.write(body);
+                }
+                channel.force(true);
+            }
+            // Temp files are owner-only; the universe is meant to be mapped by other processes
+            tempFile.toFile().setReadable(true, false);
+
+            try {
+                Files.move(tempFile, universePath, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, universePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Length and CRC-32 of the JSON, streamed through a small buffer.
+     */
+    private static SourceDigest digest(String jsonFilePath) throws IOException {
+        CRC32 crc = new CRC32();
+        long length = 0;
+        try (InputStream inputStream = openSource(jsonFilePath)) {
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                length += read;
+            }
+        }
+        return new SourceDigest(length, crc.getValue());
+    }
+
+    private static InputStream openSource(String jsonFilePath) throws IOException {
+        File jsonFile = new File(jsonFilePath);
+        if (jsonFile.exists()) {
+            return new FileInputStream(jsonFile);
+        }
+
+        InputStream resource = MappedUniverseFile.class.getClassLoader().getResourceAsStream(jsonFilePath);
+        if (resource == null) {
+            throw new FileNotFoundException("JSON file not found in any location: " + jsonFilePath);
+        }
+        return resource;
+    }
+
+    private static int byteOrderCode(ByteOrder order) {
+        return order == ByteOrder.LITTLE_ENDIAN ? LITTLE_ENDIAN : BIG_ENDIAN;
+    }
+
+    private static final class SourceDigest {
+        private final long length;
+        private final long checksum;
+
+        private SourceDigest(long length, long checksum) {
+            this.length = length;
+            this.checksum = checksum;
+        }
+    }
+}
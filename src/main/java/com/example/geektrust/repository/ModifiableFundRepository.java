@@ -2,47 +2,277 @@ package com.example.geektrust.repository;
 
 import com.example.geektrust.domain.Fund;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Overlays ADD_STOCK changes on a read-only repository. Modified funds are spread over stripes by
+ * fund name; each stripe is a {@link PersistentHashTrie} replaced wholesale under that stripe's
+ * lock, so writers to funds in different stripes never wait for each other and readers take no
+ * lock at all. A {@link #checkpoint} is the current trie of every stripe and {@link #restore}
+ * swaps older ones back in; both hold all stripe locks so they see and replace a single instant.
+ */
+public class ModifiableFundRepository implements WritableFundRepository {
+    private static final int STRIPE_COUNT = stripeCountFor(Runtime.getRuntime().availableProcessors());
 
-public class ModifiableFundRepository implements FundRepository {
     private final FundRepository delegate;
-    private final Map<String, Set<String>> stockModifications = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<PersistentHashTrie<String, Fund>> stripes =
+        new AtomicReferenceArray<>(STRIPE_COUNT);
+    private final ReentrantLock[] stripeLocks = new ReentrantLock[STRIPE_COUNT];
+    private final List<FundModificationListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong version = new AtomicLong();
 
     public ModifiableFundRepository(FundRepository delegate) {
         this.delegate = delegate;
+        for (int stripe = 0; stripe < STRIPE_COUNT; stripe++) {
+            stripes.set(stripe, PersistentHashTrie.empty());
+            stripeLocks[stripe] = new ReentrantLock();
+        }
     }
 
     @Override
     public Optional<Fund> getFundByName(String fundName) {
-        Optional<Fund> originalFund = delegate.getFundByName(fundName);
-        if (!originalFund.isPresent()) {
-            return Optional.empty();
+        return Optional.ofNullable(findFundByName(fundName));
+    }
+
+    @Override
+    public Fund findFundByName(String fundName) {
+        if (fundName == null) {
+            return null;
         }
+        Fund modifiedFund = stripes.get(stripeOf(fundName)).get(fundName);
+        return modifiedFund != null ? modifiedFund : delegate.findFundByName(fundName);
+    }
 
-        Fund fund = originalFund.get();
-        Set<String> additionalStocks = stockModifications.get(fundName);
-        
-        if (additionalStocks == null || additionalStocks.isEmpty()) {
-            return originalFund;
+    /**
+     * Every fund as currently modified. Each fund is read whole, but a concurrent ADD_STOCK to a
+     * fund in another stripe may or may not be reflected.
+     */
+    @Override
+    public List<Fund> getAllFunds() {
+        List<Fund> funds = delegate.getAllFunds();
+        PersistentHashTrie<String, Fund>[] modified = snapshotStripes();
+        boolean anyModified = false;
+        for (PersistentHashTrie<String, Fund> stripe : modified) {
+            anyModified |= !stripe.isEmpty();
         }
+        if (!anyModified) {
+            return funds;
+        }
+        List<Fund> merged = new ArrayList<>(funds.size());
+        for (Fund fund : funds) {
+            Fund modifiedFund = modified[stripeOf(fund.getName())].get(fund.getName());
+            merged.add(modifiedFund != null ? modifiedFund : fund);
+        }
+        return Collections.unmodifiableList(merged);
+    }
 
-        Set<String> modifiedStocks = new HashSet<>(fund.getStocks());
-        modifiedStocks.addAll(additionalStocks);
-        
-        return Optional.of(new Fund(fund.getName(), modifiedStocks));
+    /**
+     * ADD_STOCK never adds a fund, so the names are the delegate's.
+     */
+    @Override
+    public List<String> getFundNames() {
+        return delegate.getFundNames();
     }
 
     @Override
-    public List<Fund> getAllFunds() {
-        return delegate.getAllFunds();
+    public long getVersion() {
+        return delegate.getVersion() + version.get();
     }
 
+    @Override
+    public void addModificationListener(FundModificationListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeModificationListener(FundModificationListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
     public void addStockToFund(String fundName, String stockName) {
-        stockModifications.computeIfAbsent(fundName, k -> new HashSet<>()).add(stockName);
+        if (fundName == null) {
+            return;
+        }
+        int stripe = stripeOf(fundName);
+        ReentrantLock lock = stripeLocks[stripe];
+        lock.lock();
+        try {
+            Fund currentFund = findFundByName(fundName);
+            if (currentFund == null || currentFund.containsStock(stockName)) {
+                return;
+            }
+
+            Fund modifiedFund = currentFund.withStock(stockName);
+            stripes.set(stripe, stripes.get(stripe).put(fundName, modifiedFund));
+            // Publish before counting: a result cached under the old version may then be newer than
+            // its version, never older
+            version.incrementAndGet();
+            // Still under the stripe lock, so listeners hear about one fund's versions in order
+            notifyModified(modifiedFund);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the batch under the locks of every stripe it touches, building each fund once and
+     * bumping the version once, so derived state is refreshed per fund rather than per stock.
+     */
+    @Override
+    public void addStocksToFunds(Map<String, ? extends Collection<String>> stocksByFund) {
+        boolean[] touched = new boolean[STRIPE_COUNT];
+        for (String fundName : stocksByFund.keySet()) {
+            if (fundName != null) {
+                touched[stripeOf(fundName)] = true;
+            }
+        }
+        List<Fund> modified = new ArrayList<>();
+        lockStripes(touched);
+        try {
+            for (Map.Entry<String, ? extends Collection<String>> entry : stocksByFund.entrySet()) {
+                String fundName = entry.getKey();
+                Fund currentFund = findFundByName(fundName);
+                if (currentFund == null) {
+                    continue;
+                }
+                Fund modifiedFund = currentFund.withStocks(entry.getValue());
+                if (modifiedFund != currentFund) {
+                    int stripe = stripeOf(fundName);
+                    stripes.set(stripe, stripes.get(stripe).put(fundName, modifiedFund));
+                    modified.add(modifiedFund);
+                }
+            }
+            if (!modified.isEmpty()) {
+                version.incrementAndGet();
+            }
+            for (Fund fund : modified) {
+                notifyModified(fund);
+            }
+        } finally {
+            unlockStripes(touched);
+        }
+    }
+
+    /**
+     * Captures the current modifications; only the stripe references are copied.
+     */
+    public Checkpoint checkpoint() {
+        lockAllStripes();
+        try {
+            return new Checkpoint(snapshotStripes());
+        } finally {
+            unlockAllStripes();
+        }
+    }
+
+    /**
+     * Returns every fund to its state at {@code checkpoint}. Listeners hear about each fund whose
+     * holdings change back.
+     */
+    public void restore(Checkpoint checkpoint) {
+        List<Fund> reverted = new ArrayList<>();
+        lockAllStripes();
+        try {
+            for (int stripe = 0; stripe < STRIPE_COUNT; stripe++) {
+                PersistentHashTrie<String, Fund> current = stripes.get(stripe);
+                PersistentHashTrie<String, Fund> restored = checkpoint.stripes[stripe];
+                if (current == restored) {
+                    continue;
+                }
+                stripes.set(stripe, restored);
+                current.forEach((fundName, fund) -> {
+                    if (restored.get(fundName) != fund) {
+                        reverted.add(findFundByName(fundName));
+                    }
+                });
+            }
+            if (!reverted.isEmpty()) {
+                version.incrementAndGet();
+            }
+            for (Fund fund : reverted) {
+                notifyModified(fund);
+            }
+        } finally {
+            unlockAllStripes();
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private PersistentHashTrie<String, Fund>[] snapshotStripes() {
+        PersistentHashTrie<String, Fund>[] snapshot = new PersistentHashTrie[STRIPE_COUNT];
+        for (int stripe = 0; stripe < STRIPE_COUNT; stripe++) {
+            snapshot[stripe] = stripes.get(stripe);
+        }
+        return snapshot;
+    }
+
+    private void lockAllStripes() {
+        lockStripes(null);
+    }
+
+    private void unlockAllStripes() {
+        unlockStripes(null);
+    }
+
+    /**
+     * Locks the {@code selected} stripes, or all of them if {@code null}. Always in index order, so
+     * two multi-stripe operations cannot deadlock.
+     */
+    private void lockStripes(boolean[] selected) {
+        for (int stripe = 0; stripe < STRIPE_COUNT; stripe++) {
+            if (selected == null || selected[stripe]) {
+                stripeLocks[stripe].lock();
+            }
+        }
+    }
+
+    private void unlockStripes(boolean[] selected) {
+        for (int stripe = STRIPE_COUNT - 1; stripe >= 0; stripe--) {
+            if (selected == null || selected[stripe]) {
+                stripeLocks[stripe].unlock();
+            }
+        }
+    }
+
+    private static int stripeOf(String fundName) {
+        int hash = fundName.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1);
+    }
+
+    /**
+     * The smallest power of two giving each processor at least two stripes.
+     */
+    static int stripeCountFor(int processors) {
+        return Integer.highestOneBit(Math.max(1, 2 * processors - 1)) << 1;
+    }
+
+    /**
+     * Called with the fund's stripe lock held; listeners must not write to this repository.
+     */
+    private void notifyModified(Fund fund) {
+        for (FundModificationListener listener : listeners) {
+            listener.onFundModified(fund);
+        }
+    }
+
+    /**
+     * The modifications of a {@link ModifiableFundRepository} at one point in time.
+     */
+    public static final class Checkpoint {
+        private final PersistentHashTrie<String, Fund>[] stripes;
+
+        private Checkpoint(PersistentHashTrie<String, Fund>[] stripes) {
+            this.stripes = stripes;
+        }
     }
-}
\ No newline at end of file
+}
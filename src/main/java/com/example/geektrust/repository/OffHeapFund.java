@@ -0,0 +1,121 @@
+package com.example.geektrust.repository;
+
+import com.example.geektrust.domain.Fund;
+
+import java.util.Arrays;
+
+/**
+ * {@link Fund} view over one record of an {@link OffHeapFundRepository} arena. Shared stock ids,
+ * and the weights of a weighted fund, are decoded on first use and cached on the view, which
+ * the repository does not keep; {@link #getStocks()} is the inherited dictionary-backed view over
+ * the ids, and an unweighted fund's equal weights are never stored.
+ */
+final class OffHeapFund extends Fund {
+    private final OffHeapFundRepository repository;
+    private final int fund;
+    private volatile Holdings holdings;
+
+    OffHeapFund(OffHeapFundRepository repository, int fund) {
+        super(repository.fundName(fund));
+        this.repository = repository;
+        this.fund = fund;
+    }
+
+    @Override
+    public int[] getStockIds() {
+        return holdings().ids;
+    }
+
+    @Override
+    public double[] getStockWeights() {
+        return isWeighted() ? holdings().weights : super.getStockWeights();
+    }
+
+    @Override
+    public boolean isWeighted() {
+        return repository.isWeighted(fund);
+    }
+
+    @Override
+    public boolean containsStock(String stockName) {
+        if (stockName == null) {
+            return false;
+        }
+        int localId = repository.findStock(stockName);
+        if (localId < 0) {
+            return false;
+        }
+        int low = 0;
+        int high = repository.holdingsLength(fund) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int candidate = repository.localStockId(fund, mid);
+            if (candidate < localId) {
+                low = mid + 1;
+            } else if (candidate > localId) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getStockCount() {
+        return repository.holdingsLength(fund);
+    }
+
+    private Holdings holdings() {
+        Holdings decoded = holdings;
+        if (decoded == null) {
+            decoded = decodeHoldings();
+            holdings = decoded;
+        }
+        return decoded;
+    }
+
+    /**
+     * Translates the arena's local ids into shared dictionary ids. Those keep the local order
+     * unless some were registered before the arena; then they are sorted and the weights
+     * permuted along with them.
+     */
+    private Holdings decodeHoldings() {
+        int length = repository.holdingsLength(fund);
+        boolean weighted = repository.isWeighted(fund);
+        int[] ids = new int[length];
+        double[] weights = weighted ? new double[length] : null;
+        if (repository.sharedStockIdsInLocalOrder()) {
+            for (int i = 0; i < length; i++) {
+                ids[i] = repository.sharedStockId(repository.localStockId(fund, i));
+                if (weighted) {
+                    weights[i] = repository.weight(fund, i);
+                }
+            }
+            return new Holdings(ids, weights);
+        }
+
+        long[] idAndPosition = new long[length];
+        for (int i = 0; i < length; i++) {
+            idAndPosition[i] = ((long) repository.sharedStockId(repository.localStockId(fund, i)) << Integer.SIZE) | i;
+        }
+        Arrays.sort(idAndPosition);
+        for (int i = 0; i < length; i++) {
+            ids[i] = (int) (idAndPosition[i] >>> Integer.SIZE);
+            if (weighted) {
+                weights[i] = repository.weight(fund, (int) idAndPosition[i]);
+            }
+        }
+        return new Holdings(ids, weights);
+    }
+
+    private static final class Holdings {
+        private final int[] ids;
+        private final double[] weights;
+
+        private Holdings(int[] ids, double[] weights) {
+            this.ids = ids;
+            this.weights = weights;
+        }
+    }
+}
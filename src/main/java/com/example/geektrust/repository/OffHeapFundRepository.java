@@ -0,0 +1,605 @@
+package com.example.geektrust.repository;
+
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.SortedNames;
+import com.example.geektrust.domain.StockDictionary;
+import com.example.geektrust.io.CompressedInput;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-only repository that keeps the whole fund universe in a single {@link ByteBuffer} arena
+ * outside the Java heap. The arena holds a sorted stock-name dictionary, the fund names and
+ * every fund's holdings as local stock ids. On the heap there is only an int-array hash index
+ * over fund names. The arena's stock table is adopted in place as a segment of
+ * {@link StockDictionary#shared()}, so opening an arena decodes no stock names and a stock's
+ * shared id is its local id plus a fixed offset. Funds are returned as {@link Fund} views made
+ * per lookup, which cache nothing but their decoded holdings.
+ */
+public class OffHeapFundRepository implements FundRepository {
+    static final int MAGIC = 0x46554E44;
+    static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC_POS = 0;
+    private static final int FORMAT_VERSION_POS = 4;
+    private static final int STOCK_COUNT_POS = 8;
+    private static final int FUND_COUNT_POS = 12;
+    private static final int STOCK_OFFSETS_POS = 16;
+    private static final int STOCK_NAMES_POS = 20;
+    private static final int FUND_TABLE_POS = 24;
+    private static final int FUND_NAMES_POS = 28;
+    private static final int HOLDINGS_POS = 32;
+    private static final int WEIGHTS_POS = 36;
+    static final int HEADER_SIZE = 40;
+
+    private static final int FUND_RECORD_SIZE = 20;
+    private static final int RECORD_NAME_OFFSET = 0;
+    private static final int RECORD_NAME_LENGTH = 4;
+    private static final int RECORD_HOLDINGS_INDEX = 8;
+    private static final int RECORD_HOLDINGS_LENGTH = 12;
+    private static final int RECORD_WEIGHTS_INDEX = 16;
+    private static final int UNWEIGHTED = -1;
+    private static final int EMPTY_SLOT = 0;
+
+    private final ByteBuffer arena;
+    private final int stockCount;
+    private final int fundCount;
+    private final int stockOffsetsPos;
+    private final int stockNamesPos;
+    private final int fundTablePos;
+    private final int fundNamesPos;
+    private final int holdingsPos;
+    private final int weightsPos;
+    private final int[] slotFunds;
+    private final int[] slotHashes;
+    private final int slotMask;
+    private final int firstSharedStockId;
+    private final int[] resolvedSharedStockIds;
+
+    public OffHeapFundRepository(ByteBuffer arena) {
+        this.arena = arena.duplicate().order(ByteOrder.nativeOrder());
+        if (this.arena.capacity() < HEADER_SIZE
+                || this.arena.getInt(MAGIC_POS) != MAGIC
+                || this.arena.getInt(FORMAT_VERSION_POS) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Buffer does not contain a fund arena");
+        }
+
+        this.stockCount = this.arena.getInt(STOCK_COUNT_POS);
+        this.fundCount = this.arena.getInt(FUND_COUNT_POS);
+        this.stockOffsetsPos = this.arena.getInt(STOCK_OFFSETS_POS);
+        this.stockNamesPos = this.arena.getInt(STOCK_NAMES_POS);
+        this.fundTablePos = this.arena.getInt(FUND_TABLE_POS);
+        this.fundNamesPos = this.arena.getInt(FUND_NAMES_POS);
+        this.holdingsPos = this.arena.getInt(HOLDINGS_POS);
+        this.weightsPos = this.arena.getInt(WEIGHTS_POS);
+        if (stockCount < 0 || fundCount < 0 || weightsPos < HEADER_SIZE || weightsPos > this.arena.capacity()) {
+            throw new IllegalArgumentException("Fund arena header is corrupt");
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(2, fundCount * 2 - 1)) << 1;
+        this.slotFunds = new int[capacity];
+        this.slotHashes = new int[capacity];
+        this.slotMask = capacity - 1;
+        for (int fund = 0; fund < fundCount; fund++) {
+            indexFund(fund);
+        }
+
+        this.firstSharedStockId = StockDictionary.shared().registerSorted(new ArenaStockNames());
+        // Names the dictionary knew before keep their earlier ids; those are resolved per stock
+        this.resolvedSharedStockIds = firstSharedStockId == 0 ? null : new int[stockCount];
+    }
+
+    /**
+     * Loads the universe from a JSON file, falling back to a classpath resource of the same name.
+     */
+    public static OffHeapFundRepository fromJson(String jsonFilePath) throws IOException {
+        return new OffHeapFundRepository(arenaFromJson(jsonFilePath));
+    }
+
+    /**
+     * Reads plain or gzip-compressed JSON and closes the stream.
+     */
+    public static OffHeapFundRepository fromJson(InputStream inputStream) throws IOException {
+        return new OffHeapFundRepository(arenaFromJson(inputStream));
+    }
+
+    /**
+     * Lays the universe out in an arena without opening it, e.g. to persist it before mapping.
+     */
+    static ByteBuffer arenaFromJson(String jsonFilePath) throws IOException {
+        File jsonFile = new File(jsonFilePath);
+        if (jsonFile.exists()) {
+            return arenaFromJson(new FileInputStream(jsonFile));
+        }
+        InputStream resource = OffHeapFundRepository.class.getClassLoader().getResourceAsStream(jsonFilePath);
+        if (resource == null) {
+            throw new FileNotFoundException("JSON file not found in any location: " + jsonFilePath);
+        }
+        return arenaFromJson(resource);
+    }
+
+    private static ByteBuffer arenaFromJson(InputStream inputStream) throws IOException {
+        Builder builder = new Builder();
+        try (InputStream json = CompressedInput.wrap(inputStream)) {
+            OffHeapJsonReader.read(json, builder);
+        }
+        return builder.buildArena();
+    }
+
+    @Override
+    public Optional<Fund> getFundByName(String fundName) {
+        return Optional.ofNullable(findFundByName(fundName));
+    }
+
+    @Override
+    public Fund findFundByName(String fundName) {
+        if (fundName == null) {
+            return null;
+        }
+        int fund = findFund(fundName.getBytes(StandardCharsets.UTF_8));
+        return fund < 0 ? null : new OffHeapFund(this, fund);
+    }
+
+    @Override
+    public List<Fund> getAllFunds() {
+        List<Fund> funds = new ArrayList<>(fundCount);
+        for (int fund = 0; fund < fundCount; fund++) {
+            funds.add(new OffHeapFund(this, fund));
+        }
+        return Collections.unmodifiableList(funds);
+    }
+
+    /**
+     * Names are decoded from the arena as they are read; no fund view is created.
+     */
+    @Override
+    public List<String> getFundNames() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                if (index < 0 || index >= fundCount) {
+                    throw new IndexOutOfBoundsException("Fund index: " + index);
+                }
+                return fundName(index);
+            }
+
+            @Override
+            public int size() {
+                return fundCount;
+            }
+        };
+    }
+
+    public int getFundCount() {
+        return fundCount;
+    }
+
+    public int getStockCount() {
+        return stockCount;
+    }
+
+    /**
+     * Returns a read-only view of the arena, e.g. for persisting it to a file.
+     */
+    public ByteBuffer getArena() {
+        return arena.asReadOnlyBuffer().order(arena.order());
+    }
+
+    String fundName(int fund) {
+        int record = fundRecord(fund);
+        return decode(fundNamesPos + arena.getInt(record + RECORD_NAME_OFFSET), arena.getInt(record + RECORD_NAME_LENGTH));
+    }
+
+    int holdingsLength(int fund) {
+        return arena.getInt(fundRecord(fund) + RECORD_HOLDINGS_LENGTH);
+    }
+
+    int localStockId(int fund, int holding) {
+        return arena.getInt(holdingsPos + (arena.getInt(fundRecord(fund) + RECORD_HOLDINGS_INDEX) + holding) * Integer.BYTES);
+    }
+
+    boolean isWeighted(int fund) {
+        return arena.getInt(fundRecord(fund) + RECORD_WEIGHTS_INDEX) != UNWEIGHTED;
+    }
+
+    double weight(int fund, int holding) {
+        int weightsIndex = arena.getInt(fundRecord(fund) + RECORD_WEIGHTS_INDEX);
+        return arena.getDouble(weightsPos + (weightsIndex + holding) * Double.BYTES);
+    }
+
+    String stockName(int localStockId) {
+        int start = arena.getInt(stockOffsetsPos + localStockId * Integer.BYTES);
+        int end = arena.getInt(stockOffsetsPos + (localStockId + 1) * Integer.BYTES);
+        return decode(stockNamesPos + start, end - start);
+    }
+
+    /**
+     * The stock's id in the shared dictionary. Racing resolutions store the same value, so the
+     * lazily filled table needs no locking.
+     */
+    int sharedStockId(int localStockId) {
+        if (resolvedSharedStockIds == null) {
+            return firstSharedStockId + localStockId;
+        }
+        int resolved = resolvedSharedStockIds[localStockId];
+        if (resolved == 0) {
+            resolved = StockDictionary.shared().lookup(stockName(localStockId)) + 1;
+            resolvedSharedStockIds[localStockId] = resolved;
+        }
+        return resolved - 1;
+    }
+
+    /**
+     * Whether shared ids follow the arena's local order, so holdings decode without sorting.
+     */
+    boolean sharedStockIdsInLocalOrder() {
+        return resolvedSharedStockIds == null;
+    }
+
+    int findStock(String stockName) {
+        return findStock(stockName.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Binary search over the sorted stock dictionary; returns -1 when the stock is not present.
+     */
+    private int findStock(byte[] key) {
+        int low = 0;
+        int high = stockCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int start = arena.getInt(stockOffsetsPos + mid * Integer.BYTES);
+            int end = arena.getInt(stockOffsetsPos + (mid + 1) * Integer.BYTES);
+            int comparison = compare(stockNamesPos + start, end - start, key);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int findFund(byte[] key) {
+        int hash = hash(key, 0, key.length);
+        for (int slot = hash & slotMask; slotFunds[slot] != EMPTY_SLOT; slot = (slot + 1) & slotMask) {
+            int fund = slotFunds[slot] - 1;
+            if (slotHashes[slot] == hash && fundNameEquals(fund, key)) {
+                return fund;
+            }
+        }
+        return -1;
+    }
+
+    private void indexFund(int fund) {
+        int record = fundRecord(fund);
+        int nameStart = fundNamesPos + arena.getInt(record + RECORD_NAME_OFFSET);
+        int nameLength = arena.getInt(record + RECORD_NAME_LENGTH);
+        byte[] name = new byte[nameLength];
+        for (int i = 0; i < nameLength; i++) {
+            name[i] = arena.get(nameStart + i);
+        }
+
+        int hash = hash(name, 0, nameLength);
+        int slot = hash & slotMask;
+        while (slotFunds[slot] != EMPTY_SLOT) {
+            if (slotHashes[slot] == hash && fundNameEquals(slotFunds[slot] - 1, name)) {
+                // Later duplicates win, as with the JSON repository
+                break;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        slotFunds[slot] = fund + 1;
+        slotHashes[slot] = hash;
+    }
+
+    private boolean fundNameEquals(int fund, byte[] key) {
+        int record = fundRecord(fund);
+        return arena.getInt(record + RECORD_NAME_LENGTH) == key.length
+                && compare(fundNamesPos + arena.getInt(record + RECORD_NAME_OFFSET), key.length, key) == 0;
+    }
+
+    private int compare(int position, int length, byte[] key) {
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int difference = (arena.get(position + i) & 0xFF) - (key[i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - key.length;
+    }
+
+    private String decode(int position, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = arena.get(position + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int fundRecord(int fund) {
+        return fundTablePos + fund * FUND_RECORD_SIZE;
+    }
+
+    /**
+     * The arena's sorted stock table as the shared dictionary sees it.
+     */
+    private final class ArenaStockNames implements SortedNames {
+        @Override
+        public int size() {
+            return stockCount;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= stockCount) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of " + stockCount);
+            }
+            return stockName(index);
+        }
+
+        @Override
+        public int indexOf(byte[] key) {
+            return findStock(key);
+        }
+    }
+
+    static int hash(byte[] bytes, int offset, int length) {
+        int hash = 0x811C9DC5;
+        for (int i = offset; i < offset + length; i++) {
+            hash = (hash ^ (bytes[i] & 0xFF)) * 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Accumulates funds and lays them out in a direct buffer. Stock names are de-duplicated and
+     * sorted so that stock lookups can binary search the dictionary.
+     */
+    public static final class Builder {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final Map<String, Integer> provisionalStockIds = new HashMap<>();
+        private final List<String> stockNames = new ArrayList<>();
+        private final List<byte[]> fundNames = new ArrayList<>();
+        private int[] holdings = new int[INITIAL_CAPACITY];
+        private int holdingCount;
+        private double[] weights = new double[INITIAL_CAPACITY];
+        private int weightCount;
+        private int[] fundHoldingsIndex = new int[INITIAL_CAPACITY];
+        private int[] fundHoldingsLength = new int[INITIAL_CAPACITY];
+        private int[] fundWeightsIndex = new int[INITIAL_CAPACITY];
+
+        public Builder addFund(String name, String[] stocks, double[] stockWeights) {
+            if (name == null || name.trim().isEmpty()) {
+                throw new IllegalArgumentException("Fund name cannot be null or empty");
+            }
+            if (stocks == null || (stockWeights != null && stockWeights.length != stocks.length)) {
+                throw new IllegalArgumentException("Stocks and weights must have the same length");
+            }
+
+            int fund = fundNames.size();
+            if (fund == fundHoldingsIndex.length) {
+                fundHoldingsIndex = Arrays.copyOf(fundHoldingsIndex, fund * 2);
+                fundHoldingsLength = Arrays.copyOf(fundHoldingsLength, fund * 2);
+                fundWeightsIndex = Arrays.copyOf(fundWeightsIndex, fund * 2);
+            }
+            fundNames.add(name.trim().getBytes(StandardCharsets.UTF_8));
+            fundHoldingsIndex[fund] = holdingCount;
+            fundHoldingsLength[fund] = stocks.length;
+            fundWeightsIndex[fund] = stockWeights != null ? weightCount : UNWEIGHTED;
+
+            for (int i = 0; i < stocks.length; i++) {
+                if (stocks[i] == null) {
+                    throw new IllegalArgumentException("Stocks cannot contain null");
+                }
+                Integer id = provisionalStockIds.get(stocks[i]);
+                if (id == null) {
+                    id = stockNames.size();
+                    provisionalStockIds.put(stocks[i], id);
+                    stockNames.add(stocks[i]);
+                }
+                appendHolding(id);
+                if (stockWeights != null) {
+                    appendWeight(stockWeights[i]);
+                }
+            }
+            return this;
+        }
+
+        public OffHeapFundRepository build() {
+            return new OffHeapFundRepository(buildArena());
+        }
+
+        /**
+         * Lays the collected funds out in a freshly allocated direct buffer.
+         */
+        public ByteBuffer buildArena() {
+            int stockCount = stockNames.size();
+            byte[][] encodedStocks = new byte[stockCount][];
+            Integer[] order = new Integer[stockCount];
+            for (int i = 0; i < stockCount; i++) {
+                encodedStocks[i] = stockNames.get(i).getBytes(StandardCharsets.UTF_8);
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> compareBytes(encodedStocks[a], encodedStocks[b]));
+            int[] localIds = new int[stockCount];
+            for (int sorted = 0; sorted < stockCount; sorted++) {
+                localIds[order[sorted]] = sorted;
+            }
+
+            int fundCount = fundNames.size();
+            int[] fundDistinctLength = new int[fundCount];
+            int[] remappedHoldings = new int[holdingCount];
+            double[] remappedWeights = new double[weightCount];
+            int distinctHoldings = 0;
+            for (int fund = 0; fund < fundCount; fund++) {
+                distinctHoldings += remapFund(fund, localIds, remappedHoldings, remappedWeights, fundDistinctLength);
+            }
+
+            long stockNameBytes = 0;
+            long fundNameBytes = 0;
+            for (byte[] stock : encodedStocks) {
+                stockNameBytes += stock.length;
+            }
+            for (byte[] fundName : fundNames) {
+                fundNameBytes += fundName.length;
+            }
+
+            long stockOffsetsPos = HEADER_SIZE;
+            long stockNamesPos = stockOffsetsPos + (long) (stockCount + 1) * Integer.BYTES;
+            long fundTablePos = align(stockNamesPos + stockNameBytes, Integer.BYTES);
+            long fundNamesPos = fundTablePos + (long) fundCount * FUND_RECORD_SIZE;
+            long holdingsPos = align(fundNamesPos + fundNameBytes, Integer.BYTES);
+            long weightsPos = align(holdingsPos + (long) distinctHoldings * Integer.BYTES, Double.BYTES);
+            long totalSize = weightsPos + (long) distinctHoldings * Double.BYTES;
+            if (totalSize > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Fund universe exceeds the 2 GB arena limit");
+            }
+
+            ByteBuffer arena = ByteBuffer.allocateDirect((int) totalSize).order(ByteOrder.nativeOrder());
+            arena.putInt(MAGIC_POS, MAGIC);
+            arena.putInt(FORMAT_VERSION_POS, FORMAT_VERSION);
+            arena.putInt(STOCK_COUNT_POS, stockCount);
+            arena.putInt(FUND_COUNT_POS, fundCount);
+            arena.putInt(STOCK_OFFSETS_POS, (int) stockOffsetsPos);
+            arena.putInt(STOCK_NAMES_POS, (int) stockNamesPos);
+            arena.putInt(FUND_TABLE_POS, (int) fundTablePos);
+            arena.putInt(FUND_NAMES_POS, (int) fundNamesPos);
+            arena.putInt(HOLDINGS_POS, (int) holdingsPos);
+            arena.putInt(WEIGHTS_POS, (int) weightsPos);
+
+            int nameOffset = 0;
+            for (int sorted = 0; sorted < stockCount; sorted++) {
+                arena.putInt((int) stockOffsetsPos + sorted * Integer.BYTES, nameOffset);
+                byte[] stock = encodedStocks[order[sorted]];
+                putBytes(arena, (int) stockNamesPos + nameOffset, stock);
+                nameOffset += stock.length;
+            }
+            arena.putInt((int) stockOffsetsPos + stockCount * Integer.BYTES, nameOffset);
+
+            int fundNameOffset = 0;
+            int holdingIndex = 0;
+            int weightIndex = 0;
+            for (int fund = 0; fund < fundCount; fund++) {
+                int record = (int) fundTablePos + fund * FUND_RECORD_SIZE;
+                byte[] fundName = fundNames.get(fund);
+                putBytes(arena, (int) fundNamesPos + fundNameOffset, fundName);
+                arena.putInt(record + RECORD_NAME_OFFSET, fundNameOffset);
+                arena.putInt(record + RECORD_NAME_LENGTH, fundName.length);
+                fundNameOffset += fundName.length;
+
+                int length = fundDistinctLength[fund];
+                arena.putInt(record + RECORD_HOLDINGS_INDEX, holdingIndex);
+                arena.putInt(record + RECORD_HOLDINGS_LENGTH, length);
+                for (int i = 0; i < length; i++) {
+                    arena.putInt((int) holdingsPos + (holdingIndex + i) * Integer.BYTES,
+                        remappedHoldings[fundHoldingsIndex[fund] + i]);
+                }
+                if (fundWeightsIndex[fund] == UNWEIGHTED) {
+                    arena.putInt(record + RECORD_WEIGHTS_INDEX, UNWEIGHTED);
+                } else {
+                    arena.putInt(record + RECORD_WEIGHTS_INDEX, weightIndex);
+                    for (int i = 0; i < length; i++) {
+                        arena.putDouble((int) weightsPos + (weightIndex + i) * Double.BYTES,
+                            remappedWeights[fundWeightsIndex[fund] + i]);
+                    }
+                    weightIndex += length;
+                }
+                holdingIndex += length;
+            }
+            return arena;
+        }
+
+        /**
+         * Rewrites one fund's holdings with sorted local ids, merging duplicate stocks, and
+         * returns the number of distinct holdings.
+         */
+        private int remapFund(int fund, int[] localIds, int[] remappedHoldings, double[] remappedWeights,
+                              int[] fundDistinctLength) {
+            int start = fundHoldingsIndex[fund];
+            int length = fundHoldingsLength[fund];
+            int weightStart = fundWeightsIndex[fund];
+            long[] idAndPosition = new long[length];
+            for (int i = 0; i < length; i++) {
+                idAndPosition[i] = ((long) localIds[holdings[start + i]] << Integer.SIZE) | i;
+            }
+            Arrays.sort(idAndPosition);
+
+            int distinct = 0;
+            for (long entry : idAndPosition) {
+                int id = (int) (entry >>> Integer.SIZE);
+                int position = (int) entry;
+                if (distinct > 0 && remappedHoldings[start + distinct - 1] == id) {
+                    if (weightStart != UNWEIGHTED) {
+                        remappedWeights[weightStart + distinct - 1] += weights[weightStart + position];
+                    }
+                    continue;
+                }
+                remappedHoldings[start + distinct] = id;
+                if (weightStart != UNWEIGHTED) {
+                    remappedWeights[weightStart + distinct] = weights[weightStart + position];
+                }
+                distinct++;
+            }
+            fundDistinctLength[fund] = distinct;
+            return distinct;
+        }
+
+        private void appendHolding(int id) {
+            if (holdingCount == holdings.length) {
+                holdings = Arrays.copyOf(holdings, holdings.length * 2);
+            }
+            holdings[holdingCount++] = id;
+        }
+
+        private void appendWeight(double weight) {
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Invalid weight: " + weight);
+            }
+            if (weightCount == weights.length) {
+                weights = Arrays.copyOf(weights, weights.length * 2);
+            }
+            weights[weightCount++] = weight;
+        }
+
+        private static long align(long position, int alignment) {
+            return (position + alignment - 1) / alignment * alignment;
+        }
+
+        private static void putBytes(ByteBuffer buffer, int position, byte[] bytes) {
+            for (int i = 0; i < bytes.length; i++) {
+                buffer.put(position + i, bytes[i]);
+            }
+        }
+
+        private static int compareBytes(byte[] left, byte[] right) {
+            int common = Math.min(left.length, right.length);
+            for (int i = 0; i < common; i++) {
+                int difference = (left[i] & 0xFF) - (right[i] & 0xFF);
+                if (difference != 0) {
+                    return difference;
+                }
+            }
+            return left.length - right.length;
+        }
+    }
+}
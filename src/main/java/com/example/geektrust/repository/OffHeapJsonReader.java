@@ -0,0 +1,115 @@
+package com.example.geektrust.repository;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Streams {@code stock_data.json} into an {@link OffHeapFundRepository.Builder}. Kept apart from
+ * the repository so that mapping a prebuilt arena never loads Jackson.
+ */
+final class OffHeapJsonReader {
+    private static final Logger LOGGER = Logger.getLogger(OffHeapJsonReader.class.getName());
+    private static final String FUNDS_ARRAY_KEY = "funds";
+    private static final String FUND_NAME_KEY = "name";
+    private static final String FUND_STOCKS_KEY = "stocks";
+    private static final String STOCK_NAME_KEY = "name";
+    private static final String STOCK_WEIGHT_KEY = "weight";
+
+    private OffHeapJsonReader() {
+        // Utility class - prevent instantiation
+    }
+
+    static void read(InputStream inputStream, OffHeapFundRepository.Builder builder) throws IOException {
+        try (JsonParser parser = new JsonFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Invalid JSON structure: expected an object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (FUNDS_ARRAY_KEY.equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        readFund(parser, builder);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private static void readFund(JsonParser parser, OffHeapFundRepository.Builder builder) throws IOException {
+        String fundName = null;
+        List<String> stocks = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (FUND_NAME_KEY.equals(field)) {
+                fundName = parser.getValueAsString();
+            } else if (FUND_STOCKS_KEY.equals(field) && value == JsonToken.START_ARRAY) {
+                readStocks(parser, stocks, weights);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (fundName == null || fundName.trim().isEmpty()) {
+            LOGGER.log(Level.WARNING, "Skipping fund without a name");
+            return;
+        }
+        int weightedStocks = 0;
+        for (Double weight : weights) {
+            if (weight != null) {
+                weightedStocks++;
+            }
+        }
+        if (weightedStocks != 0 && weightedStocks != stocks.size()) {
+            LOGGER.log(Level.WARNING, "Skipping fund with partial weights: " + fundName);
+            return;
+        }
+
+        double[] weightArray = null;
+        if (weightedStocks > 0) {
+            weightArray = new double[weights.size()];
+            for (int i = 0; i < weightArray.length; i++) {
+                weightArray[i] = weights.get(i);
+            }
+        }
+        builder.addFund(fundName, stocks.toArray(new String[0]), weightArray);
+    }
+
+    private static void readStocks(JsonParser parser, List<String> stocks, List<Double> weights) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_OBJECT) {
+                String stockName = null;
+                Double weight = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if (STOCK_NAME_KEY.equals(field)) {
+                        stockName = parser.getValueAsString();
+                    } else if (STOCK_WEIGHT_KEY.equals(field) && value.isNumeric()) {
+                        weight = parser.getDoubleValue();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                stocks.add(stockName);
+                weights.add(weight);
+            } else {
+                stocks.add(parser.getValueAsString());
+                weights.add(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.geektrust.repository;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable hash array mapped trie. {@link #put} returns a new trie that shares every node off
+ * the path to the changed entry, so keeping an old version costs nothing and copying one is a
+ * matter of keeping its reference. Each level consumes five bits of the key's hash; keys whose
+ * hashes are equal share a collision node. Keys must not be {@code null}.
+ */
+final class PersistentHashTrie<K, V> {
+    private static final int BITS_PER_LEVEL = 5;
+    private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+    private static final PersistentHashTrie<?, ?> EMPTY = new PersistentHashTrie<>(BitmapNode.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentHashTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashTrie<K, V> empty() {
+        return (PersistentHashTrie<K, V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(K key) {
+        if (key == null || size == 0) {
+            return null;
+        }
+        return (V) root.get(0, hash(key), key);
+    }
+
+    /**
+     * A trie that also maps {@code key} to {@code value}, or this trie if it already does.
+     */
+    PersistentHashTrie<K, V> put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        boolean[] added = new boolean[1];
+        Node updated = root.put(0, hash(key), key, value, added);
+        if (updated == root) {
+            return this;
+        }
+        return new PersistentHashTrie<>(updated, added[0] ? size + 1 : size);
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEach(BiConsumer<? super K, ? super V> action) {
+        root.forEach((BiConsumer<Object, Object>) action);
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int bitFor(int hash, int shift) {
+        return 1 << ((hash >>> shift) & LEVEL_MASK);
+    }
+
+    private abstract static class Node {
+        abstract Object get(int shift, int hash, Object key);
+
+        abstract Node put(int shift, int hash, Object key, Object value, boolean[] added);
+
+        abstract void forEach(BiConsumer<Object, Object> action);
+    }
+
+    /**
+     * Holds up to 32 slots, present where {@code bitmap} has a bit set. Slot {@code i} is the pair
+     * {@code entries[2i], entries[2i + 1]}: a key and its value, or {@code null} and a child node.
+     */
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] entries;
+
+        private BitmapNode(int bitmap, Object[] entries) {
+            this.bitmap = bitmap;
+            this.entries = entries;
+        }
+
+        @Override
+        Object get(int shift, int hash, Object key) {
+            int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            int index = 2 * Integer.bitCount(bitmap & (bit - 1));
+            Object slotKey = entries[index];
+            if (slotKey == null) {
+                return ((Node) entries[index + 1]).get(shift + BITS_PER_LEVEL, hash, key);
+            }
+            return key.equals(slotKey) ? entries[index + 1] : null;
+        }
+
+        @Override
+        Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            int bit = bitFor(hash, shift);
+            int index = 2 * Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                Object[] inserted = new Object[entries.length + 2];
+                System.arraycopy(entries, 0, inserted, 0, index);
+                inserted[index] = key;
+                inserted[index + 1] = value;
+                System.arraycopy(entries, index, inserted, index + 2, entries.length - index);
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, inserted);
+            }
+
+            Object slotKey = entries[index];
+            Object slotValue = entries[index + 1];
+            if (slotKey == null) {
+                Node child = (Node) slotValue;
+                Node updatedChild = child.put(shift + BITS_PER_LEVEL, hash, key, value, added);
+                return updatedChild == child ? this : withSlot(index, null, updatedChild);
+            }
+            if (key.equals(slotKey)) {
+                return slotValue == value ? this : withSlot(index, slotKey, value);
+            }
+            added[0] = true;
+            return withSlot(index, null, split(shift + BITS_PER_LEVEL, slotKey, slotValue, hash, key, value));
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int index = 0; index < entries.length; index += 2) {
+                if (entries[index] == null) {
+                    ((Node) entries[index + 1]).forEach(action);
+                } else {
+                    action.accept(entries[index], entries[index + 1]);
+                }
+            }
+        }
+
+        private BitmapNode withSlot(int index, Object key, Object value) {
+            Object[] copy = entries.clone();
+            copy[index] = key;
+            copy[index + 1] = value;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        /**
+         * A node below {@code shift} holding two entries that share a slot at the level above.
+         */
+        private static Node split(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+            int hash1 = hash(key1);
+            if (hash1 == hash2) {
+                return new CollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+            }
+            boolean[] ignored = new boolean[1];
+            return EMPTY.put(shift, hash1, key1, value1, ignored).put(shift, hash2, key2, value2, ignored);
+        }
+    }
+
+    /**
+     * Entries whose keys have the same full hash, as alternating keys and values.
+     */
+    private static final class CollisionNode extends Node {
+        private final int hash;
+        private final Object[] entries;
+
+        private CollisionNode(int hash, Object[] entries) {
+            this.hash = hash;
+            this.entries = entries;
+        }
+
+        @Override
+        Object get(int shift, int hash, Object key) {
+            int index = indexOf(key);
+            return index >= 0 ? entries[index + 1] : null;
+        }
+
+        @Override
+        Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                BitmapNode parent = new BitmapNode(bitFor(this.hash, shift), new Object[]{null, this});
+                return parent.put(shift, hash, key, value, added);
+            }
+            int index = indexOf(key);
+            if (index >= 0) {
+                if (entries[index + 1] == value) {
+                    return this;
+                }
+                Object[] copy = entries.clone();
+                copy[index + 1] = value;
+                return new CollisionNode(hash, copy);
+            }
+            Object[] extended = Arrays.copyOf(entries, entries.length + 2);
+            extended[entries.length] = key;
+            extended[entries.length + 1] = value;
+            added[0] = true;
+            return new CollisionNode(hash, extended);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int index = 0; index < entries.length; index += 2) {
+                action.accept(entries[index], entries[index + 1]);
+            }
+        }
+
+        private int indexOf(Object key) {
+            for (int index = 0; index < entries.length; index += 2) {
+                if (key.equals(entries[index])) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+    }
+}
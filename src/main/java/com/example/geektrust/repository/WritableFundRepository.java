@@ -0,0 +1,24 @@
+package com.example.geektrust.repository;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A repository that accepts ADD_STOCK modifications.
+ */
+public interface WritableFundRepository extends FundRepository {
+
+    void addStockToFund(String fundName, String stockName);
+
+    /**
+     * Adds each fund's stocks, with the same result as calling {@link #addStockToFund} for every
+     * pair; unknown funds are skipped. Implementations may apply the whole batch at once.
+     */
+    default void addStocksToFunds(Map<String, ? extends Collection<String>> stocksByFund) {
+        for (Map.Entry<String, ? extends Collection<String>> entry : stocksByFund.entrySet()) {
+            for (String stockName : entry.getValue()) {
+                addStockToFund(entry.getKey(), stockName);
+            }
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.example.geektrust.service;
 
 import com.example.geektrust.command.CommandParser;
+import com.example.geektrust.command.ParseResult;
 import com.example.geektrust.command.CommandType;
 import com.example.geektrust.command.ParsedCommand;
+import com.example.geektrust.domain.Portfolio;
 import com.example.geektrust.exception.InvalidCommandException;
 import com.example.geektrust.handler.CommandHandler;
 import com.example.geektrust.handler.CommandResult;
+import com.example.geektrust.repository.FundRepository;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -20,39 +23,134 @@ public class CommandExecutor {
     private static final String NO_HANDLER_ERROR_PREFIX = "No handler found for command: ";
     private static final String INVALID_COMMAND_ERROR_PREFIX = "Invalid command: ";
     private static final String EXECUTION_ERROR_PREFIX = "Error executing command: ";
+    private static final int MAX_MEMOISED_RESULTS = 4096;
+    private static final int INVALID_COMMAND_LOG_BURST = 10;
+    private static final int INVALID_COMMAND_LOG_SAMPLE_INTERVAL = 100;
+    private static final int INVALID_COMMAND_LOG_MAX_PER_SECOND = 5;
     
     private final Map<CommandType, CommandHandler> handlers = new HashMap<>();
     private final CommandParser commandParser = new CommandParser();
+    private final SampledLogger invalidCommandLog = new SampledLogger(LOGGER,
+        INVALID_COMMAND_LOG_BURST, INVALID_COMMAND_LOG_SAMPLE_INTERVAL, INVALID_COMMAND_LOG_MAX_PER_SECOND);
+    private final Map<ParsedCommand, CommandResult> memoisedResults = new HashMap<>();
+    private Portfolio memoPortfolio;
+    private FundRepository memoRepository;
+    private long memoPortfolioVersion;
+    private long memoRepositoryVersion;
+    private long memoHits;
+    private long memoMisses;
 
     public void registerHandler(CommandType commandType, CommandHandler handler) {
         handlers.put(commandType, handler);
     }
 
+    /**
+     * Reuses the result of a read-only command when the same parsed command is repeated while
+     * neither the portfolio nor the repository version has moved.
+     */
+    public void enableMemoisation(Portfolio portfolio, FundRepository fundRepository) {
+        this.memoPortfolio = portfolio;
+        this.memoRepository = fundRepository;
+        this.memoPortfolioVersion = portfolio.getVersion();
+        this.memoRepositoryVersion = fundRepository.getVersion();
+        memoisedResults.clear();
+    }
+
+    public long getMemoHits() {
+        return memoHits;
+    }
+
+    public long getMemoMisses() {
+        return memoMisses;
+    }
+
     public List<CommandResult> executeCommands(List<String> commandLines) {
         List<CommandResult> results = new ArrayList<>();
         
         for (String commandLine : commandLines) {
-            try {
-                ParsedCommand command = commandParser.parse(commandLine);
-                CommandHandler handler = handlers.get(command.getCommandType());
-                
-                if (handler == null) {
-                    results.add(CommandResult.error(NO_HANDLER_ERROR_PREFIX + command.getCommandType()));
-                    continue;
-                }
-                
-                CommandResult result = handler.handle(command);
-                results.add(result);
-                
-            } catch (InvalidCommandException e) {
-                LOGGER.log(Level.WARNING, INVALID_COMMAND_ERROR_PREFIX + commandLine, e);
-                results.add(CommandResult.error(INVALID_COMMAND_ERROR_PREFIX + e.getMessage()));
-            } catch (Exception e) {
-                LOGGER.log(Level.SEVERE, EXECUTION_ERROR_PREFIX + commandLine, e);
-                results.add(CommandResult.error(EXECUTION_ERROR_PREFIX + e.getMessage()));
-            }
+            results.add(executeCommand(commandLine));
         }
         
         return results;
     }
+
+    public CommandResult executeCommand(String commandLine) {
+        try {
+            ParseResult parsed = commandParser.tryParse(commandLine);
+            if (!parsed.isSuccess()) {
+                return invalidCommand(commandLine, parsed.getErrorMessage());
+            }
+            return execute(parsed.getCommand(), commandLine);
+        } catch (Exception e) {
+            return executionError(commandLine, e);
+        }
+    }
+
+    /**
+     * For callers that never decoded the line; errors are logged with the parsed command.
+     */
+    public CommandResult execute(ParsedCommand command) {
+        return execute(command, null);
+    }
+
+    public CommandResult execute(ParsedCommand command, String commandLine) {
+        try {
+            CommandHandler handler = handlers.get(command.getCommandType());
+            
+            if (handler == null) {
+                return CommandResult.error(NO_HANDLER_ERROR_PREFIX + command.getCommandType());
+            }
+            
+            if (memoPortfolio == null || !handler.isReadOnly()) {
+                return handler.handle(command);
+            }
+            return memoised(handler, command);
+        } catch (Exception e) {
+            return executionError(commandLine != null ? commandLine : command.toString(), e);
+        }
+    }
+
+    private CommandResult memoised(CommandHandler handler, ParsedCommand command) {
+        long portfolioVersion = memoPortfolio.getVersion();
+        long repositoryVersion = memoRepository.getVersion();
+        if (portfolioVersion != memoPortfolioVersion || repositoryVersion != memoRepositoryVersion
+                || memoisedResults.size() >= MAX_MEMOISED_RESULTS) {
+            // Results under older versions can never be requested again
+            memoisedResults.clear();
+            memoPortfolioVersion = portfolioVersion;
+            memoRepositoryVersion = repositoryVersion;
+        }
+
+        CommandResult result = memoisedResults.get(command);
+        if (result != null) {
+            memoHits++;
+            return result;
+        }
+        memoMisses++;
+        result = handler.handle(command);
+        memoisedResults.put(command, result);
+        return result;
+    }
+
+    public CommandResult invalidCommand(String commandLine, InvalidCommandException e) {
+        return invalidCommand(commandLine, e.getMessage());
+    }
+
+    /**
+     * Logging of invalid lines is sampled and rate limited, so dirty input cannot flood the log;
+     * the log line is only formatted for the messages that are kept.
+     */
+    public CommandResult invalidCommand(String commandLine, String errorMessage) {
+        invalidCommandLog.log(Level.WARNING, () -> INVALID_COMMAND_ERROR_PREFIX + commandLine + ": " + errorMessage);
+        return CommandResult.error(INVALID_COMMAND_ERROR_PREFIX + errorMessage);
+    }
+
+    public long getSuppressedInvalidCommandLogCount() {
+        return invalidCommandLog.getSuppressedCount();
+    }
+
+    private CommandResult executionError(String commandLine, Exception e) {
+        LOGGER.log(Level.SEVERE, EXECUTION_ERROR_PREFIX + commandLine, e);
+        return CommandResult.error(EXECUTION_ERROR_PREFIX + e.getMessage());
+    }
 }
\ No newline at end of file
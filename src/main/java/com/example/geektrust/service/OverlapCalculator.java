@@ -1,45 +1,242 @@
 package com.example.geektrust.service;
 
 import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.StockBitmap;
+import com.example.geektrust.domain.StockDictionary;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
 public class OverlapCalculator {
-    
+
     private static final int DECIMAL_PLACES = 2;
     private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
-    private static final double OVERLAP_MULTIPLIER = 2.0;
-    private static final double PERCENTAGE_MULTIPLIER = 100.0;
-    private static final double ZERO_OVERLAP = 0.0;
-    
+    private static final SimilarityMetric[] OVERLAP_ONLY = {SimilarityMetric.OVERLAP};
+    private static final double HUNDREDTHS_MULTIPLIER = 100.0;
+    private static final double HALF_WAY_TOLERANCE = 1e-9;
+    private static final int BITS_PER_WORD_SHIFT = 6;
+
+    private final ThreadLocal<long[]> probes = ThreadLocal.withInitial(() -> new long[0]);
+    private final ThreadLocal<double[]> weightProbes = ThreadLocal.withInitial(() -> new double[0]);
+
     public double calculateOverlapPercentage(Fund fund1, Fund fund2) {
         if (fund1 == null || fund2 == null) {
             throw new IllegalArgumentException("Funds cannot be null");
         }
-        
-        Set<String> commonStocks = findCommonStocks(fund1, fund2);
-        int totalStocks = fund1.getStockCount() + fund2.getStockCount();
-        
-        if (totalStocks == 0) {
-            return ZERO_OVERLAP;
-        }
-        
-        double overlap = (OVERLAP_MULTIPLIER * commonStocks.size()) / totalStocks * PERCENTAGE_MULTIPLIER;
-        return roundToTwoDecimalPlaces(overlap);
-    }
-    
-    private Set<String> findCommonStocks(Fund fund1, Fund fund2) {
-        Set<String> common = new HashSet<>(fund1.getStocks());
-        common.retainAll(fund2.getStocks());
+
+        int commonStocks;
+        if (fund1.hasDenseStockChunks() || fund2.hasDenseStockChunks()) {
+            commonStocks = fund1.getStockBitmap().intersectionCardinality(fund2.getStockBitmap());
+        } else {
+            commonStocks = countCommonStocks(fund1.getStockIds(), fund2.getStockIds());
+        }
+        return roundToTwoDecimalPlaces(
+            SimilarityMetric.OVERLAP.compute(commonStocks, fund1.getStockCount(), fund2.getStockCount()));
+    }
+
+    /**
+     * Scores {@code target} against every fund in {@code funds}, writing the overlap of
+     * {@code funds.get(i)} into {@code results[i]}. The target is loaded into a reusable
+     * bitset once and each fund's stock ids are streamed against it; funds whose ids fill a
+     * dense bitmap chunk are intersected as bitmaps instead.
+     */
+    public void calculateOverlapPercentages(Fund target, List<Fund> funds, double[] results) {
+        calculateSimilarities(target, funds, OVERLAP_ONLY, results);
+    }
+
+    /**
+     * Computes every requested metric for {@code target} against each fund from a single
+     * intersection count per fund. The value of {@code metrics[m]} for {@code funds.get(i)} is
+     * written to {@code results[i * metrics.length + m]}.
+     */
+    public void calculateSimilarities(Fund target, List<Fund> funds, SimilarityMetric[] metrics, double[] results) {
+        if (target == null || funds == null || metrics == null || results == null) {
+            throw new IllegalArgumentException("Target, funds, metrics and results cannot be null");
+        }
+        if (results.length < funds.size() * metrics.length) {
+            throw new IllegalArgumentException("Results array is smaller than funds times metrics");
+        }
+
+        int[] targetIds = target.getStockIds();
+        long[] probe = loadProbe(targetIds);
+        StockBitmap denseTarget = null;
+        try {
+            for (int i = 0; i < funds.size(); i++) {
+                Fund fund = funds.get(i);
+                if (fund == null) {
+                    throw new IllegalArgumentException("Funds cannot be null");
+                }
+                int commonStocks;
+                if (fund.hasDenseStockChunks()) {
+                    if (denseTarget == null) {
+                        denseTarget = target.getStockBitmap().densified();
+                    }
+                    commonStocks = denseTarget.intersectionCardinality(fund.getStockBitmap());
+                } else {
+                    commonStocks = countProbeHits(probe, fund.getStockIds());
+                }
+                for (int m = 0; m < metrics.length; m++) {
+                    results[i * metrics.length + m] = roundToTwoDecimalPlaces(
+                        metrics[m].compute(commonStocks, targetIds.length, fund.getStockCount()));
+                }
+            }
+        } finally {
+            clearProbe(probe, targetIds);
+        }
+    }
+
+    /**
+     * Weight-based overlap: the sum over common stocks of the smaller of the two weights.
+     * Funds without explicit weights count each stock as an equal share of 100.
+     */
+    public double calculateWeightedOverlapPercentage(Fund fund1, Fund fund2) {
+        if (fund1 == null || fund2 == null) {
+            throw new IllegalArgumentException("Funds cannot be null");
+        }
+
+        return roundToTwoDecimalPlaces(sumCommonMinWeights(
+            fund1.getStockIds(), explicitWeights(fund1), fund2.getStockIds(), explicitWeights(fund2)));
+    }
+
+    public void calculateWeightedOverlapPercentages(Fund target, List<Fund> funds, double[] results) {
+        if (target == null || funds == null || results == null) {
+            throw new IllegalArgumentException("Target, funds and results cannot be null");
+        }
+        if (results.length < funds.size()) {
+            throw new IllegalArgumentException("Results array is smaller than the number of funds");
+        }
+
+        int[] targetIds = target.getStockIds();
+        double[] probe = loadWeightProbe(targetIds, explicitWeights(target));
+        try {
+            for (int i = 0; i < funds.size(); i++) {
+                Fund fund = funds.get(i);
+                if (fund == null) {
+                    throw new IllegalArgumentException("Funds cannot be null");
+                }
+                results[i] = roundToTwoDecimalPlaces(sumProbeMinWeights(probe, fund.getStockIds(), explicitWeights(fund)));
+            }
+        } finally {
+            for (int id : targetIds) {
+                probe[id] = 0.0;
+            }
+        }
+    }
+
+    /**
+     * The fund's weights, or null for a fund without explicit weights; the kernels below give
+     * every stock of such a fund {@link Fund#equalWeight} instead of reading an array.
+     */
+    private static double[] explicitWeights(Fund fund) {
+        return fund.isWeighted() ? fund.getStockWeights() : null;
+    }
+
+    private double[] loadWeightProbe(int[] targetIds, double[] targetWeights) {
+        int requiredLength = StockDictionary.shared().size();
+        double[] probe = weightProbes.get();
+        if (probe.length < requiredLength) {
+            probe = new double[Math.max(requiredLength, probe.length * 2)];
+            weightProbes.set(probe);
+        }
+        double equalWeight = Fund.equalWeight(targetIds.length);
+        for (int i = 0; i < targetIds.length; i++) {
+            probe[targetIds[i]] = targetWeights != null ? targetWeights[i] : equalWeight;
+        }
+        return probe;
+    }
+
+    private static double sumProbeMinWeights(double[] probe, int[] ids, double[] weights) {
+        double sum = 0.0;
+        double equalWeight = Fund.equalWeight(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            int id = ids[i];
+            double probeWeight = id < probe.length ? probe[id] : 0.0;
+            double weight = weights != null ? weights[i] : equalWeight;
+            sum += probeWeight < weight ? probeWeight : weight;
+        }
+        return sum;
+    }
+
+    private static double sumCommonMinWeights(int[] ids1, double[] weights1, int[] ids2, double[] weights2) {
+        double sum = 0.0;
+        double equalWeight1 = Fund.equalWeight(ids1.length);
+        double equalWeight2 = Fund.equalWeight(ids2.length);
+        int i = 0;
+        int j = 0;
+        while (i < ids1.length && j < ids2.length) {
+            if (ids1[i] < ids2[j]) {
+                i++;
+            } else if (ids1[i] > ids2[j]) {
+                j++;
+            } else {
+                sum += Math.min(weights1 != null ? weights1[i] : equalWeight1,
+                    weights2 != null ? weights2[j] : equalWeight2);
+                i++;
+                j++;
+            }
+        }
+        return sum;
+    }
+
+    private long[] loadProbe(int[] targetIds) {
+        int requiredWords = (StockDictionary.shared().size() >>> BITS_PER_WORD_SHIFT) + 1;
+        long[] probe = probes.get();
+        if (probe.length < requiredWords) {
+            probe = new long[Math.max(requiredWords, probe.length * 2)];
+            probes.set(probe);
+        }
+        for (int id : targetIds) {
+            probe[id >>> BITS_PER_WORD_SHIFT] |= 1L << id;
+        }
+        return probe;
+    }
+
+    private static void clearProbe(long[] probe, int[] targetIds) {
+        for (int id : targetIds) {
+            probe[id >>> BITS_PER_WORD_SHIFT] = 0L;
+        }
+    }
+
+    private static int countProbeHits(long[] probe, int[] ids) {
+        int hits = 0;
+        for (int id : ids) {
+            int word = id >>> BITS_PER_WORD_SHIFT;
+            if (word < probe.length) {
+                hits += (int) ((probe[word] >>> id) & 1L);
+            }
+        }
+        return hits;
+    }
+
+    private static int countCommonStocks(int[] ids1, int[] ids2) {
+        int common = 0;
+        int i = 0;
+        int j = 0;
+        while (i < ids1.length && j < ids2.length) {
+            if (ids1[i] < ids2[j]) {
+                i++;
+            } else if (ids1[i] > ids2[j]) {
+                j++;
+            } else {
+                common++;
+                i++;
+                j++;
+            }
+        }
         return common;
     }
-    
+
     private double roundToTwoDecimalPlaces(double value) {
+        double scaled = value * HUNDREDTHS_MULTIPLIER;
+        double fraction = scaled - Math.floor(scaled);
+        if (Math.abs(fraction - 0.5) > HALF_WAY_TOLERANCE) {
+            return Math.round(scaled) / HUNDREDTHS_MULTIPLIER;
+        }
+
+        // Too close to a tie to trust binary arithmetic; round the decimal representation
         BigDecimal bd = BigDecimal.valueOf(value);
         bd = bd.setScale(DECIMAL_PLACES, ROUNDING_MODE);
         return bd.doubleValue();
     }
-}
\ No newline at end of file
+}
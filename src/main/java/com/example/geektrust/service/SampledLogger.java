@@ -0,0 +1,87 @@
+package com.example.geektrust.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Logs the first {@code initialBurst} messages, then one in every {@code sampleInterval}, and
+ * never more than {@code maxPerSecond} of the sampled ones per second. Each logged message
+ * reports how many were dropped since the previous one. Messages are logged without a throwable,
+ * and a supplied message is only built once it has been admitted.
+ */
+final class SampledLogger {
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Logger logger;
+    private final int initialBurst;
+    private final int sampleInterval;
+    private final int maxPerSecond;
+    private final LongSupplier nanoClock;
+    private long seen;
+    private long suppressed;
+    private long suppressedTotal;
+    private long windowStart;
+    private int windowCount;
+
+    SampledLogger(Logger logger, int initialBurst, int sampleInterval, int maxPerSecond) {
+        this(logger, initialBurst, sampleInterval, maxPerSecond, System::nanoTime);
+    }
+
+    SampledLogger(Logger logger, int initialBurst, int sampleInterval, int maxPerSecond, LongSupplier nanoClock) {
+        this.logger = logger;
+        this.initialBurst = initialBurst;
+        this.sampleInterval = sampleInterval;
+        this.maxPerSecond = maxPerSecond;
+        this.nanoClock = nanoClock;
+        this.windowStart = nanoClock.getAsLong();
+    }
+
+    void log(Level level, String message) {
+        log(level, () -> message);
+    }
+
+    void log(Level level, Supplier<String> message) {
+        if (!logger.isLoggable(level)) {
+            return;
+        }
+        long dropped;
+        synchronized (this) {
+            if (!admit()) {
+                suppressed++;
+                suppressedTotal++;
+                return;
+            }
+            dropped = suppressed;
+            suppressed = 0;
+        }
+        String text = message.get();
+        logger.log(level, dropped == 0 ? text : text + " (" + dropped + " similar messages suppressed)");
+    }
+
+    synchronized long getSuppressedCount() {
+        return suppressedTotal;
+    }
+
+    private boolean admit() {
+        seen++;
+        if (seen <= initialBurst) {
+            return true;
+        }
+        if ((seen - initialBurst) % sampleInterval != 0) {
+            return false;
+        }
+        long now = nanoClock.getAsLong();
+        if (now - windowStart >= WINDOW_NANOS) {
+            windowStart = now;
+            windowCount = 0;
+        }
+        if (windowCount >= maxPerSecond) {
+            return false;
+        }
+        windowCount++;
+        return true;
+    }
+}
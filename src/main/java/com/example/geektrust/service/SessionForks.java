@@ -0,0 +1,55 @@
+package com.example.geektrust.service;
+
+import com.example.geektrust.domain.Portfolio;
+import com.example.geektrust.repository.ModifiableFundRepository;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Stack of what-if branches over a session. FORK records the portfolio and the ADD_STOCK overlay;
+ * ROLLBACK returns both to the latest record. Both states are persistent, so forking is O(1) and
+ * never copies stock sets.
+ */
+public class SessionForks {
+    private final Portfolio portfolio;
+    private final ModifiableFundRepository fundRepository;
+    private final Deque<Fork> forks = new ArrayDeque<>();
+
+    public SessionForks(Portfolio portfolio, ModifiableFundRepository fundRepository) {
+        this.portfolio = portfolio;
+        this.fundRepository = fundRepository;
+    }
+
+    public void fork() {
+        forks.push(new Fork(portfolio.checkpoint(), fundRepository.checkpoint()));
+    }
+
+    /**
+     * Discards everything since the latest fork; returns {@code false} if there is none.
+     */
+    public boolean rollback() {
+        Fork fork = forks.poll();
+        if (fork == null) {
+            return false;
+        }
+        // The repository notifies the portfolio of reverted funds first; the portfolio restore wins
+        fundRepository.restore(fork.repositoryCheckpoint);
+        portfolio.restore(fork.portfolioCheckpoint);
+        return true;
+    }
+
+    public int depth() {
+        return forks.size();
+    }
+
+    private static final class Fork {
+        private final Portfolio.Checkpoint portfolioCheckpoint;
+        private final ModifiableFundRepository.Checkpoint repositoryCheckpoint;
+
+        private Fork(Portfolio.Checkpoint portfolioCheckpoint, ModifiableFundRepository.Checkpoint repositoryCheckpoint) {
+            this.portfolioCheckpoint = portfolioCheckpoint;
+            this.repositoryCheckpoint = repositoryCheckpoint;
+        }
+    }
+}
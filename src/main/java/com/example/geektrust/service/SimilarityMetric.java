@@ -0,0 +1,59 @@
+package com.example.geektrust.service;
+
+/**
+ * Similarity measures derived from the intersection size of a target fund A and a fund B,
+ * expressed as a percentage before rounding.
+ */
+public enum SimilarityMetric {
+    /** 2·|A∩B| / (|A|+|B|) - the metric used by CALCULATE_OVERLAP. */
+    OVERLAP {
+        @Override
+        double compute(int commonStocks, int targetSize, int fundSize) {
+            int totalStocks = targetSize + fundSize;
+            return totalStocks == 0 ? 0.0 : (2.0 * commonStocks) / totalStocks * PERCENTAGE_MULTIPLIER;
+        }
+    },
+    /** |A∩B| / |A∪B|. */
+    JACCARD {
+        @Override
+        double compute(int commonStocks, int targetSize, int fundSize) {
+            int unionSize = targetSize + fundSize - commonStocks;
+            return unionSize == 0 ? 0.0 : (double) commonStocks / unionSize * PERCENTAGE_MULTIPLIER;
+        }
+    },
+    /** |A∩B| / |A| - how much of the target is held by the fund. */
+    CONTAINMENT_OF_TARGET {
+        @Override
+        double compute(int commonStocks, int targetSize, int fundSize) {
+            return targetSize == 0 ? 0.0 : (double) commonStocks / targetSize * PERCENTAGE_MULTIPLIER;
+        }
+    },
+    /** |A∩B| / |B| - how much of the fund is held by the target. */
+    CONTAINMENT_OF_FUND {
+        @Override
+        double compute(int commonStocks, int targetSize, int fundSize) {
+            return fundSize == 0 ? 0.0 : (double) commonStocks / fundSize * PERCENTAGE_MULTIPLIER;
+        }
+    },
+    /** |A∩B| / sqrt(|A|·|B|). */
+    COSINE {
+        @Override
+        double compute(int commonStocks, int targetSize, int fundSize) {
+            long sizeProduct = (long) targetSize * fundSize;
+            return sizeProduct == 0 ? 0.0 : commonStocks / Math.sqrt(sizeProduct) * PERCENTAGE_MULTIPLIER;
+        }
+    };
+
+    private static final double PERCENTAGE_MULTIPLIER = 100.0;
+
+    abstract double compute(int commonStocks, int targetSize, int fundSize);
+
+    public static SimilarityMetric fromName(String name) {
+        for (SimilarityMetric metric : values()) {
+            if (metric.name().equals(name)) {
+                return metric;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.geektrust.service;
+
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.ScoredFund;
+
+import java.util.List;
+
+/**
+ * Finds the funds in a universe that overlap most with a target.
+ */
+public interface TopOverlapFinder {
+
+    /**
+     * Up to {@code k} funds other than {@code target}, with a non-zero overlap of at least
+     * {@code minPercent}, ordered by {@link ScoredFund#BY_OVERLAP_DESCENDING}.
+     */
+    List<ScoredFund> findTopOverlaps(Fund target, int k, double minPercent);
+}
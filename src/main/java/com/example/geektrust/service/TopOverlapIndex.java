@@ -0,0 +1,241 @@
+package com.example.geektrust.service;
+
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.ScoredFund;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable snapshot of a fund universe grouped into buckets of equal stock count. The overlap
+ * of targets of size |A| with any fund of size |B| is at most 2·min(|A|,|B|)/(|A|+|B|), so a
+ * top-k query visits buckets from the size closest to |A| outwards and stops as soon as that
+ * bound falls below both {@code minPercent} and the current k-th best score. A modified fund is
+ * moved with {@link #withFund}, which copies only the two buckets it leaves and joins.
+ */
+public final class TopOverlapIndex {
+    // Scores are rounded to hundredths, so a fund may score up to half a hundredth above the bound
+    private static final double ROUNDING_SLACK = 0.005;
+    private static final double MAX_PERCENT = 100.0;
+
+    private final int[] bucketSizes;
+    private final List<List<Fund>> buckets;
+    private final int fundCount;
+
+    private TopOverlapIndex(int[] bucketSizes, List<List<Fund>> buckets, int fundCount) {
+        this.bucketSizes = bucketSizes;
+        this.buckets = buckets;
+        this.fundCount = fundCount;
+    }
+
+    public static TopOverlapIndex build(List<Fund> funds) {
+        List<Fund> sorted = new ArrayList<>(funds);
+        sorted.sort(Comparator.comparingInt(Fund::getStockCount));
+
+        int[] sizes = new int[sorted.size()];
+        List<List<Fund>> buckets = new ArrayList<>();
+        int bucketCount = 0;
+        for (Fund fund : sorted) {
+            int size = fund.getStockCount();
+            if (bucketCount == 0 || sizes[bucketCount - 1] != size) {
+                sizes[bucketCount++] = size;
+                buckets.add(new ArrayList<>());
+            }
+            buckets.get(bucketCount - 1).add(fund);
+        }
+        return new TopOverlapIndex(Arrays.copyOf(sizes, bucketCount), buckets, sorted.size());
+    }
+
+    /**
+     * This index with {@code updated} in place of the fund of the same name, which was indexed
+     * with {@code previousSize} stocks. An entry already moved to the new size is replaced.
+     */
+    public TopOverlapIndex withFund(int previousSize, Fund updated) {
+        String fundName = updated.getName();
+        int[] sizes = bucketSizes;
+        List<List<Fund>> copied = new ArrayList<>(buckets);
+        int count = fundCount;
+        int previous = Arrays.binarySearch(sizes, previousSize);
+        if (previous >= 0 && removeNamed(copied, previous, fundName)) {
+            count--;
+        }
+        int target = Arrays.binarySearch(sizes, updated.getStockCount());
+        if (target >= 0 && target != previous && removeNamed(copied, target, fundName)) {
+            count--;
+        }
+        if (target < 0) {
+            target = -target - 1;
+            sizes = new int[bucketSizes.length + 1];
+            System.arraycopy(bucketSizes, 0, sizes, 0, target);
+            sizes[target] = updated.getStockCount();
+            System.arraycopy(bucketSizes, target, sizes, target + 1, bucketSizes.length - target);
+            copied.add(target, new ArrayList<>());
+        } else {
+            copied.set(target, new ArrayList<>(copied.get(target)));
+        }
+        copied.get(target).add(updated);
+        return new TopOverlapIndex(sizes, copied, count + 1);
+    }
+
+    private static boolean removeNamed(List<List<Fund>> buckets, int bucket, String fundName) {
+        List<Fund> funds = buckets.get(bucket);
+        for (int i = 0; i < funds.size(); i++) {
+            if (funds.get(i).getName().equals(fundName)) {
+                List<Fund> remaining = new ArrayList<>(funds);
+                remaining.remove(i);
+                buckets.set(bucket, remaining);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<ScoredFund> top(Fund target, int k, double minPercent, OverlapCalculator overlapCalculator) {
+        if (k <= 0 || bucketSizes.length == 0) {
+            return Collections.emptyList();
+        }
+
+        int targetSize = target.getStockCount();
+        // k comes from user input or the wire; no more than every fund can ever be kept
+        TopKHeap heap = new TopKHeap(Math.min(k, fundCount));
+        double[] scores = new double[0];
+
+        // Two cursors walk away from the bucket nearest the target size; bounds only shrink
+        int above = lowerBound(targetSize);
+        int below = above - 1;
+        while (below >= 0 || above < bucketSizes.length) {
+            double belowBound = below >= 0 ? maxOverlap(targetSize, bucketSizes[below]) : -1.0;
+            double aboveBound = above < bucketSizes.length ? maxOverlap(targetSize, bucketSizes[above]) : -1.0;
+            boolean takeAbove = aboveBound >= belowBound;
+            double bound = takeAbove ? aboveBound : belowBound;
+            if (bound + ROUNDING_SLACK < minPercent || (heap.isFull() && bound + ROUNDING_SLACK < heap.worstScore())) {
+                break;
+            }
+
+            List<Fund> bucket = buckets.get(takeAbove ? above++ : below--);
+            if (scores.length < bucket.size()) {
+                scores = new double[bucket.size()];
+            }
+            overlapCalculator.calculateOverlapPercentages(target, bucket, scores);
+            for (int i = 0; i < bucket.size(); i++) {
+                double score = scores[i];
+                if (score > 0 && score >= minPercent && !bucket.get(i).getName().equals(target.getName())) {
+                    heap.offer(score, bucket.get(i).getName());
+                }
+            }
+        }
+        return heap.drainDescending();
+    }
+
+    private int lowerBound(int size) {
+        int low = 0;
+        int high = bucketSizes.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bucketSizes[mid] < size) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static double maxOverlap(int targetSize, int fundSize) {
+        int total = targetSize + fundSize;
+        return total == 0 ? 0.0 : 2.0 * Math.min(targetSize, fundSize) / total * MAX_PERCENT;
+    }
+
+    /**
+     * Bounded min-heap over parallel primitive arrays. The root is the worst kept entry: the
+     * lowest score, or among equal scores the greatest name.
+     */
+    private static final class TopKHeap {
+        private final double[] scores;
+        private final String[] names;
+        private int size;
+
+        private TopKHeap(int capacity) {
+            this.scores = new double[capacity];
+            this.names = new String[capacity];
+        }
+
+        boolean isFull() {
+            return size == scores.length;
+        }
+
+        double worstScore() {
+            return scores[0];
+        }
+
+        void offer(double score, String name) {
+            if (!isFull()) {
+                scores[size] = score;
+                names[size] = name;
+                siftUp(size++);
+            } else if (worse(scores[0], names[0], score, name)) {
+                scores[0] = score;
+                names[0] = name;
+                siftDown(0);
+            }
+        }
+
+        List<ScoredFund> drainDescending() {
+            ScoredFund[] ordered = new ScoredFund[size];
+            while (size > 0) {
+                ordered[size - 1] = new ScoredFund(names[0], scores[0]);
+                size--;
+                scores[0] = scores[size];
+                names[0] = names[size];
+                siftDown(0);
+            }
+            return Arrays.asList(ordered);
+        }
+
+        private static boolean worse(double score, String name, double otherScore, String otherName) {
+            return score < otherScore || (score == otherScore && name.compareTo(otherName) > 0);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!worse(scores[index], names[index], scores[parent], names[parent])) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int left = 2 * index + 1;
+                if (left >= size) {
+                    return;
+                }
+                int worst = left;
+                int right = left + 1;
+                if (right < size && worse(scores[right], names[right], scores[left], names[left])) {
+                    worst = right;
+                }
+                if (!worse(scores[worst], names[worst], scores[index], names[index])) {
+                    return;
+                }
+                swap(index, worst);
+                index = worst;
+            }
+        }
+
+        private void swap(int i, int j) {
+            double score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+            String name = names[i];
+            names[i] = names[j];
+            names[j] = name;
+        }
+    }
+}
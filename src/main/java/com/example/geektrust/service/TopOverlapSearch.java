@@ -0,0 +1,55 @@
+package com.example.geektrust.service;
+
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.ScoredFund;
+import com.example.geektrust.repository.FundModificationListener;
+import com.example.geektrust.repository.FundRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link TopOverlapFinder} over a whole repository. The size-bucket index is built on first use;
+ * after that each modified fund is queued by the repository's listener and moved to its new
+ * bucket by the next query, so writers never wait for a search. {@link #close} unregisters the
+ * listener.
+ */
+public class TopOverlapSearch implements TopOverlapFinder, AutoCloseable {
+    private final FundRepository fundRepository;
+    private final OverlapCalculator overlapCalculator;
+    private final Map<String, Fund> pendingFunds = new ConcurrentHashMap<>();
+    private final Map<String, Integer> indexedSizes = new HashMap<>();
+    private final FundModificationListener listener = fund -> pendingFunds.put(fund.getName(), fund);
+    private TopOverlapIndex index;
+
+    public TopOverlapSearch(FundRepository fundRepository, OverlapCalculator overlapCalculator) {
+        this.fundRepository = fundRepository;
+        this.overlapCalculator = overlapCalculator;
+        fundRepository.addModificationListener(listener);
+    }
+
+    @Override
+    public synchronized List<ScoredFund> findTopOverlaps(Fund target, int k, double minPercent) {
+        if (index == null) {
+            List<Fund> funds = fundRepository.getAllFunds();
+            index = TopOverlapIndex.build(funds);
+            for (Fund fund : funds) {
+                indexedSizes.put(fund.getName(), fund.getStockCount());
+            }
+        }
+        // Funds already built into the index are simply replaced by themselves
+        for (String fundName : pendingFunds.keySet()) {
+            Fund fund = pendingFunds.remove(fundName);
+            Integer previousSize = indexedSizes.put(fundName, fund.getStockCount());
+            index = index.withFund(previousSize != null ? previousSize : fund.getStockCount(), fund);
+        }
+        return index.top(target, k, minPercent, overlapCalculator);
+    }
+
+    @Override
+    public void close() {
+        fundRepository.removeModificationListener(listener);
+    }
+}
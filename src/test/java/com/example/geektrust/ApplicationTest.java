@@ -7,11 +7,15 @@ import org.junit.jupiter.api.io.TempDir;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -230,6 +234,136 @@ class ApplicationTest {
         });
     }
 
+    @Test
+    @DisplayName("Should produce identical output when pipelined")
+    void shouldProduceIdenticalOutputWhenPipelined() throws IOException {
+        // Given
+        Path inputFile = tempDir.resolve("pipelined_input.txt");
+        Files.write(inputFile, Arrays.asList(
+            "CURRENT_PORTFOLIO AXIS_BLUECHIP ICICI_PRU_BLUECHIP UTI_NIFTY_INDEX",
+            "CALCULATE_OVERLAP MIRAE_ASSET_EMERGING_BLUECHIP",
+            "INVALID_COMMAND",
+            "ADD_STOCK AXIS_BLUECHIP TCS_LT",
+            "CALCULATE_OVERLAP MIRAE_ASSET_EMERGING_BLUECHIP"
+        ));
+        application.run(inputFile.toString());
+        String sequentialOutput = outputStream.toString();
+        outputStream.reset();
+
+        // When
+        String stockDataPath = getClass().getClassLoader().getResource("stock_data.json").getPath();
+        new Application(stockDataPath).runPipelined(inputFile.toString());
+
+        // Then
+        assertEquals(sequentialOutput, outputStream.toString());
+    }
+
+    @Test
+    @DisplayName("Should run the first-result callback once, after the first output")
+    void shouldRunFirstResultCallbackOnce() {
+        // Given
+        List<String> seenOutput = new ArrayList<>();
+        application.setFirstResultCallback(() -> seenOutput.add(outputStream.toString()));
+
+        // When
+        application.run(Arrays.asList("INVALID_COMMAND", "ALSO_INVALID"));
+
+        // Then
+        assertEquals(1, seenOutput.size());
+        assertTrue(seenOutput.get(0).startsWith("Invalid command: "));
+    }
+
+    @Test
+    @DisplayName("Should run a gzip-compressed input file in every reading mode")
+    void shouldRunGzipInput() throws IOException {
+        // Given
+        List<String> commands = Arrays.asList(
+            "CURRENT_PORTFOLIO AXIS_BLUECHIP ICICI_PRU_BLUECHIP",
+            "CALCULATE_OVERLAP MIRAE_ASSET_EMERGING_BLUECHIP");
+        Path plainFile = tempDir.resolve("input.txt");
+        Files.write(plainFile, commands);
+        Path gzipFile = tempDir.resolve("input.txt.gz");
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(gzipFile))) {
+            output.write(Files.readAllBytes(plainFile));
+        }
+        application.run(plainFile.toString());
+        String expected = outputStream.toString();
+
+        // When & Then
+        outputStream.reset();
+        application.run(gzipFile.toString());
+        assertEquals(expected, outputStream.toString());
+        outputStream.reset();
+        application.runMapped(gzipFile.toString());
+        assertEquals(expected, outputStream.toString());
+        outputStream.reset();
+        application.runChunked(gzipFile.toString(), 2);
+        assertEquals(expected, outputStream.toString());
+    }
+
+    @Test
+    @DisplayName("Should print the same overlaps after ADD_STOCKS as after the equivalent ADD_STOCK lines")
+    void shouldMatchAddStockLinesWithAddStocks() {
+        // Given
+        List<String> additions = Arrays.asList(
+            "AXIS_BLUECHIP TOCHI_CAPITAL",
+            "ICICI_PRU_BLUECHIP NOCIL",
+            "UNKNOWN_FUND NOCIL",
+            "AXIS_BLUECHIP NOCIL",
+            "OTHER_UNKNOWN_FUND NOCIL",
+            "UNKNOWN_FUND TOCHI_CAPITAL");
+        List<String> singleLines = new ArrayList<>();
+        singleLines.add("CURRENT_PORTFOLIO AXIS_BLUECHIP ICICI_PRU_BLUECHIP");
+        for (String addition : additions) {
+            singleLines.add("ADD_STOCK " + addition);
+        }
+        singleLines.add("CALCULATE_OVERLAP MIRAE_ASSET_EMERGING_BLUECHIP");
+        application.run(singleLines);
+        String expected = outputStream.toString();
+
+        // When
+        outputStream.reset();
+        String stockDataPath = getClass().getClassLoader().getResource("stock_data.json").getPath();
+        new Application(stockDataPath).run(Arrays.asList(
+            "CURRENT_PORTFOLIO AXIS_BLUECHIP ICICI_PRU_BLUECHIP",
+            "ADD_STOCKS " + String.join("; ", additions),
+            "CALCULATE_OVERLAP MIRAE_ASSET_EMERGING_BLUECHIP"));
+
+        // Then
+        assertEquals(expected, outputStream.toString());
+        assertEquals(3, expected.split("FUND_NOT_FOUND", -1).length - 1);
+    }
+
+    @Test
+    @DisplayName("Should undo ADD_STOCK and portfolio changes made since FORK on ROLLBACK")
+    void shouldRollBackToFork() {
+        // Given
+        List<String> commands = Arrays.asList(
+            "CURRENT_PORTFOLIO AXIS_BLUECHIP ICICI_PRU_BLUECHIP",
+            "CALCULATE_OVERLAP MIRAE_ASSET_EMERGING_BLUECHIP",
+            "FORK",
+            "ADD_STOCK AXIS_BLUECHIP TOCHI_CAPITAL",
+            "FORK",
+            "CURRENT_PORTFOLIO UTI_NIFTY_INDEX",
+            "ROLLBACK",
+            "CALCULATE_OVERLAP MIRAE_ASSET_EMERGING_BLUECHIP",
+            "ROLLBACK",
+            "CALCULATE_OVERLAP MIRAE_ASSET_EMERGING_BLUECHIP",
+            "ROLLBACK");
+
+        // When
+        application.run(commands);
+
+        // Then
+        String[] lines = outputStream.toString().trim().split("\\R");
+        assertEquals(7, lines.length);
+        assertEquals(lines[0], lines[4]);
+        assertEquals(lines[1], lines[5]);
+        assertEquals("MIRAE_ASSET_EMERGING_BLUECHIP AXIS_BLUECHIP 39.13%", lines[0]);
+        assertEquals("MIRAE_ASSET_EMERGING_BLUECHIP AXIS_BLUECHIP 38.71%", lines[2]);
+        assertEquals("NO_FORK", lines[6]);
+    }
+
     @org.junit.jupiter.api.AfterEach
     void tearDown() {
         System.setOut(originalOut);
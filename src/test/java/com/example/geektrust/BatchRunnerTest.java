@@ -0,0 +1,117 @@
+package com.example.geektrust;
+
+import com.example.geektrust.repository.JsonFundRepository;
+import com.example.geektrust.service.OverlapCalculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRunnerTest {
+
+    private static final List<String> ADDS_STOCK = Arrays.asList(
+        "CURRENT_PORTFOLIO AXIS_BLUECHIP ICICI_PRU_BLUECHIP",
+        "ADD_STOCK ICICI_PRU_BLUECHIP HDFC BANK LIMITED",
+        "ADD_STOCK ICICI_PRU_BLUECHIP BATCH_TEST_STOCK",
+        "CALCULATE_OVERLAP AXIS_BLUECHIP");
+    private static final List<String> READS_ONLY = Arrays.asList(
+        "CURRENT_PORTFOLIO AXIS_BLUECHIP ICICI_PRU_BLUECHIP",
+        "CALCULATE_OVERLAP AXIS_BLUECHIP");
+
+    @TempDir
+    Path tempDir;
+
+    private JsonFundRepository universe;
+
+    @BeforeEach
+    void setUp() {
+        String stockDataPath = getClass().getClassLoader().getResource("stock_data.json").getPath();
+        universe = new JsonFundRepository(stockDataPath);
+    }
+
+    @Test
+    @DisplayName("Should isolate ADD_STOCK between files sharing one universe")
+    void shouldIsolateSessions() throws IOException, InterruptedException {
+        // Given
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Path input = tempDir.resolve("input" + i + ".txt");
+            Files.write(input, i % 2 == 0 ? ADDS_STOCK : READS_ONLY);
+            inputs.add(input);
+        }
+        Path outputDirectory = tempDir.resolve("out");
+        BatchRunner runner = new BatchRunner(universe, LaunchOptions.parse(new String[]{"--batch", "--workers", "3", "x"}));
+
+        // When
+        int failures = runner.run(inputs, outputDirectory);
+
+        // Then
+        assertEquals(0, failures);
+        List<String> added = Files.readAllLines(outputDirectory.resolve("input0.txt.out"));
+        List<String> readOnly = Files.readAllLines(outputDirectory.resolve("input1.txt.out"));
+        assertEquals(runAlone(inputs.get(0)), added);
+        assertEquals(runAlone(inputs.get(1)), readOnly);
+        assertNotEquals(readOnly, added);
+        for (int i = 0; i < inputs.size(); i++) {
+            assertEquals(i % 2 == 0 ? added : readOnly,
+                Files.readAllLines(outputDirectory.resolve("input" + i + ".txt.out")));
+        }
+    }
+
+    private List<String> runAlone(Path input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Application application = new Application(universe, new OverlapCalculator(), new PrintStream(output, true));
+        application.run(input.toString());
+        return Arrays.asList(output.toString().split(System.lineSeparator()));
+    }
+
+    @Test
+    @DisplayName("Should count a missing input as a failure without stopping the others")
+    void shouldReportFailedFiles() throws IOException, InterruptedException {
+        // Given
+        Path input = tempDir.resolve("present.txt");
+        Files.write(input, READS_ONLY);
+        BatchRunner runner = new BatchRunner(universe, LaunchOptions.parse(new String[]{"--batch", "x"}));
+
+        // When
+        int failures = runner.run(Arrays.asList(tempDir.resolve("missing.txt"), input), null);
+
+        // Then
+        assertEquals(1, failures);
+        assertTrue(Files.exists(tempDir.resolve("present.txt.out")));
+    }
+
+    @Test
+    @DisplayName("Should expand directories and globs in order, skipping earlier outputs")
+    void shouldExpandDirectoriesAndGlobs() throws IOException {
+        // Given
+        Path directory = Files.createDirectory(tempDir.resolve("inputs"));
+        for (String name : Arrays.asList("b.txt", "a.txt", "a.txt.out", "c.cmd")) {
+            Files.write(directory.resolve(name), READS_ONLY);
+        }
+
+        // When
+        List<Path> fromDirectory = BatchRunner.expandInputs(Collections.singletonList(directory.toString()));
+        List<Path> fromGlob = BatchRunner.expandInputs(Arrays.asList(
+            directory.resolve("*.txt").toString(), directory.resolve("c.cmd").toString()));
+
+        // Then
+        assertEquals(Arrays.asList(directory.resolve("a.txt"), directory.resolve("b.txt"), directory.resolve("c.cmd")),
+            fromDirectory);
+        assertEquals(fromDirectory, fromGlob);
+        assertThrows(IllegalArgumentException.class,
+            () -> BatchRunner.expandInputs(Collections.singletonList(directory.resolve("*.none").toString())));
+    }
+}
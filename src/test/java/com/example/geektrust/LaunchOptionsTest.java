@@ -0,0 +1,104 @@
+package com.example.geektrust;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LaunchOptionsTest {
+
+    @Test
+    @DisplayName("Should parse input file path")
+    void shouldParseInputFilePath() {
+        LaunchOptions options = LaunchOptions.parse(new String[]{"input.txt"});
+
+        assertEquals("input.txt", options.getInputFilePath());
+        assertFalse(options.isPipelined());
+    }
+
+    @Test
+    @DisplayName("Should parse pipeline flag")
+    void shouldParsePipelineFlag() {
+        LaunchOptions options = LaunchOptions.parse(new String[]{"--pipeline", "input.txt"});
+
+        assertEquals("input.txt", options.getInputFilePath());
+        assertTrue(options.isPipelined());
+        assertFalse(options.isMemoised());
+        assertTrue(LaunchOptions.parse(new String[]{"--memoise", "input.txt"}).isMemoised());
+        assertEquals(4, LaunchOptions.parse(new String[]{"--parse-threads", "4", "input.txt"}).getParseThreadCount());
+        assertThrows(IllegalArgumentException.class,
+            () -> LaunchOptions.parse(new String[]{"--pipeline", "--parse-threads", "4", "input.txt"}));
+    }
+
+    @Test
+    @DisplayName("Should parse off-heap flag")
+    void shouldParseOffHeapFlag() {
+        LaunchOptions options = LaunchOptions.parse(new String[]{"input.txt", "--off-heap"});
+
+        assertEquals("input.txt", options.getInputFilePath());
+        assertTrue(options.isOffHeap());
+        assertFalse(options.isPipelined());
+    }
+
+    @Test
+    @DisplayName("Should parse lazy flag and reject it together with off-heap")
+    void shouldParseLazyFlag() {
+        LaunchOptions options = LaunchOptions.parse(new String[]{"--lazy", "input.txt"});
+
+        assertTrue(options.isLazy());
+        assertFalse(options.isOffHeap());
+        assertThrows(IllegalArgumentException.class,
+            () -> LaunchOptions.parse(new String[]{"--lazy", "--off-heap", "input.txt"}));
+    }
+
+    @Test
+    @DisplayName("Should parse shared universe path")
+    void shouldParseSharedUniversePath() {
+        LaunchOptions options = LaunchOptions.parse(new String[]{"--shared-universe", "/tmp/universe.bin", "input.txt"});
+
+        assertEquals("/tmp/universe.bin", options.getSharedUniversePath());
+        assertEquals("input.txt", options.getInputFilePath());
+        assertThrows(IllegalArgumentException.class,
+            () -> LaunchOptions.parse(new String[]{"input.txt", "--shared-universe"}));
+        assertThrows(IllegalArgumentException.class,
+            () -> LaunchOptions.parse(new String[]{"--shared-universe", "/tmp/universe.bin", "--lazy", "input.txt"}));
+    }
+
+    @Test
+    @DisplayName("Should accept several inputs and worker options only in batch mode")
+    void shouldParseBatchOptions() {
+        LaunchOptions options = LaunchOptions.parse(new String[]{
+            "a.txt", "--batch", "--workers", "4", "--output-dir", "out", "b.txt", "inputs/*.txt"});
+
+        assertTrue(options.isBatch());
+        assertEquals(Arrays.asList("a.txt", "b.txt", "inputs/*.txt"), options.getInputPaths());
+        assertEquals(4, options.getWorkerCount());
+        assertEquals("out", options.getOutputDirectory());
+        assertThrows(IllegalArgumentException.class,
+            () -> LaunchOptions.parse(new String[]{"--workers", "2", "a.txt"}));
+    }
+
+    @Test
+    @DisplayName("Should parse partition and shard options")
+    void shouldParsePartitionAndShardOptions() {
+        LaunchOptions partitioned = LaunchOptions.parse(new String[]{"--partitions", "4", "input.txt"});
+        LaunchOptions sharded = LaunchOptions.parse(new String[]{"--shards", "a:1,b:2", "input.txt"});
+
+        assertEquals(4, partitioned.getPartitionCount());
+        assertEquals(Arrays.asList("a:1", "b:2"), sharded.getShardAddresses());
+        assertThrows(IllegalArgumentException.class,
+            () -> LaunchOptions.parse(new String[]{"--partitions", "0", "input.txt"}));
+        assertThrows(IllegalArgumentException.class,
+            () -> LaunchOptions.parse(new String[]{"--partitions", "2", "--shards", "a:1", "input.txt"}));
+    }
+
+    @Test
+    @DisplayName("Should reject missing, extra and unknown arguments")
+    void shouldRejectMissingExtraAndUnknownArguments() {
+        assertThrows(IllegalArgumentException.class, () -> LaunchOptions.parse(new String[]{}));
+        assertThrows(IllegalArgumentException.class, () -> LaunchOptions.parse(new String[]{"a.txt", "b.txt"}));
+        assertThrows(IllegalArgumentException.class, () -> LaunchOptions.parse(new String[]{"--unknown", "a.txt"}));
+    }
+}
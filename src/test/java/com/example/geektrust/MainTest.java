@@ -1,4 +1,59 @@
 package com.example.geektrust;
 
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 public class MainTest {
-}
\ No newline at end of file
+
+    private final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+    private PrintStream originalErr;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void captureStandardError() {
+        originalErr = System.err;
+        System.setErr(new PrintStream(errors, true));
+    }
+
+    @AfterEach
+    void restoreStandardError() {
+        System.setErr(originalErr);
+    }
+
+    @Test
+    @DisplayName("Should explain why the options were rejected before printing usage")
+    void shouldPrintParseErrorBeforeUsage() {
+        // When
+        int status = Main.run(new String[]{"--bogus", "input.txt"});
+
+        // Then
+        String[] lines = errors.toString().split("\\R");
+        assertEquals(1, status);
+        assertEquals("Error: Unknown option: --bogus", lines[0]);
+        assertTrue(lines[1].startsWith("Usage:"));
+    }
+
+    @Test
+    @DisplayName("Should print the startup profile even when the run fails")
+    void shouldPrintStartupProfileOnFailure() {
+        // When
+        int status = Main.run(new String[]{"--startup-profile", tempDir.resolve("missing.txt").toString()});
+
+        // Then
+        String output = errors.toString();
+        assertEquals(1, status);
+        assertTrue(output.contains("Error: "), output);
+        assertTrue(output.contains("[startup] total in main"), output);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.geektrust;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupProfileTest {
+
+    @Test
+    @DisplayName("Should record phases in order and print one line per phase")
+    void shouldRecordAndPrintPhases() {
+        // Given
+        StartupProfile profile = StartupProfile.start();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        profile.mark("repository load");
+        profile.mark("handler wiring");
+        profile.print(new PrintStream(output, true));
+
+        // Then
+        assertEquals(Arrays.asList(StartupProfile.JVM_TO_MAIN, "repository load", "handler wiring"), profile.getPhases());
+        String[] lines = output.toString().trim().split("\\R");
+        assertEquals(4, lines.length);
+        assertTrue(lines[1].startsWith("[startup] repository load"));
+        assertTrue(lines[3].contains("total in main"));
+    }
+}
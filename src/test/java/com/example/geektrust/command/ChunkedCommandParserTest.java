@@ -0,0 +1,82 @@
+package com.example.geektrust.command;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedCommandParserTest {
+
+    private static final ByteNameTable NAMES = ByteNameTable.of(Arrays.asList("AXIS_BLUECHIP", "ICICI_PRU_BLUECHIP"));
+    private static final List<String> LINES = Arrays.asList(
+        "CURRENT_PORTFOLIO AXIS_BLUECHIP ICICI_PRU_BLUECHIP",
+        "CALCULATE_OVERLAP AXIS_BLUECHIP",
+        "",
+        "BAD_COMMAND",
+        "ADD_STOCK ICICI_PRU_BLUECHIP HDFC BANK LIMITED",
+        "TOP_OVERLAP AXIS_BLUECHIP 2");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should return every line in file order for any chunk size and line break")
+    void shouldPreserveLineOrderAcrossChunks() throws IOException {
+        CommandParser lineParser = new CommandParser();
+        for (String separator : Arrays.asList("\n", "\r\n", "\r")) {
+            // Given
+            Path file = tempDir.resolve("commands.txt");
+            Files.write(file, (String.join(separator, LINES) + separator).getBytes(StandardCharsets.UTF_8));
+            List<String> expectedLines = Files.readAllLines(file);
+
+            for (long chunkSize = 1; chunkSize <= 64; chunkSize++) {
+                // When
+                List<ParseResult> results = new ArrayList<>();
+                List<String> failedLines = new ArrayList<>();
+                try (ChunkedCommandParser parser = new ChunkedCommandParser(
+                        FileChannel.open(file, StandardOpenOption.READ), NAMES, 3, chunkSize)) {
+                    ChunkedCommandParser.ParsedChunk chunk;
+                    while ((chunk = parser.next()) != null) {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            results.add(chunk.get(i));
+                            failedLines.add(chunk.failedLine(i));
+                        }
+                    }
+                }
+
+                // Then
+                assertEquals(expectedLines.size(), results.size(), "chunk size " + chunkSize);
+                for (int i = 0; i < results.size(); i++) {
+                    ParseResult expected = lineParser.tryParse(expectedLines.get(i));
+                    assertEquals(expected.getCommand(), results.get(i).getCommand());
+                    assertEquals(expected.getErrorMessage(), results.get(i).getErrorMessage());
+                    assertEquals(expected.isSuccess() ? null : expectedLines.get(i), failedLines.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should return nothing for an empty file")
+    void shouldHandleEmptyFile() throws IOException {
+        // Given
+        Path file = Files.write(tempDir.resolve("empty.txt"), Collections.<String>emptyList());
+
+        // When & Then
+        try (ChunkedCommandParser parser = ChunkedCommandParser.open(file, NAMES, 2)) {
+            assertNull(parser.next());
+        }
+    }
+}
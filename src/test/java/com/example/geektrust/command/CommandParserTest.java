@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.BeforeEach;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -50,6 +51,84 @@ class CommandParserTest {
         assertEquals("MIRAE_ASSET_EMERGING_BLUECHIP", command.getArgument(0));
     }
 
+    @Test
+    @DisplayName("Should parse CALCULATE_WEIGHTED_OVERLAP with fund name")
+    void shouldParseCalculateWeightedOverlapWithFundName() throws InvalidCommandException {
+        ParsedCommand command = parser.parse("CALCULATE_WEIGHTED_OVERLAP AXIS_BLUECHIP");
+        
+        assertEquals(CommandType.CALCULATE_WEIGHTED_OVERLAP, command.getCommandType());
+        assertEquals(1, command.getArgumentCount());
+        assertEquals("AXIS_BLUECHIP", command.getArgument(0));
+        assertThrows(InvalidCommandException.class, () -> parser.parse("CALCULATE_WEIGHTED_OVERLAP"));
+    }
+
+    @Test
+    @DisplayName("Should parse CALCULATE_SIMILARITY with fund name and metrics")
+    void shouldParseCalculateSimilarityWithFundNameAndMetrics() throws InvalidCommandException {
+        ParsedCommand command = parser.parse("CALCULATE_SIMILARITY AXIS_BLUECHIP JACCARD COSINE");
+        
+        assertEquals(CommandType.CALCULATE_SIMILARITY, command.getCommandType());
+        assertEquals(3, command.getArgumentCount());
+        assertEquals("COSINE", command.getArgument(2));
+        assertThrows(InvalidCommandException.class, () -> parser.parse("CALCULATE_SIMILARITY AXIS_BLUECHIP"));
+    }
+
+    @Test
+    @DisplayName("Should parse TOP_OVERLAP with count and optional minimum percentage")
+    void shouldParseTopOverlap() throws InvalidCommandException {
+        ParsedCommand command = parser.parse("TOP_OVERLAP AXIS_BLUECHIP 5 37.5");
+        
+        assertEquals(CommandType.TOP_OVERLAP, command.getCommandType());
+        assertEquals(Arrays.asList("AXIS_BLUECHIP", "5", "37.5"), command.getArguments());
+        assertEquals(2, parser.parse("TOP_OVERLAP AXIS_BLUECHIP 5").getArgumentCount());
+        assertThrows(InvalidCommandException.class, () -> parser.parse("TOP_OVERLAP AXIS_BLUECHIP"));
+        assertThrows(InvalidCommandException.class, () -> parser.parse("TOP_OVERLAP AXIS_BLUECHIP 0"));
+        assertThrows(InvalidCommandException.class, () -> parser.parse("TOP_OVERLAP AXIS_BLUECHIP five"));
+        assertThrows(InvalidCommandException.class, () -> parser.parse("TOP_OVERLAP AXIS_BLUECHIP 5 NaN"));
+        assertThrows(InvalidCommandException.class, () -> parser.parse("TOP_OVERLAP AXIS_BLUECHIP 5 10 20"));
+    }
+
+    @Test
+    @DisplayName("Should parse ADD_STOCKS into one argument per addition")
+    void shouldParseAddStocks() throws InvalidCommandException {
+        ParsedCommand command = parser.parse("ADD_STOCKS AXIS_BLUECHIP HDFC BANK LIMITED; ICICI_PRU_BLUECHIP  TCS ;");
+        
+        assertEquals(CommandType.ADD_STOCKS, command.getCommandType());
+        assertEquals(Arrays.asList("AXIS_BLUECHIP HDFC BANK LIMITED", "ICICI_PRU_BLUECHIP  TCS"), command.getArguments());
+        assertArrayEquals(new String[]{"ICICI_PRU_BLUECHIP", "TCS"}, CommandParser.splitAddition(command.getArgument(1)));
+        assertThrows(InvalidCommandException.class, () -> parser.parse("ADD_STOCKS"));
+        assertThrows(InvalidCommandException.class, () -> parser.parse("ADD_STOCKS ; ;"));
+        assertThrows(InvalidCommandException.class, () -> parser.parse("ADD_STOCKS AXIS_BLUECHIP TCS; ICICI_PRU_BLUECHIP"));
+    }
+
+    @Test
+    @DisplayName("Should parse FORK and ROLLBACK without arguments")
+    void shouldParseForkAndRollback() throws InvalidCommandException {
+        assertEquals(CommandType.FORK, parser.parse("FORK").getCommandType());
+        assertEquals(0, parser.parse("ROLLBACK").getArgumentCount());
+        assertThrows(InvalidCommandException.class, () -> parser.parse("FORK AXIS_BLUECHIP"));
+        assertThrows(InvalidCommandException.class, () -> parser.parse("ROLLBACK 1"));
+    }
+
+    @Test
+    @DisplayName("Should report invalid lines through tryParse without throwing")
+    void shouldReportInvalidLinesWithoutThrowing() {
+        ParseResult unknown = parser.tryParse("UNKNOWN_COMMAND AXIS_BLUECHIP");
+        ParseResult missingArgs = parser.tryParse("ADD_STOCK AXIS_BLUECHIP");
+        ParseResult valid = parser.tryParse("TOP_OVERLAP AXIS_BLUECHIP +05 -1.5e1");
+        
+        assertFalse(unknown.isSuccess());
+        assertNull(unknown.getCommand());
+        assertEquals("Unknown command: UNKNOWN_COMMAND", unknown.getErrorMessage());
+        assertFalse(missingArgs.isSuccess());
+        assertFalse(parser.tryParse("   ").isSuccess());
+        assertFalse(parser.tryParse(null).isSuccess());
+        assertFalse(parser.tryParse("TOP_OVERLAP AXIS_BLUECHIP 9999999999").isSuccess());
+        assertTrue(valid.isSuccess());
+        assertNull(valid.getErrorMessage());
+        assertEquals(CommandType.TOP_OVERLAP, valid.getCommand().getCommandType());
+    }
+
     @Test
     @DisplayName("Should parse ADD_STOCK with simple stock name")
     void shouldParseAddStockWithSimpleStockName() throws InvalidCommandException {
@@ -0,0 +1,119 @@
+package com.example.geektrust.command;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedCommandReaderTest {
+
+    private static final ByteNameTable NAMES = ByteNameTable.of(Arrays.asList("AXIS_BLUECHIP", "ICICI_PRU_BLUECHIP", "JACCARD"));
+    private static final String[] LINES = {
+        "CURRENT_PORTFOLIO AXIS_BLUECHIP  ICICI_PRU_BLUECHIP\tUNKNOWN_FUND",
+        "  CALCULATE_OVERLAP   AXIS_BLUECHIP  ",
+        "CALCULATE_OVERLAP FUND WITH SPACES",
+        "ADD_STOCK AXIS_BLUECHIP  HDFC BANK LIMITED",
+        "ADD_STOCK AXIS_BLUECHIP",
+        "ADD_STOCK AXIS_BLUECHIP \u0001ODD",
+        "ADD_STOCKS AXIS_BLUECHIP HDFC BANK LIMITED ;JACCARD  TCS;; ",
+        "ADD_STOCKS AXIS_BLUECHIP",
+        "CALCULATE_SIMILARITY AXIS_BLUECHIP JACCARD COSINE",
+        "TOP_OVERLAP AXIS_BLUECHIP 3 12.5",
+        "TOP_OVERLAP AXIS_BLUECHIP three",
+        "",
+        "   ",
+        "UNKNOWN_COMMAND AXIS_BLUECHIP",
+        "CURRENT_PORTFOLIO",
+        "CALCULATE_OVERLAP ÉQUITÉ_FUND"
+    };
+
+    @TempDir
+    Path tempDir;
+
+    private Path write(String content) throws IOException {
+        Path file = tempDir.resolve("commands.txt");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private void assertSameAsLineParser(Path file, long windowSize) throws IOException {
+        CommandParser parser = new CommandParser();
+        List<String> lines = Files.readAllLines(file);
+        List<String> mappedLines = new ArrayList<>();
+        try (MappedCommandReader reader = new MappedCommandReader(
+                FileChannel.open(file, StandardOpenOption.READ), NAMES, windowSize)) {
+            ParseResult mapped;
+            while ((mapped = reader.next()) != null) {
+                ParseResult expected = parser.tryParse(lines.get(mappedLines.size()));
+                mappedLines.add(reader.currentLine());
+                assertEquals(expected.isSuccess(), mapped.isSuccess(), reader.currentLine());
+                assertEquals(expected.getCommand(), mapped.getCommand());
+                assertEquals(expected.getErrorMessage(), mapped.getErrorMessage());
+            }
+        }
+        assertEquals(lines, mappedLines);
+    }
+
+    @Test
+    @DisplayName("Should split and parse lines exactly like readAllLines and CommandParser")
+    void shouldMatchLineParser() throws IOException {
+        for (String separator : Arrays.asList("\n", "\r\n", "\r")) {
+            // Given
+            Path file = write(String.join(separator, LINES) + separator);
+
+            // When & Then
+            assertSameAsLineParser(file, 1L << 20);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep lines intact across small mapping windows")
+    void shouldHandleWindowBoundaries() throws IOException {
+        for (String separator : Arrays.asList("\n", "\r\n", "\r")) {
+            // Given
+            Path file = write(String.join(separator, LINES));
+
+            // When & Then
+            for (long windowSize = 70; windowSize < 90; windowSize++) {
+                assertSameAsLineParser(file, windowSize);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should return known names without decoding and reject over-long lines")
+    void shouldReuseKnownNames() throws IOException {
+        // Given
+        Path file = write("CALCULATE_OVERLAP AXIS_BLUECHIP\n");
+        String known = NAMES.find(ByteBuffer.wrap("AXIS_BLUECHIP".getBytes(StandardCharsets.UTF_8)), 0, 13);
+
+        // When
+        ParseResult result;
+        try (MappedCommandReader reader = MappedCommandReader.open(file, NAMES)) {
+            result = reader.next();
+            assertNull(reader.next());
+        }
+
+        // Then
+        assertSame(known, result.getCommand().getArgument(0));
+        Path longLine = write(LINES[0] + "\n" + LINES[1]);
+        assertThrows(IOException.class, () -> {
+            try (MappedCommandReader reader = new MappedCommandReader(
+                    FileChannel.open(longLine, StandardOpenOption.READ), NAMES, 10)) {
+                reader.next();
+            }
+        });
+    }
+}
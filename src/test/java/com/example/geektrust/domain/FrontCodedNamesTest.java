@@ -0,0 +1,103 @@
+package com.example.geektrust.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrontCodedNamesTest {
+
+    @Test
+    @DisplayName("Should decode and find every name at its sorted position")
+    void shouldDecodeAndFindEveryName() {
+        // Given
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            names.add("COMPANY " + (i * 7919 % 1000) + (i % 3 == 0 ? " BANK LIMITED" : " LIMITED"));
+        }
+        names.add("");
+        names.add("ÉCLAIR HOLDINGS");
+        names.add("ZETA");
+        List<String> sorted = new ArrayList<>(names);
+        sorted.sort((a, b) -> compareUtf8(a, b));
+
+        // When
+        FrontCodedNames packed = FrontCodedNames.of(names);
+
+        // Then
+        assertEquals(sorted.size(), packed.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(sorted.get(i), packed.get(i));
+            assertEquals(i, packed.indexOf(sorted.get(i).getBytes(StandardCharsets.UTF_8)));
+        }
+        assertEquals(-1, packed.indexOf(bytes("COMPANY 0 LIMITE")));
+        assertEquals(-1, packed.indexOf(bytes("ZETA ")));
+        assertEquals(-1, packed.indexOf(bytes("ZZZ")));
+        assertThrows(IndexOutOfBoundsException.class, () -> packed.get(sorted.size()));
+    }
+
+    @Test
+    @DisplayName("Should drop duplicates and pack shared prefixes")
+    void shouldPackSharedPrefixes() {
+        // Given
+        List<String> names = new ArrayList<>();
+        int rawBytes = 0;
+        for (int i = 0; i < 1000; i++) {
+            String name = String.format("HOUSING DEVELOPMENT FINANCE CORPORATION %04d LIMITED", i);
+            names.add(name);
+            rawBytes += name.length();
+        }
+        names.addAll(names.subList(0, 10));
+
+        // When
+        FrontCodedNames packed = FrontCodedNames.of(names);
+
+        // Then
+        assertEquals(1000, packed.size());
+        assertTrue(packed.packedSize() * 3 < rawBytes, "packed " + packed.packedSize() + " of " + rawBytes);
+        assertEquals(0, FrontCodedNames.of(Collections.emptyList()).size());
+        assertEquals(-1, FrontCodedNames.of(Collections.emptyList()).indexOf(bytes("A")));
+        assertEquals(1, FrontCodedNames.of(Arrays.asList("A", "A")).size());
+    }
+
+    @Test
+    @DisplayName("Should miss names that only share a prefix with a packed name")
+    void shouldMissNearNames() {
+        // Given
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            names.add(String.format("STOCK %03d", i * 2));
+        }
+        FrontCodedNames packed = FrontCodedNames.of(names);
+
+        // When / Then
+        for (int i = 0; i < 200; i++) {
+            String name = String.format("STOCK %03d", i);
+            assertEquals(i % 2 == 0 ? i / 2 : -1, packed.indexOf(bytes(name)), name);
+            assertEquals(-1, packed.indexOf(bytes(name + " ")), name);
+            assertEquals(-1, packed.indexOf(bytes(name.substring(0, 8))), name);
+        }
+    }
+
+    private static byte[] bytes(String name) {
+        return name.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int compareUtf8(String first, String second) {
+        byte[] a = bytes(first);
+        byte[] b = bytes(second);
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            int difference = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return a.length - b.length;
+    }
+}
@@ -3,7 +3,10 @@ package com.example.geektrust.domain;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -221,4 +224,131 @@ class FundTest {
         assertTrue(toString.contains("TEST_FUND"));
         assertTrue(toString.contains("STOCK1"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should expose sorted stock ids from the shared dictionary")
+    void shouldExposeSortedStockIdsFromSharedDictionary() {
+        Set<String> stocks = new HashSet<>();
+        stocks.add("STOCK_ID_B");
+        stocks.add("STOCK_ID_A");
+
+        Fund fund = new Fund("TEST_FUND", stocks);
+        int[] ids = fund.getStockIds();
+
+        assertEquals(2, ids.length);
+        assertTrue(ids[0] < ids[1]);
+        StockDictionary dictionary = StockDictionary.shared();
+        assertEquals(stocks, new HashSet<>(Arrays.asList(dictionary.nameOf(ids[0]), dictionary.nameOf(ids[1]))));
+    }
+
+    @Test
+    @DisplayName("Should reject null stock names")
+    void shouldRejectNullStockNames() {
+        Set<String> stocks = new HashSet<>();
+        stocks.add(null);
+
+        assertThrows(IllegalArgumentException.class, () -> new Fund("TEST_FUND", stocks));
+    }
+
+    @Test
+    @DisplayName("Should store weights parallel to sorted stock ids")
+    void shouldStoreWeightsParallelToSortedStockIds() {
+        Fund fund = new Fund("WEIGHTED_FUND", new String[]{"W_STOCK_B", "W_STOCK_A", "W_STOCK_B"}, new double[]{10, 30, 5});
+
+        assertTrue(fund.isWeighted());
+        assertEquals(2, fund.getStockCount());
+        StockDictionary dictionary = StockDictionary.shared();
+        int[] ids = fund.getStockIds();
+        for (int i = 0; i < ids.length; i++) {
+            double expected = dictionary.nameOf(ids[i]).equals("W_STOCK_A") ? 30 : 15;
+            assertEquals(expected, fund.getStockWeights()[i], 0.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject invalid weights")
+    void shouldRejectInvalidWeights() {
+        assertThrows(IllegalArgumentException.class, () ->
+            new Fund("FUND", new String[]{"A"}, new double[]{-1}));
+        assertThrows(IllegalArgumentException.class, () ->
+            new Fund("FUND", new String[]{"A"}, new double[]{Double.NaN}));
+        assertThrows(IllegalArgumentException.class, () ->
+            new Fund("FUND", new String[]{"A", "B"}, new double[]{1}));
+    }
+
+    @Test
+    @DisplayName("Should add stock while keeping existing weights")
+    void shouldAddStockWhileKeepingExistingWeights() {
+        Fund weighted = new Fund("FUND", new String[]{"A", "B"}, new double[]{60, 40});
+        Fund plain = new Fund("FUND", new HashSet<>(Arrays.asList("A", "B")));
+
+        Fund extendedWeighted = weighted.withStock("C");
+        Fund extendedPlain = plain.withStock("C");
+
+        assertTrue(extendedWeighted.isWeighted());
+        assertEquals(3, extendedWeighted.getStockCount());
+        assertEquals(100.0, Arrays.stream(extendedWeighted.getStockWeights()).sum(), 0.0001);
+        assertFalse(extendedPlain.isWeighted());
+        assertEquals(3, extendedPlain.getStockCount());
+        assertEquals(100.0 / 3, extendedPlain.getStockWeights()[0], 0.0001);
+        assertSame(weighted, weighted.withStock("A"));
+        assertSame(plain, plain.withStock("B"));
+    }
+
+    @Test
+    @DisplayName("Should add many stocks in one merge exactly as repeated withStock would")
+    void shouldAddManyStocksLikeRepeatedWithStock() {
+        Fund weighted = new Fund("FUND", new String[]{"B", "D"}, new double[]{60, 40});
+        Fund plain = new Fund("FUND", new HashSet<>(Arrays.asList("B", "D")));
+        List<String> added = Arrays.asList("E", "A", "B", "C", "A");
+
+        Fund bulkWeighted = weighted.withStocks(added);
+        Fund bulkPlain = plain.withStocks(added);
+
+        Fund stepWeighted = weighted;
+        Fund stepPlain = plain;
+        for (String stock : added) {
+            stepWeighted = stepWeighted.withStock(stock);
+            stepPlain = stepPlain.withStock(stock);
+        }
+        assertEquals(stepWeighted, bulkWeighted);
+        assertArrayEquals(stepWeighted.getStockWeights(), bulkWeighted.getStockWeights(), 0.0);
+        assertEquals(stepPlain, bulkPlain);
+        assertArrayEquals(stepPlain.getStockWeights(), bulkPlain.getStockWeights(), 0.0);
+        assertEquals(5, bulkPlain.getStockCount());
+        assertSame(plain, plain.withStocks(Arrays.asList("D", "B")));
+        assertThrows(IllegalArgumentException.class, () -> plain.withStocks(Arrays.asList("A", null)));
+    }
+
+    @Test
+    @DisplayName("Should keep a stock bitmap only for funds with dense chunks")
+    void shouldCacheStockBitmapOnlyForDenseFunds() {
+        Fund small = new Fund("SMALL_FUND", new String[]{"BITMAP_STOCK_A", "BITMAP_STOCK_B"}, new double[]{50, 50});
+        // Consecutive ids: at least one 64K chunk holds more than ARRAY_CHUNK_MAX of them
+        Fund dense = new Fund("DENSE_FUND", new HashSet<>(bitmapStocks("DENSE_STOCK_", 2 * StockBitmap.ARRAY_CHUNK_MAX + 1, 1)));
+        // Every 16th id: no 64K chunk can hold more than ARRAY_CHUNK_MAX of them
+        Fund spread = new Fund("SPREAD_FUND", new HashSet<>(bitmapStocks("SPREAD_STOCK_", StockBitmap.ARRAY_CHUNK_MAX + 100, 16)));
+
+        assertFalse(small.hasDenseStockChunks());
+        assertNotSame(small.getStockBitmap(), small.getStockBitmap());
+        assertEquals(2, small.getStockBitmap().cardinality());
+        assertTrue(dense.hasDenseStockChunks());
+        assertSame(dense.getStockBitmap(), dense.getStockBitmap());
+        assertEquals(dense.getStockCount(), dense.getStockBitmap().cardinality());
+        assertFalse(spread.hasDenseStockChunks());
+        assertNotSame(spread.getStockBitmap(), spread.getStockBitmap());
+        assertEquals(spread.getStockCount(), spread.getStockBitmap().cardinality());
+    }
+
+    private static List<String> bitmapStocks(String prefix, int count, int stride) {
+        List<String> held = new ArrayList<>();
+        for (int i = 0; i < count * stride; i++) {
+            String stock = prefix + i;
+            StockDictionary.shared().idOf(stock);
+            if (i % stride == 0) {
+                held.add(stock);
+            }
+        }
+        return held;
+    }
+}
@@ -6,6 +6,8 @@ import org.junit.jupiter.api.BeforeEach;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -43,6 +45,24 @@ class PortfolioTest {
         assertEquals("FUND2", retrievedFundNames.get(1));
     }
 
+    @Test
+    @DisplayName("Should bump the version on every change")
+    void shouldBumpVersionOnEveryChange() {
+        long initial = portfolio.getVersion();
+        Fund fund = new Fund("FUND1", new HashSet<>(Arrays.asList("A")));
+
+        portfolio.setCurrentFundNames(Arrays.asList("FUND1"));
+        long named = portfolio.getVersion();
+        portfolio.setCurrentFunds(Arrays.asList(fund));
+        long resolved = portfolio.getVersion();
+        portfolio.replaceFund(fund.withStock("B"));
+        long replaced = portfolio.getVersion();
+        portfolio.clear();
+
+        assertTrue(initial < named && named < resolved && resolved < replaced);
+        assertTrue(replaced < portfolio.getVersion());
+    }
+
     @Test
     @DisplayName("Should preserve order of fund names")
     void shouldPreserveOrderOfFundNames() {
@@ -192,4 +212,83 @@ class PortfolioTest {
         assertTrue(toString.contains("Portfolio"));
         assertTrue(toString.contains("FUND1"));
     }
+
+    @Test
+    @DisplayName("Should return the same snapshot without copying")
+    void shouldReturnSameSnapshotWithoutCopying() {
+        portfolio.setCurrentFundNames(Arrays.asList("FUND1", "FUND2"));
+
+        assertSame(portfolio.getCurrentFundNames(), portfolio.getCurrentFundNames());
+        assertFalse(portfolio.hasResolvedFunds());
+        assertTrue(portfolio.getCurrentFunds().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should set and retrieve resolved funds")
+    void shouldSetAndRetrieveResolvedFunds() {
+        Fund fund1 = new Fund("FUND1", Collections.singleton("STOCK1"));
+        Fund fund2 = new Fund("FUND2", Collections.singleton("STOCK2"));
+
+        portfolio.setCurrentFunds(Arrays.asList(fund1, fund2));
+
+        assertTrue(portfolio.hasResolvedFunds());
+        assertEquals(Arrays.asList(fund1, fund2), portfolio.getCurrentFunds());
+        assertEquals(Arrays.asList("FUND1", "FUND2"), portfolio.getCurrentFundNames());
+        assertThrows(UnsupportedOperationException.class, () -> portfolio.getCurrentFunds().add(fund1));
+    }
+
+    @Test
+    @DisplayName("Should drop resolved funds when setting fund names")
+    void shouldDropResolvedFundsWhenSettingFundNames() {
+        portfolio.setCurrentFunds(Collections.singletonList(new Fund("FUND1", Collections.singleton("STOCK1"))));
+
+        portfolio.setCurrentFundNames(Collections.singletonList("FUND2"));
+
+        assertFalse(portfolio.hasResolvedFunds());
+        assertEquals(Collections.singletonList("FUND2"), portfolio.getCurrentFundNames());
+    }
+
+    @Test
+    @DisplayName("Should expose consistent snapshots to concurrent readers")
+    void shouldExposeConsistentSnapshotsToConcurrentReaders() throws InterruptedException {
+        List<String> small = Arrays.asList("A");
+        List<String> large = Arrays.asList("B", "C", "D");
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                portfolio.setCurrentFundNames(i % 2 == 0 ? small : large);
+            }
+        });
+        writer.start();
+
+        while (writer.isAlive()) {
+            List<String> names = portfolio.getCurrentFundNames();
+            assertTrue(names.isEmpty() || names.equals(small) || names.equals(large));
+        }
+        writer.join();
+    }
+
+    @Test
+    @DisplayName("Should replace resolved fund with the same name")
+    void shouldReplaceResolvedFundWithSameName() {
+        Fund fund1 = new Fund("FUND1", Collections.singleton("STOCK1"));
+        Fund fund2 = new Fund("FUND2", Collections.singleton("STOCK2"));
+        Fund updatedFund1 = new Fund("FUND1", new java.util.HashSet<>(Arrays.asList("STOCK1", "STOCK3")));
+        portfolio.setCurrentFunds(Arrays.asList(fund1, fund2));
+
+        portfolio.replaceFund(updatedFund1);
+        portfolio.replaceFund(new Fund("OTHER", Collections.singleton("STOCK4")));
+
+        assertEquals(Arrays.asList(updatedFund1, fund2), portfolio.getCurrentFunds());
+        assertEquals(Arrays.asList("FUND1", "FUND2"), portfolio.getCurrentFundNames());
+    }
+
+    @Test
+    @DisplayName("Should ignore replacement when funds are not resolved")
+    void shouldIgnoreReplacementWhenFundsAreNotResolved() {
+        portfolio.setCurrentFundNames(Arrays.asList("FUND1"));
+
+        portfolio.replaceFund(new Fund("FUND1", Collections.singleton("STOCK1")));
+
+        assertFalse(portfolio.hasResolvedFunds());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.example.geektrust.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockBitmapTest {
+
+    @Test
+    @DisplayName("Should hold sparse chunks as sorted runs and dense chunks as bitmaps")
+    void shouldChooseContainerPerChunk() {
+        // Given
+        int[] sparse = {3, 70_000, 140_001};
+        int[] dense = range(65_536, 65_536 + StockBitmap.ARRAY_CHUNK_MAX + 1);
+
+        // When
+        StockBitmap sparseBitmap = StockBitmap.of(sparse);
+        StockBitmap denseBitmap = StockBitmap.of(dense);
+
+        // Then
+        assertEquals(0, sparseBitmap.bitmapChunkCount());
+        assertEquals(1, denseBitmap.bitmapChunkCount());
+        assertEquals(3, sparseBitmap.cardinality());
+        assertTrue(sparseBitmap.contains(70_000));
+        assertFalse(sparseBitmap.contains(70_001));
+        assertFalse(sparseBitmap.contains(-1));
+        assertTrue(denseBitmap.contains(65_536 + StockBitmap.ARRAY_CHUNK_MAX));
+        assertFalse(denseBitmap.contains(3));
+    }
+
+    @Test
+    @DisplayName("Should count intersections like a sorted merge for every container pairing")
+    void shouldCountIntersections() {
+        // Given
+        Random random = new Random(46);
+        int[][] idSets = {
+            new int[0],
+            randomIds(random, 40, 300_000),
+            randomIds(random, 90, 3_000),
+            randomIds(random, 6_000, 70_000),
+            randomIds(random, 20_000, 200_000),
+            range(0, 2),
+        };
+
+        for (int[] ids1 : idSets) {
+            for (int[] ids2 : idSets) {
+                // When
+                StockBitmap bitmap1 = StockBitmap.of(ids1);
+                StockBitmap bitmap2 = StockBitmap.of(ids2);
+                int expected = mergeCount(ids1, ids2);
+
+                // Then
+                assertEquals(expected, bitmap1.intersectionCardinality(bitmap2));
+                assertEquals(expected, bitmap2.intersectionCardinality(bitmap1));
+                assertEquals(expected, bitmap1.densified().intersectionCardinality(bitmap2));
+                assertEquals(expected, bitmap1.intersectionCardinality(bitmap2.densified()));
+                assertEquals(expected, bitmap1.densified().intersectionCardinality(bitmap2.densified()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject ids that are negative, repeated or out of order")
+    void shouldRejectUnsortedIds() {
+        assertThrows(IllegalArgumentException.class, () -> StockBitmap.of(new int[]{-1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> StockBitmap.of(new int[]{2, 2}));
+        assertThrows(IllegalArgumentException.class, () -> StockBitmap.of(new int[]{70_000, 3}));
+        assertSame(StockBitmap.EMPTY, StockBitmap.of(new int[0]));
+    }
+
+    private static int[] range(int from, int to) {
+        int[] ids = new int[to - from];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = from + i;
+        }
+        return ids;
+    }
+
+    private static int[] randomIds(Random random, int count, int bound) {
+        TreeSet<Integer> ids = new TreeSet<>();
+        while (ids.size() < count) {
+            ids.add(random.nextInt(bound));
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int mergeCount(int[] ids1, int[] ids2) {
+        int common = 0;
+        int i = 0;
+        int j = 0;
+        while (i < ids1.length && j < ids2.length) {
+            if (ids1[i] < ids2[j]) {
+                i++;
+            } else if (ids1[i] > ids2[j]) {
+                j++;
+            } else {
+                common++;
+                i++;
+                j++;
+            }
+        }
+        return common;
+    }
+}
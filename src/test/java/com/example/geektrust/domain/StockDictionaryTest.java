@@ -0,0 +1,113 @@
+package com.example.geektrust.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockDictionaryTest {
+
+    private final StockDictionary dictionary = StockDictionary.shared();
+
+    @Test
+    @DisplayName("Should assign a stable id per stock name")
+    void shouldAssignStableIdPerStockName() {
+        int id = dictionary.idOf("DICTIONARY_STOCK_1");
+
+        assertEquals(id, dictionary.idOf("DICTIONARY_STOCK_1"));
+        assertEquals(id, dictionary.lookup("DICTIONARY_STOCK_1"));
+        assertEquals("DICTIONARY_STOCK_1", dictionary.nameOf(id));
+        assertNotEquals(id, dictionary.idOf("DICTIONARY_STOCK_2"));
+    }
+
+    @Test
+    @DisplayName("Should report unknown stocks without registering them")
+    void shouldReportUnknownStocksWithoutRegisteringThem() {
+        int sizeBefore = dictionary.size();
+
+        assertEquals(StockDictionary.UNKNOWN_STOCK, dictionary.lookup("NEVER_REGISTERED_STOCK"));
+        assertEquals(StockDictionary.UNKNOWN_STOCK, dictionary.lookup(null));
+        assertTrue(dictionary.size() >= sizeBefore);
+        assertThrows(IndexOutOfBoundsException.class, () -> dictionary.nameOf(-1));
+    }
+
+    @Test
+    @DisplayName("Should assign unique ids under concurrent registration")
+    void shouldAssignUniqueIdsUnderConcurrentRegistration() throws InterruptedException {
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    ids.add(dictionary.idOf("CONCURRENT_STOCK_" + i));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(2000, ids.size());
+        Set<String> names = new HashSet<>();
+        for (int id : ids) {
+            names.add(dictionary.nameOf(id));
+        }
+        assertEquals(2000, names.size());
+    }
+
+    @Test
+    @DisplayName("Should number bulk-registered names in sorted order and keep earlier ids")
+    void shouldRegisterNamesInBulk() {
+        int existing = dictionary.idOf("BULK_STOCK_B");
+        int sizeBefore = dictionary.size();
+
+        dictionary.registerAll(Arrays.asList("BULK_STOCK_C LIMITED", "BULK_STOCK_A LIMITED", "BULK_STOCK_B",
+            "BULK_STOCK_A LIMITED"));
+
+        int first = dictionary.lookup("BULK_STOCK_A LIMITED");
+        assertEquals(existing, dictionary.idOf("BULK_STOCK_B"));
+        assertTrue(first >= sizeBefore);
+        assertEquals(first + 1, dictionary.lookup("BULK_STOCK_C LIMITED"));
+        assertEquals(first + 1, dictionary.idOf("BULK_STOCK_C LIMITED"));
+        assertEquals("BULK_STOCK_C LIMITED", dictionary.nameOf(first + 1));
+        assertEquals(StockDictionary.UNKNOWN_STOCK, dictionary.lookup("BULK_STOCK_D LIMITED"));
+        assertThrows(IllegalArgumentException.class, () -> dictionary.registerAll(Arrays.asList("BULK_STOCK_E", null)));
+    }
+
+    @Test
+    @DisplayName("Should resolve single and bulk registrations interleaved")
+    void shouldResolveInterleavedRegistrations() {
+        int before = dictionary.idOf("INTERLEAVED_SINGLE_1");
+        dictionary.registerAll(Arrays.asList("INTERLEAVED_BULK_1", "INTERLEAVED_BULK_2"));
+        int after = dictionary.idOf("INTERLEAVED_SINGLE_2");
+
+        assertTrue(before < dictionary.lookup("INTERLEAVED_BULK_1"));
+        assertTrue(dictionary.lookup("INTERLEAVED_BULK_2") < after);
+        assertEquals("INTERLEAVED_SINGLE_1", dictionary.nameOf(before));
+        assertEquals("INTERLEAVED_BULK_2", dictionary.nameOf(dictionary.lookup("INTERLEAVED_BULK_2")));
+        assertEquals("INTERLEAVED_SINGLE_2", dictionary.nameOf(after));
+    }
+
+    @Test
+    @DisplayName("Should grow only by names it has not seen")
+    void shouldGrowOnlyByUnseenNames() {
+        String[] stocks = {"GROWTH_STOCK_A", "GROWTH_STOCK_B", "GROWTH_STOCK_C"};
+        dictionary.registerAll(Arrays.asList(stocks));
+        new Fund("GROWTH_FUND", stocks, new double[]{40, 30, 30}).withStock("GROWTH_STOCK_D");
+        int sizeAfterFirstLoad = dictionary.size();
+
+        for (int session = 0; session < 100; session++) {
+            dictionary.registerAll(Arrays.asList(stocks));
+            new Fund("GROWTH_FUND", stocks, new double[]{40, 30, 30}).withStock("GROWTH_STOCK_D");
+            dictionary.idOf("GROWTH_STOCK_A");
+        }
+
+        assertEquals(sizeAfterFirstLoad, dictionary.size());
+    }
+}
@@ -5,6 +5,7 @@ import com.example.geektrust.command.ParsedCommand;
 import com.example.geektrust.constants.ErrorMessages;
 import com.example.geektrust.domain.Portfolio;
 import com.example.geektrust.repository.JsonFundRepository;
+import com.example.geektrust.repository.ModifiableFundRepository;
 import com.example.geektrust.service.OverlapCalculator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -114,4 +115,44 @@ class CalculateOverlapCommandHandlerTest {
         assertEquals(1, result.getOutputs().size());
         assertTrue(result.getOutputs().get(0).contains("AXIS_BLUECHIP ICICI_PRU_BLUECHIP"));
     }
+
+    @Test
+    @DisplayName("Should render output identical to String.format")
+    void shouldRenderOutputIdenticalToStringFormat() {
+        // Given
+        portfolio.setCurrentFundNames(Arrays.asList("AXIS_BLUECHIP", "ICICI_PRU_BLUECHIP", "UTI_NIFTY_INDEX"));
+        ParsedCommand command = ParsedCommand.create(CommandType.CALCULATE_OVERLAP,
+            Arrays.asList("MIRAE_ASSET_EMERGING_BLUECHIP"));
+
+        // When
+        CommandResult result = handler.handle(command);
+
+        // Then
+        assertEquals(Arrays.asList(
+            "MIRAE_ASSET_EMERGING_BLUECHIP AXIS_BLUECHIP 39.13%",
+            "MIRAE_ASSET_EMERGING_BLUECHIP ICICI_PRU_BLUECHIP 38.10%",
+            "MIRAE_ASSET_EMERGING_BLUECHIP UTI_NIFTY_INDEX 65.52%"), result.getOutputs());
+    }
+
+    @Test
+    @DisplayName("Should refresh cached lines when repository version changes")
+    void shouldRefreshCachedLinesWhenRepositoryVersionChanges() {
+        // Given
+        ModifiableFundRepository modifiableRepository = new ModifiableFundRepository(fundRepository);
+        handler = new CalculateOverlapCommandHandler(portfolio, modifiableRepository, overlapCalculator);
+        portfolio.setCurrentFundNames(Arrays.asList("AXIS_BLUECHIP"));
+        ParsedCommand command = ParsedCommand.create(CommandType.CALCULATE_OVERLAP,
+            Arrays.asList("MIRAE_ASSET_EMERGING_BLUECHIP"));
+
+        // When
+        CommandResult first = handler.handle(command);
+        CommandResult cached = handler.handle(command);
+        modifiableRepository.addStockToFund("AXIS_BLUECHIP", "TCS_LT");
+        CommandResult refreshed = handler.handle(command);
+
+        // Then
+        assertEquals(Collections.singletonList("MIRAE_ASSET_EMERGING_BLUECHIP AXIS_BLUECHIP 39.13%"), first.getOutputs());
+        assertEquals(first.getOutputs(), cached.getOutputs());
+        assertEquals(Collections.singletonList("MIRAE_ASSET_EMERGING_BLUECHIP AXIS_BLUECHIP 38.71%"), refreshed.getOutputs());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.example.geektrust.handler;
+
+import com.example.geektrust.command.CommandType;
+import com.example.geektrust.command.ParsedCommand;
+import com.example.geektrust.constants.ErrorMessages;
+import com.example.geektrust.domain.Portfolio;
+import com.example.geektrust.repository.JsonFundRepository;
+import com.example.geektrust.service.OverlapCalculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalculateSimilarityCommandHandlerTest {
+
+    private CalculateSimilarityCommandHandler handler;
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        String stockDataPath = getClass().getClassLoader().getResource("stock_data.json").getPath();
+        JsonFundRepository fundRepository = new JsonFundRepository(stockDataPath);
+        portfolio = new Portfolio();
+        handler = new CalculateSimilarityCommandHandler(portfolio, fundRepository, new OverlapCalculator());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown metric")
+    void shouldRejectUnknownMetric() {
+        // When
+        CommandResult result = handler.handle(ParsedCommand.create(CommandType.CALCULATE_SIMILARITY,
+            Arrays.asList("AXIS_BLUECHIP", "EUCLIDEAN")));
+
+        // Then
+        assertFalse(result.isSuccess());
+        assertEquals(ErrorMessages.UNKNOWN_METRIC, result.getErrorMessage());
+    }
+
+    @Test
+    @DisplayName("Should return error when target fund does not exist")
+    void shouldReturnErrorWhenTargetFundDoesNotExist() {
+        // When
+        CommandResult result = handler.handle(ParsedCommand.create(CommandType.CALCULATE_SIMILARITY,
+            Arrays.asList("NON_EXISTENT_FUND", "JACCARD")));
+
+        // Then
+        assertEquals(ErrorMessages.FUND_NOT_FOUND, result.getErrorMessage());
+    }
+
+    @Test
+    @DisplayName("Should output each requested metric per portfolio fund")
+    void shouldOutputEachRequestedMetricPerPortfolioFund() {
+        // Given
+        portfolio.setCurrentFundNames(Arrays.asList("AXIS_BLUECHIP"));
+
+        // When
+        CommandResult result = handler.handle(ParsedCommand.create(CommandType.CALCULATE_SIMILARITY,
+            Arrays.asList("MIRAE_ASSET_EMERGING_BLUECHIP", "OVERLAP", "JACCARD")));
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getOutputs().size());
+        assertEquals("OVERLAP MIRAE_ASSET_EMERGING_BLUECHIP AXIS_BLUECHIP 39.13%", result.getOutputs().get(0));
+        assertTrue(result.getOutputs().get(1).startsWith("JACCARD MIRAE_ASSET_EMERGING_BLUECHIP AXIS_BLUECHIP "));
+    }
+}
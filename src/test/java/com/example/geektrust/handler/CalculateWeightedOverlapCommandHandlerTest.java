@@ -0,0 +1,61 @@
+package com.example.geektrust.handler;
+
+import com.example.geektrust.command.CommandType;
+import com.example.geektrust.command.ParsedCommand;
+import com.example.geektrust.constants.ErrorMessages;
+import com.example.geektrust.domain.Portfolio;
+import com.example.geektrust.repository.JsonFundRepository;
+import com.example.geektrust.service.OverlapCalculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalculateWeightedOverlapCommandHandlerTest {
+
+    private static final String JSON = "{\"funds\": [" +
+            "{\"name\": \"TARGET\", \"stocks\": [{\"name\": \"A\", \"weight\": 50}, {\"name\": \"B\", \"weight\": 50}]}," +
+            "{\"name\": \"FUND1\", \"stocks\": [{\"name\": \"A\", \"weight\": 20}, {\"name\": \"C\", \"weight\": 80}]}," +
+            "{\"name\": \"FUND2\", \"stocks\": [\"X\", \"Y\"]}]}";
+
+    private CalculateWeightedOverlapCommandHandler handler;
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        JsonFundRepository fundRepository = new JsonFundRepository(new ByteArrayInputStream(JSON.getBytes()));
+        portfolio = new Portfolio();
+        handler = new CalculateWeightedOverlapCommandHandler(portfolio, fundRepository, new OverlapCalculator());
+    }
+
+    @Test
+    @DisplayName("Should return error when target fund does not exist")
+    void shouldReturnErrorWhenTargetFundDoesNotExist() {
+        // When
+        CommandResult result = handler.handle(ParsedCommand.create(CommandType.CALCULATE_WEIGHTED_OVERLAP,
+            Arrays.asList("UNKNOWN")));
+
+        // Then
+        assertFalse(result.isSuccess());
+        assertEquals(ErrorMessages.FUND_NOT_FOUND, result.getErrorMessage());
+    }
+
+    @Test
+    @DisplayName("Should output weighted overlap and skip funds without overlap")
+    void shouldOutputWeightedOverlapAndSkipFundsWithoutOverlap() {
+        // Given
+        portfolio.setCurrentFundNames(Arrays.asList("FUND1", "FUND2"));
+
+        // When
+        CommandResult result = handler.handle(ParsedCommand.create(CommandType.CALCULATE_WEIGHTED_OVERLAP,
+            Arrays.asList("TARGET")));
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(Arrays.asList("TARGET FUND1 20.00%"), result.getOutputs());
+    }
+}
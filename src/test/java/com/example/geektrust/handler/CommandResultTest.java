@@ -195,4 +195,19 @@ class CommandResultTest {
         assertNull(result.getErrorMessage());
         assertTrue(result.getOutputs().isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should create result with several error messages")
+    void shouldCreateResultWithSeveralErrors() {
+        // When
+        CommandResult result = CommandResult.errors(Arrays.asList("FIRST", "SECOND"));
+
+        // Then
+        assertFalse(result.isSuccess());
+        assertFalse(result.hasOutput());
+        assertEquals("FIRST", result.getErrorMessage());
+        assertEquals(Arrays.asList("FIRST", "SECOND"), result.getErrorMessages());
+        assertEquals(Collections.singletonList("FIRST"), CommandResult.error("FIRST").getErrorMessages());
+        assertThrows(IllegalArgumentException.class, () -> CommandResult.errors(Collections.emptyList()));
+    }
+}
@@ -5,12 +5,16 @@ import com.example.geektrust.command.ParsedCommand;
 import com.example.geektrust.constants.ErrorMessages;
 import com.example.geektrust.domain.Fund;
 import com.example.geektrust.domain.Portfolio;
+import com.example.geektrust.repository.FundRepository;
 import com.example.geektrust.repository.JsonFundRepository;
+import com.example.geektrust.repository.ModifiableFundRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -77,4 +81,89 @@ class CurrentPortfolioCommandHandlerTest {
         assertEquals(1, portfolio.size());
         assertEquals("AXIS_BLUECHIP", portfolio.getCurrentFundNames().get(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should store resolved funds in portfolio")
+    void shouldStoreResolvedFundsInPortfolio() {
+        // Given
+        ParsedCommand command = ParsedCommand.create(CommandType.CURRENT_PORTFOLIO,
+            Arrays.asList("AXIS_BLUECHIP", "ICICI_PRU_BLUECHIP"));
+
+        // When
+        handler.handle(command);
+
+        // Then
+        assertTrue(portfolio.hasResolvedFunds());
+        assertEquals(Arrays.asList(
+            fundRepository.getFundByName("AXIS_BLUECHIP").get(),
+            fundRepository.getFundByName("ICICI_PRU_BLUECHIP").get()), portfolio.getCurrentFunds());
+    }
+
+    @Test
+    @DisplayName("Should refresh only the resolved fund touched by ADD_STOCK")
+    void shouldRefreshOnlyResolvedFundTouchedByAddStock() {
+        // Given
+        ModifiableFundRepository modifiableRepository = new ModifiableFundRepository(fundRepository);
+        handler = new CurrentPortfolioCommandHandler(portfolio, modifiableRepository);
+        handler.handle(ParsedCommand.create(CommandType.CURRENT_PORTFOLIO,
+            Arrays.asList("AXIS_BLUECHIP", "ICICI_PRU_BLUECHIP")));
+        Fund untouchedFund = portfolio.getCurrentFunds().get(1);
+
+        // When
+        modifiableRepository.addStockToFund("AXIS_BLUECHIP", "NEW_STOCK");
+
+        // Then
+        assertTrue(portfolio.getCurrentFunds().get(0).containsStock("NEW_STOCK"));
+        assertSame(untouchedFund, portfolio.getCurrentFunds().get(1));
+    }
+
+    @Test
+    @DisplayName("Should not lose an ADD_STOCK that lands while the funds are being resolved")
+    void shouldKeepAddStockDuringResolution() {
+        // Given a delegate that lets another session add a stock during the first lookup
+        ModifiableFundRepository[] modifiable = new ModifiableFundRepository[1];
+        boolean[] interleaved = new boolean[1];
+        FundRepository racingDelegate = new FundRepository() {
+            @Override
+            public Optional<Fund> getFundByName(String fundName) {
+                Optional<Fund> fund = fundRepository.getFundByName(fundName);
+                if (!interleaved[0]) {
+                    interleaved[0] = true;
+                    modifiable[0].addStockToFund("AXIS_BLUECHIP", "NEW_STOCK");
+                }
+                return fund;
+            }
+
+            @Override
+            public List<Fund> getAllFunds() {
+                return fundRepository.getAllFunds();
+            }
+        };
+        modifiable[0] = new ModifiableFundRepository(racingDelegate);
+        handler = new CurrentPortfolioCommandHandler(portfolio, modifiable[0]);
+
+        // When
+        CommandResult result = handler.handle(ParsedCommand.create(CommandType.CURRENT_PORTFOLIO,
+            Arrays.asList("AXIS_BLUECHIP")));
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertTrue(portfolio.getCurrentFunds().get(0).containsStock("NEW_STOCK"));
+    }
+
+    @Test
+    @DisplayName("Should stop following modifications once closed")
+    void shouldStopListeningWhenClosed() {
+        // Given
+        ModifiableFundRepository modifiableRepository = new ModifiableFundRepository(fundRepository);
+        handler = new CurrentPortfolioCommandHandler(portfolio, modifiableRepository);
+        handler.handle(ParsedCommand.create(CommandType.CURRENT_PORTFOLIO, Arrays.asList("AXIS_BLUECHIP")));
+
+        // When
+        handler.close();
+        modifiableRepository.addStockToFund("AXIS_BLUECHIP", "NEW_STOCK");
+
+        // Then
+        assertFalse(portfolio.getCurrentFunds().get(0).containsStock("NEW_STOCK"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.geektrust.handler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OverlapLineRendererTest {
+
+    private static final String LINE_FORMAT = "%s %s %.2f%%";
+
+    private OverlapLineRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        renderer = new OverlapLineRenderer(Locale.US);
+    }
+
+    @Test
+    @DisplayName("Should render line in the expected format")
+    void shouldRenderLineInExpectedFormat() {
+        assertEquals("FUND_A FUND_B 39.13%", renderer.render("FUND_A", "FUND_B", 39.13));
+        assertEquals("FUND_A FUND_B 100.00%", renderer.render("FUND_A", "FUND_B", 100.0));
+        assertEquals("FUND_A FUND_B 7.05%", renderer.render("FUND_A", "FUND_B", 7.05));
+        assertEquals("FUND_A FUND_B 0.50%", renderer.render("FUND_A", "FUND_B", 0.5));
+    }
+
+    @Test
+    @DisplayName("Should match String.format for every two decimal percentage")
+    void shouldMatchStringFormatForEveryTwoDecimalPercentage() {
+        for (int hundredths = 0; hundredths <= 10000; hundredths++) {
+            double value = BigDecimal.valueOf(hundredths, 2).doubleValue();
+            assertEquals(String.format(Locale.US, LINE_FORMAT, "T", "F", value),
+                renderer.render("T", "F", value));
+        }
+    }
+
+    @Test
+    @DisplayName("Should match String.format for overlap ratios")
+    void shouldMatchStringFormatForOverlapRatios() {
+        for (int total = 1; total <= 300; total++) {
+            for (int common = 0; common <= total / 2; common++) {
+                double raw = (2.0 * common) / total * 100.0;
+                double rounded = BigDecimal.valueOf(raw).setScale(2, RoundingMode.HALF_UP).doubleValue();
+                assertEquals(String.format(Locale.US, LINE_FORMAT, "T", "F", rounded),
+                    renderer.render("T", "F", rounded));
+                assertEquals(String.format(Locale.US, LINE_FORMAT, "T", "F", raw),
+                    renderer.render("T", "F", raw));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should use locale decimal separator")
+    void shouldUseLocaleDecimalSeparator() {
+        OverlapLineRenderer germanRenderer = new OverlapLineRenderer(Locale.GERMANY);
+
+        assertEquals(String.format(Locale.GERMANY, LINE_FORMAT, "T", "F", 12.5),
+            germanRenderer.render("T", "F", 12.5));
+    }
+
+    @Test
+    @DisplayName("Should reuse buffer across renders")
+    void shouldReuseBufferAcrossRenders() {
+        assertEquals("LONG_TARGET_NAME LONG_FUND_NAME 12.34%", renderer.render("LONG_TARGET_NAME", "LONG_FUND_NAME", 12.34));
+        assertEquals("A B 1.00%", renderer.render("A", "B", 1.0));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.geektrust.handler;
+
+import com.example.geektrust.command.CommandType;
+import com.example.geektrust.command.ParsedCommand;
+import com.example.geektrust.constants.ErrorMessages;
+import com.example.geektrust.repository.JsonFundRepository;
+import com.example.geektrust.repository.ModifiableFundRepository;
+import com.example.geektrust.service.OverlapCalculator;
+import com.example.geektrust.service.TopOverlapSearch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopOverlapCommandHandlerTest {
+
+    private TopOverlapCommandHandler handler;
+    private ModifiableFundRepository fundRepository;
+
+    @BeforeEach
+    void setUp() {
+        String stockDataPath = getClass().getClassLoader().getResource("stock_data.json").getPath();
+        fundRepository = new ModifiableFundRepository(new JsonFundRepository(stockDataPath));
+        handler = new TopOverlapCommandHandler(fundRepository,
+            new TopOverlapSearch(fundRepository, new OverlapCalculator()));
+    }
+
+    @Test
+    @DisplayName("Should return error when target fund does not exist")
+    void shouldReturnErrorWhenTargetFundDoesNotExist() {
+        // When
+        CommandResult result = handler.handle(ParsedCommand.create(CommandType.TOP_OVERLAP,
+            Arrays.asList("NON_EXISTENT_FUND", "3")));
+
+        // Then
+        assertEquals(ErrorMessages.FUND_NOT_FOUND, result.getErrorMessage());
+    }
+
+    @Test
+    @DisplayName("Should output the k best funds in overlap order without the target")
+    void shouldOutputTopFundsInOverlapOrder() {
+        // When
+        CommandResult result = handler.handle(ParsedCommand.create(CommandType.TOP_OVERLAP,
+            Arrays.asList("AXIS_BLUECHIP", "3")));
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(3, result.getOutputs().size());
+        double previous = Double.MAX_VALUE;
+        for (String line : result.getOutputs()) {
+            String[] parts = line.split(" ");
+            assertEquals("AXIS_BLUECHIP", parts[0]);
+            assertNotEquals("AXIS_BLUECHIP", parts[1]);
+            double overlap = Double.parseDouble(parts[2].replace("%", ""));
+            assertTrue(overlap <= previous);
+            previous = overlap;
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop funds below the minimum percentage")
+    void shouldDropFundsBelowMinimumPercentage() {
+        // When
+        CommandResult result = handler.handle(ParsedCommand.create(CommandType.TOP_OVERLAP,
+            Arrays.asList("AXIS_BLUECHIP", "100", "100")));
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertFalse(result.hasOutput());
+    }
+
+    @Test
+    @DisplayName("Should reflect stocks added after the first query")
+    void shouldReflectAddedStocks() {
+        // Given
+        handler.handle(ParsedCommand.create(CommandType.TOP_OVERLAP, Arrays.asList("UTI_NIFTY_INDEX", "1")));
+        fundRepository.addStockToFund("UTI_NIFTY_INDEX", "TOP_OVERLAP_TEST_STOCK");
+        fundRepository.addStockToFund("AXIS_BLUECHIP", "TOP_OVERLAP_TEST_STOCK");
+
+        // When
+        CommandResult result = handler.handle(ParsedCommand.create(CommandType.TOP_OVERLAP,
+            Arrays.asList("AXIS_BLUECHIP", "50")));
+
+        // Then
+        assertTrue(result.getOutputs().stream().anyMatch(line -> line.startsWith("AXIS_BLUECHIP UTI_NIFTY_INDEX ")));
+    }
+}
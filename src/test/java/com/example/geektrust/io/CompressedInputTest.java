@@ -0,0 +1,138 @@
+package com.example.geektrust.io;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedInputTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should pass plain input through unchanged")
+    void shouldPassPlainInputThrough() throws IOException {
+        // Given
+        byte[] plain = "CURRENT_PORTFOLIO AXIS_BLUECHIP\n".getBytes(StandardCharsets.UTF_8);
+        Path file = tempDir.resolve("plain.txt");
+        Files.write(file, plain);
+
+        // When & Then
+        assertFalse(CompressedInput.isGzip(file));
+        try (InputStream input = CompressedInput.open(file)) {
+            assertFalse(input instanceof ReadAheadInputStream);
+            assertArrayEquals(plain, readAll(input));
+        }
+    }
+
+    @Test
+    @DisplayName("Should inflate gzip input spanning many read-ahead blocks")
+    void shouldInflateGzipInput() throws IOException {
+        // Given
+        byte[] plain = new byte[ReadAheadInputStream.BLOCK_SIZE * ReadAheadInputStream.BLOCK_COUNT * 3 + 17];
+        new Random(42).nextBytes(plain);
+        Path file = tempDir.resolve("input.gz");
+        Files.write(file, gzip(plain));
+
+        // When & Then
+        assertTrue(CompressedInput.isGzip(file));
+        try (InputStream input = CompressedInput.open(file)) {
+            assertTrue(input instanceof ReadAheadInputStream);
+            assertArrayEquals(plain, readAll(input));
+            assertEquals(-1, input.read());
+        }
+    }
+
+    @Test
+    @DisplayName("Should handle empty and one-byte inputs")
+    void shouldHandleTinyInputs() throws IOException {
+        // When & Then
+        assertArrayEquals(new byte[0], readAll(CompressedInput.wrap(new ByteArrayInputStream(new byte[0]))));
+        assertArrayEquals(new byte[]{0x1F}, readAll(CompressedInput.wrap(new ByteArrayInputStream(new byte[]{0x1F}))));
+        assertArrayEquals(new byte[0], readAll(CompressedInput.wrap(new ByteArrayInputStream(gzip(new byte[0])))));
+    }
+
+    @Test
+    @DisplayName("Should report a truncated gzip stream as an IOException")
+    void shouldReportTruncatedGzip() throws IOException {
+        // Given
+        byte[] plain = new byte[ReadAheadInputStream.BLOCK_SIZE * 2];
+        new Random(7).nextBytes(plain);
+        byte[] compressed = gzip(plain);
+        byte[] truncated = new byte[compressed.length / 2];
+        System.arraycopy(compressed, 0, truncated, 0, truncated.length);
+
+        // When & Then
+        try (InputStream input = CompressedInput.wrap(new ByteArrayInputStream(truncated))) {
+            assertThrows(IOException.class, () -> readAll(input));
+        }
+    }
+
+    @Test
+    @DisplayName("Should rethrow unchecked failures of the source instead of hanging")
+    void shouldRethrowUncheckedSourceFailures() {
+        // Given sources that fail after one full block
+        InputStream failingWithError = failingAfterOneBlock(new AssertionError("inflater broke"));
+        InputStream failingWithException = failingAfterOneBlock(new IllegalStateException("inflater broke"));
+
+        // When & Then
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            try (InputStream input = new ReadAheadInputStream(failingWithError)) {
+                assertThrows(AssertionError.class, () -> readAll(input));
+            }
+            try (InputStream input = new ReadAheadInputStream(failingWithException)) {
+                assertThrows(IllegalStateException.class, () -> readAll(input));
+            }
+        });
+    }
+
+    private static InputStream failingAfterOneBlock(Throwable failure) {
+        return new InputStream() {
+            private int remaining = ReadAheadInputStream.BLOCK_SIZE;
+
+            @Override
+            public int read() {
+                if (remaining == 0) {
+                    if (failure instanceof Error) {
+                        throw (Error) failure;
+                    }
+                    throw (RuntimeException) failure;
+                }
+                remaining--;
+                return 'x';
+            }
+        };
+    }
+
+    private static byte[] gzip(byte[] plain) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(plain);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] readAll(InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[5000];
+        int read;
+        while ((read = input.read(buffer)) >= 0) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+}
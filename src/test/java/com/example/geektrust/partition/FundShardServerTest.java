@@ -0,0 +1,132 @@
+package com.example.geektrust.partition;
+
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.ScoredFund;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FundShardServerTest {
+
+    private FundShardServer server;
+    private RemoteFundShard remote;
+    private LocalFundShard local;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        local = new LocalFundShard(Arrays.asList(
+            new Fund("FUND1", new HashSet<>(Arrays.asList("A", "B", "C"))),
+            new Fund("FUND2", new HashSet<>(Arrays.asList("B", "C", "D", "E"))),
+            new Fund("WEIGHTED", new String[]{"A", "D"}, new double[]{70, 30})));
+        server = new FundShardServer(local, 0);
+        server.start();
+        remote = RemoteFundShard.connect("localhost:" + server.getPort());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        remote.close();
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Should answer lookups and queries identically over the socket")
+    void shouldAnswerLikeLocalShard() {
+        // Given
+        Fund target = new Fund("TARGET", new HashSet<>(Arrays.asList("A", "B", "X")));
+        List<String> names = Arrays.asList("FUND2", "MISSING", "FUND1");
+
+        // When & Then
+        assertEquals(local.findFund("WEIGHTED"), remote.findFund("WEIGHTED"));
+        assertTrue(remote.findFund("WEIGHTED").isWeighted());
+        assertNull(remote.findFund("MISSING"));
+        assertEquals(local.getFunds(), remote.getFunds());
+        assertEquals(Arrays.asList("FUND1", "FUND2", "WEIGHTED"), remote.getFundNames());
+        assertArrayEquals(local.calculateOverlaps(target, names), remote.calculateOverlaps(target, names));
+        assertEquals(local.topOverlaps(target, 2, 0.0), remote.topOverlaps(target, 2, 0.0));
+    }
+
+    @Test
+    @DisplayName("Should apply ADD_STOCK to the connection's session and bump its version")
+    void shouldApplyAddStockRemotely() {
+        // When
+        Fund updated = remote.addStock("FUND1", "Z");
+        Fund unchanged = remote.addStock("FUND1", "Z");
+
+        // Then
+        assertTrue(updated.containsStock("Z"));
+        assertNull(unchanged);
+        assertNull(remote.addStock("MISSING", "Z"));
+        assertTrue(remote.findFund("FUND1").containsStock("Z"));
+        assertFalse(local.findFund("FUND1").containsStock("Z"));
+        assertEquals(1L, remote.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should apply an ADD_STOCKS batch in one round trip and one version step")
+    void shouldApplyAddStocksRemotely() {
+        // Given
+        Map<String, List<String>> stocksByFund = new LinkedHashMap<>();
+        stocksByFund.put("FUND1", Arrays.asList("Z", "Y", "A"));
+        stocksByFund.put("FUND2", Collections.singletonList("B"));
+        stocksByFund.put("WEIGHTED", Collections.singletonList("Z"));
+        stocksByFund.put("MISSING", Collections.singletonList("Z"));
+
+        // When
+        List<Fund> modified = remote.addStocks(stocksByFund);
+
+        // Then
+        assertEquals(2, modified.size());
+        assertEquals(remote.findFund("FUND1"), modified.get(0));
+        assertTrue(remote.findFund("FUND1").containsStock("Y"));
+        assertTrue(remote.findFund("WEIGHTED").containsStock("Z"));
+        assertEquals(1L, remote.getVersion());
+        assertTrue(remote.addStocks(stocksByFund).isEmpty());
+        assertEquals(1L, remote.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should keep each session's ADD_STOCKs from other and later sessions")
+    void shouldIsolateSessions() throws IOException {
+        // Given
+        Fund target = new Fund("TARGET", new HashSet<>(Arrays.asList("Z", "Y")));
+        remote.addStock("FUND1", "Z");
+        remote.addStock("FUND1", "Y");
+
+        // When
+        try (RemoteFundShard other = RemoteFundShard.connect("localhost:" + server.getPort())) {
+            // Then
+            assertFalse(other.findFund("FUND1").containsStock("Z"));
+            assertEquals(0L, other.getVersion());
+            assertTrue(other.topOverlaps(target, 3, 0.0).isEmpty());
+            assertEquals("FUND1", remote.topOverlaps(target, 3, 0.0).get(0).getFundName());
+        }
+        remote.close();
+        remote = RemoteFundShard.connect("localhost:" + server.getPort());
+        assertFalse(remote.findFund("FUND1").containsStock("Z"));
+    }
+
+    @Test
+    @DisplayName("Should combine remote shards behind a partitioned repository")
+    void shouldServePartitionedRepository() {
+        // Given
+        PartitionedFundRepository repository = new PartitionedFundRepository(Collections.singletonList(remote));
+
+        // When
+        List<ScoredFund> top = repository.findTopOverlaps(local.findFund("FUND1"), 1, 0.0);
+
+        // Then
+        assertEquals(Collections.singletonList(new ScoredFund("FUND2", 57.14)), top);
+    }
+}
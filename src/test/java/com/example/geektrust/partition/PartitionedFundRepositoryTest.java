@@ -0,0 +1,185 @@
+package com.example.geektrust.partition;
+
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.ScoredFund;
+import com.example.geektrust.repository.JsonFundRepository;
+import com.example.geektrust.service.OverlapCalculator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedFundRepositoryTest {
+
+    private JsonFundRepository source;
+    private PartitionedFundRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        String stockDataPath = getClass().getClassLoader().getResource("stock_data.json").getPath();
+        source = new JsonFundRepository(stockDataPath);
+        repository = PartitionedFundRepository.inProcess(source, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Test
+    @DisplayName("Should spread funds across shards and find each through its owner")
+    void shouldFindEveryFundThroughItsOwner() {
+        // When
+        List<Fund> partitioned = repository.getAllFunds();
+
+        // Then
+        assertEquals(source.getAllFunds().size(), partitioned.size());
+        List<String> partitionedNames = new ArrayList<>();
+        for (Fund fund : partitioned) {
+            partitionedNames.add(fund.getName());
+        }
+        assertEquals(partitionedNames, repository.getFundNames());
+        for (Fund fund : source.getAllFunds()) {
+            assertEquals(fund, repository.findFundByName(fund.getName()));
+        }
+        assertNull(repository.findFundByName("UNKNOWN_FUND"));
+        assertFalse(repository.getFundByName(null).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should gather scattered overlaps in request order")
+    void shouldGatherOverlapsInRequestOrder() {
+        // Given
+        Fund target = source.findFundByName("MIRAE_ASSET_EMERGING_BLUECHIP");
+        List<String> names = Arrays.asList("UTI_NIFTY_INDEX", "AXIS_BLUECHIP", "UNKNOWN_FUND", "ICICI_PRU_BLUECHIP");
+        OverlapCalculator calculator = new OverlapCalculator();
+
+        // When
+        double[] overlaps = repository.calculateOverlaps(target, names);
+
+        // Then
+        assertEquals(calculator.calculateOverlapPercentage(target, source.findFundByName("UTI_NIFTY_INDEX")), overlaps[0]);
+        assertEquals(calculator.calculateOverlapPercentage(target, source.findFundByName("AXIS_BLUECHIP")), overlaps[1]);
+        assertEquals(FundShard.NOT_HELD, overlaps[2]);
+        assertEquals(calculator.calculateOverlapPercentage(target, source.findFundByName("ICICI_PRU_BLUECHIP")), overlaps[3]);
+    }
+
+    @Test
+    @DisplayName("Should merge per-shard top-k results deterministically")
+    void shouldMergeTopOverlaps() {
+        // Given
+        Fund target = source.findFundByName("AXIS_BLUECHIP");
+        OverlapCalculator calculator = new OverlapCalculator();
+        List<ScoredFund> expected = new ArrayList<>();
+        for (Fund fund : source.getAllFunds()) {
+            double overlap = calculator.calculateOverlapPercentage(target, fund);
+            if (overlap >= 30.0 && !fund.getName().equals(target.getName())) {
+                expected.add(new ScoredFund(fund.getName(), overlap));
+            }
+        }
+        expected.sort(ScoredFund.BY_OVERLAP_DESCENDING);
+
+        // When
+        List<ScoredFund> top = repository.findTopOverlaps(target, 3, 30.0);
+
+        // Then
+        assertEquals(expected.subList(0, Math.min(3, expected.size())), top);
+        assertFalse(top.contains(new ScoredFund("AXIS_BLUECHIP", 100.0)));
+        assertTrue(repository.findTopOverlaps(target, 0, 0.0).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should route ADD_STOCK to the owning shard and notify listeners once")
+    void shouldRouteAddStockToOwner() {
+        // Given
+        List<Fund> notified = new ArrayList<>();
+        repository.addModificationListener(notified::add);
+        long versionBefore = repository.getVersion();
+
+        // When
+        repository.addStockToFund("AXIS_BLUECHIP", "TCS");
+        repository.addStockToFund("AXIS_BLUECHIP", "TCS");
+        repository.addStockToFund("UNKNOWN_FUND", "TCS");
+
+        // Then
+        assertTrue(repository.findFundByName("AXIS_BLUECHIP").containsStock("TCS"));
+        assertEquals(versionBefore + 1, repository.getVersion());
+        assertEquals(1, notified.size());
+        assertEquals("AXIS_BLUECHIP", notified.get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Should apply a batch with one version step per touched shard")
+    void shouldApplyBatchOncePerShard() {
+        // Given
+        List<Fund> notified = new ArrayList<>();
+        repository.addModificationListener(notified::add);
+        Map<String, List<String>> stocksByFund = new LinkedHashMap<>();
+        stocksByFund.put("AXIS_BLUECHIP", Arrays.asList("TCS", "NEW_STOCK_1", "NEW_STOCK_2"));
+        stocksByFund.put("UTI_NIFTY_INDEX", Collections.singletonList("NEW_STOCK_1"));
+        stocksByFund.put("ICICI_PRU_BLUECHIP", Collections.singletonList("NEW_STOCK_3"));
+        stocksByFund.put("UNKNOWN_FUND", Collections.singletonList("NEW_STOCK_1"));
+        Set<Integer> touchedShards = new HashSet<>();
+        for (String fundName : Arrays.asList("AXIS_BLUECHIP", "UTI_NIFTY_INDEX", "ICICI_PRU_BLUECHIP")) {
+            touchedShards.add(PartitionedFundRepository.shardIndexOf(fundName, repository.getShardCount()));
+        }
+        long versionBefore = repository.getVersion();
+
+        // When
+        repository.addStocksToFunds(stocksByFund);
+        repository.addStocksToFunds(stocksByFund);
+
+        // Then
+        assertTrue(repository.findFundByName("AXIS_BLUECHIP").containsStock("NEW_STOCK_2"));
+        assertTrue(repository.findFundByName("UTI_NIFTY_INDEX").containsStock("NEW_STOCK_1"));
+        assertEquals(versionBefore + touchedShards.size(), repository.getVersion());
+        assertEquals(3, notified.size());
+    }
+
+    @Test
+    @DisplayName("Should step a single shard's version once for a whole batch")
+    void shouldApplyBatchWithOneVersionStep() {
+        // Given
+        try (PartitionedFundRepository single = PartitionedFundRepository.inProcess(source, 1)) {
+            Map<String, List<String>> stocksByFund = new LinkedHashMap<>();
+            stocksByFund.put("AXIS_BLUECHIP", Arrays.asList("NEW_STOCK_1", "NEW_STOCK_2"));
+            stocksByFund.put("UTI_NIFTY_INDEX", Arrays.asList("NEW_STOCK_1", "NEW_STOCK_2"));
+
+            // When
+            single.addStocksToFunds(stocksByFund);
+
+            // Then
+            assertEquals(1L, single.getVersion());
+        }
+    }
+
+    @Test
+    @DisplayName("Should score a portfolio through the shards exactly like the local calculator")
+    void shouldScorePortfolioLikeLocalCalculator() {
+        // Given
+        Fund target = source.findFundByName("MIRAE_ASSET_EMERGING_BLUECHIP");
+        List<Fund> portfolio = new ArrayList<>(source.getAllFunds());
+        portfolio.sort(Comparator.comparing(Fund::getName));
+        double[] expected = new double[portfolio.size()];
+        double[] actual = new double[portfolio.size()];
+
+        // When
+        new OverlapCalculator().calculateOverlapPercentages(target, portfolio, expected);
+        new PartitionedOverlapCalculator(repository).calculateOverlapPercentages(target, portfolio, actual);
+
+        // Then
+        assertArrayEquals(expected, actual);
+    }
+}
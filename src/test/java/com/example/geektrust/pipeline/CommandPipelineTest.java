@@ -0,0 +1,90 @@
+package com.example.geektrust.pipeline;
+
+import com.example.geektrust.command.CommandType;
+import com.example.geektrust.domain.Portfolio;
+import com.example.geektrust.handler.AddStockCommandHandler;
+import com.example.geektrust.handler.CalculateOverlapCommandHandler;
+import com.example.geektrust.handler.CommandResult;
+import com.example.geektrust.handler.CurrentPortfolioCommandHandler;
+import com.example.geektrust.repository.JsonFundRepository;
+import com.example.geektrust.repository.ModifiableFundRepository;
+import com.example.geektrust.service.CommandExecutor;
+import com.example.geektrust.service.OverlapCalculator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandPipelineTest {
+
+    @Test
+    @DisplayName("Should produce the same results as sequential execution")
+    void shouldProduceSameResultsAsSequentialExecution() throws IOException {
+        List<String> commands = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            commands.add("CURRENT_PORTFOLIO AXIS_BLUECHIP ICICI_PRU_BLUECHIP UTI_NIFTY_INDEX");
+            commands.add("CALCULATE_OVERLAP MIRAE_ASSET_EMERGING_BLUECHIP");
+            commands.add("ADD_STOCK AXIS_BLUECHIP STOCK_" + i);
+            commands.add("INVALID_COMMAND");
+            commands.add("CALCULATE_OVERLAP UNKNOWN_FUND");
+        }
+
+        List<CommandResult> expected = createExecutor().executeCommands(commands);
+        List<CommandResult> actual = new ArrayList<>();
+        new CommandPipeline(createExecutor(), 16)
+            .run(new BufferedReader(new StringReader(String.join("\n", commands))), actual::add);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Should propagate reader failure")
+    void shouldPropagateReaderFailure() {
+        Reader failingReader = new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException("disk failure");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        IOException exception = assertThrows(IOException.class, () ->
+            new CommandPipeline(createExecutor()).run(new BufferedReader(failingReader), result -> { }));
+        assertEquals("disk failure", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should propagate sink failure")
+    void shouldPropagateSinkFailure() {
+        String commands = String.join("\n", Arrays.asList("INVALID_COMMAND", "INVALID_COMMAND"));
+
+        assertThrows(IllegalStateException.class, () ->
+            new CommandPipeline(createExecutor()).run(new BufferedReader(new StringReader(commands)), result -> {
+                throw new IllegalStateException("sink closed");
+            }));
+    }
+
+    private CommandExecutor createExecutor() {
+        String stockDataPath = getClass().getClassLoader().getResource("stock_data.json").getPath();
+        ModifiableFundRepository repository = new ModifiableFundRepository(new JsonFundRepository(stockDataPath));
+        Portfolio portfolio = new Portfolio();
+
+        CommandExecutor executor = new CommandExecutor();
+        executor.registerHandler(CommandType.CURRENT_PORTFOLIO, new CurrentPortfolioCommandHandler(portfolio, repository));
+        executor.registerHandler(CommandType.CALCULATE_OVERLAP,
+            new CalculateOverlapCommandHandler(portfolio, repository, new OverlapCalculator()));
+        executor.registerHandler(CommandType.ADD_STOCK, new AddStockCommandHandler(repository));
+        return executor;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.geektrust.pipeline;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpscRingBufferTest {
+
+    @Test
+    @DisplayName("Should reject capacity that is not a power of two")
+    void shouldRejectCapacityThatIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new SpscRingBuffer<String>(3));
+        assertThrows(IllegalArgumentException.class, () -> new SpscRingBuffer<String>(0));
+    }
+
+    @Test
+    @DisplayName("Should drain items in order and signal end after close")
+    void shouldDrainItemsInOrderAndSignalEndAfterClose() {
+        SpscRingBuffer<String> buffer = new SpscRingBuffer<>(4);
+        buffer.putAll(new Object[]{"A", "B", "C"}, 3);
+        buffer.close();
+
+        String[] batch = new String[2];
+        assertEquals(2, buffer.takeBatch(batch));
+        assertArrayEquals(new String[]{"A", "B"}, batch);
+        assertEquals(1, buffer.takeBatch(batch));
+        assertEquals("C", batch[0]);
+        assertEquals(-1, buffer.takeBatch(batch));
+    }
+
+    @Test
+    @DisplayName("Should transfer more items than capacity between threads in order")
+    void shouldTransferMoreItemsThanCapacityBetweenThreadsInOrder() throws InterruptedException {
+        SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(8);
+        int itemCount = 10_000;
+
+        Thread producer = new Thread(() -> {
+            Object[] batch = new Object[5];
+            for (int i = 0; i < itemCount; i += batch.length) {
+                for (int j = 0; j < batch.length; j++) {
+                    batch[j] = i + j;
+                }
+                buffer.putAll(batch, batch.length);
+            }
+            buffer.close();
+        });
+        producer.start();
+
+        List<Integer> received = new ArrayList<>();
+        Integer[] batch = new Integer[3];
+        int count;
+        while ((count = buffer.takeBatch(batch)) >= 0) {
+            for (int i = 0; i < count; i++) {
+                received.add(batch[i]);
+            }
+        }
+        producer.join();
+
+        assertEquals(itemCount, received.size());
+        for (int i = 0; i < itemCount; i++) {
+            assertEquals(i, received.get(i).intValue());
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail waiting operations once aborted")
+    void shouldFailWaitingOperationsOnceAborted() {
+        SpscRingBuffer<String> buffer = new SpscRingBuffer<>(2);
+        buffer.abort();
+
+        assertThrows(RuntimeException.class, () -> buffer.takeBatch(new String[1]));
+        assertThrows(RuntimeException.class, () -> buffer.putAll(new Object[]{"A"}, 1));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.geektrust.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FundNameIndexTest {
+
+    @Test
+    @DisplayName("Should return positions for known names and NOT_FOUND otherwise")
+    void shouldReturnPositions() {
+        // Given
+        FundNameIndex index = FundNameIndex.of(Arrays.asList("AXIS_BLUECHIP", "ICICI_PRU_BLUECHIP", "UTI_NIFTY_INDEX"));
+
+        // When & Then
+        assertEquals(0, index.indexOf("AXIS_BLUECHIP"));
+        assertEquals(2, index.indexOf("UTI_NIFTY_INDEX"));
+        assertEquals(FundNameIndex.NOT_FOUND, index.indexOf("MIRAE_ASSET_LARGE_CAP"));
+        assertEquals(FundNameIndex.NOT_FOUND, index.indexOf(null));
+        assertEquals(FundNameIndex.NOT_FOUND, FundNameIndex.of(Collections.<String>emptyList()).indexOf("AXIS_BLUECHIP"));
+    }
+
+    @Test
+    @DisplayName("Should let later duplicates win and survive colliding hashes")
+    void shouldHandleDuplicatesAndCollisions() {
+        // Given: "Aa" and "BB" share a String hash code
+        List<String> names = new ArrayList<>(Arrays.asList("Aa", "BB", "Aa"));
+        for (int i = 0; i < 1000; i++) {
+            names.add("FUND_" + i);
+        }
+
+        // When
+        FundNameIndex index = FundNameIndex.of(names);
+
+        // Then
+        assertEquals(2, index.indexOf("Aa"));
+        assertEquals(1, index.indexOf("BB"));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i + 3, index.indexOf("FUND_" + i));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.geektrust.repository;
 
 import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.StockDictionary;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,11 +9,17 @@ import org.junit.jupiter.api.io.TempDir;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -75,6 +82,21 @@ class JsonFundRepositoryTest {
         assertEquals(3, repository.getAllFunds().size());
     }
 
+    @Test
+    @DisplayName("Should load funds from a gzip-compressed file, eagerly or lazily")
+    void shouldLoadFundsFromGzipFile() throws IOException {
+        File jsonFile = new File(tempDir.toFile(), "funds.json");
+        try (OutputStream output = new GZIPOutputStream(new FileOutputStream(jsonFile))) {
+            output.write(validJson.getBytes(StandardCharsets.UTF_8));
+        }
+
+        JsonFundRepository eager = new JsonFundRepository(jsonFile.getAbsolutePath());
+        JsonFundRepository lazy = new JsonFundRepository(jsonFile.getAbsolutePath(), JsonFundRepository.LoadMode.LAZY);
+
+        assertEquals(3, eager.getAllFunds().size());
+        assertTrue(lazy.findFundByName("FUND2").containsStock("STOCK4"));
+    }
+
     @Test
     @DisplayName("Should retrieve fund by name")
     void shouldRetrieveFundByName() throws IOException {
@@ -257,6 +279,78 @@ class JsonFundRepositoryTest {
         assertEquals("EMPTY_FUND", allFunds.get(2).getName());
     }
 
+    @Test
+    @DisplayName("Should load optional per-stock weights")
+    void shouldLoadOptionalPerStockWeights() {
+        String weightedJson = "{\"funds\": [" +
+                "{\"name\": \"WEIGHTED\", \"stocks\": [{\"name\": \"STOCK1\", \"weight\": 60}, {\"name\": \"STOCK2\", \"weight\": 40}]}," +
+                "{\"name\": \"PLAIN\", \"stocks\": [\"STOCK1\", {\"name\": \"STOCK2\"}]}," +
+                "{\"name\": \"PARTIAL\", \"stocks\": [{\"name\": \"STOCK1\", \"weight\": 60}, \"STOCK2\"]}]}";
+
+        JsonFundRepository repository = new JsonFundRepository(new ByteArrayInputStream(weightedJson.getBytes()));
+
+        Fund weighted = repository.getFundByName("WEIGHTED").get();
+        assertTrue(weighted.isWeighted());
+        assertEquals(100.0, weighted.getStockWeights()[0] + weighted.getStockWeights()[1], 0.0001);
+        Fund plain = repository.getFundByName("PLAIN").get();
+        assertFalse(plain.isWeighted());
+        assertEquals(2, plain.getStockCount());
+        assertFalse(repository.getFundByName("PARTIAL").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should load the same funds lazily as eagerly")
+    void shouldLoadSameFundsLazily() throws IOException {
+        String json = "{\"funds\": [" +
+                "{\"name\": \"FUND1\", \"stocks\": [\"STOCK1\", \"STOCK2\"], \"extra\": {\"a\": [1, 2]}}," +
+                "{\"stocks\": [\"STOCK2\"]}," +
+                "{\"name\": \"NO_STOCKS\"}," +
+                "{\"stocks\": [{\"name\": \"STOCK3\", \"weight\": 60}, {\"name\": \"STOCK4\", \"weight\": 40}], \"name\": \"WEIGHTED\"}," +
+                "{\"name\": \"PARTIAL\", \"stocks\": [{\"name\": \"STOCK1\", \"weight\": 60}, \"STOCK2\"]}]}";
+        File jsonFile = createTempJsonFile("lazy.json", json);
+
+        JsonFundRepository eager = new JsonFundRepository(jsonFile.getAbsolutePath());
+        JsonFundRepository lazy = new JsonFundRepository(jsonFile.getAbsolutePath(), JsonFundRepository.LoadMode.LAZY);
+
+        assertTrue(lazy.isLoaded());
+        assertEquals(Arrays.asList("FUND1", "NO_STOCKS", "WEIGHTED"), eager.getFundNames());
+        assertEquals(Arrays.asList("FUND1", "NO_STOCKS", "WEIGHTED", "PARTIAL"), lazy.getFundNames());
+        for (String fundName : new String[]{"FUND1", "NO_STOCKS", "WEIGHTED", "PARTIAL", "UNKNOWN"}) {
+            assertEquals(eager.getFundByName(fundName), lazy.getFundByName(fundName));
+        }
+        assertEquals(eager.getAllFunds(), lazy.getAllFunds());
+    }
+
+    @Test
+    @DisplayName("Should parse a lazily loaded fund only once")
+    void shouldCacheLazilyLoadedFund() {
+        JsonFundRepository repository = new JsonFundRepository(
+            new ByteArrayInputStream(validJson.getBytes()), JsonFundRepository.LoadMode.LAZY);
+
+        Fund first = repository.getFundByName("FUND2").get();
+
+        assertSame(first, repository.getFundByName("FUND2").get());
+        assertSame(first, repository.getAllFunds().get(1));
+        assertEquals(new HashSet<>(Arrays.asList("STOCK2", "STOCK4")), first.getStocks());
+    }
+
+    @Test
+    @DisplayName("Should keep only the funds that pass the name filter")
+    void shouldLoadOnlyFilteredFunds() throws IOException {
+        String json = "{\"funds\": [" +
+                "{\"stocks\": [\"FILTER_KEPT_STOCK\"], \"name\": \"KEPT_FUND\"}," +
+                "{\"name\": \"SKIPPED_FUND\", \"stocks\": [\"FILTER_SKIPPED_STOCK\"]}]}";
+        File jsonFile = createTempJsonFile("filtered.json", json);
+
+        JsonFundRepository repository = new JsonFundRepository(jsonFile.getAbsolutePath(), name -> name.startsWith("KEPT"));
+
+        assertTrue(repository.isLoaded());
+        assertEquals(1, repository.getAllFunds().size());
+        assertTrue(repository.findFundByName("KEPT_FUND").containsStock("FILTER_KEPT_STOCK"));
+        assertNull(repository.findFundByName("SKIPPED_FUND"));
+        assertEquals(StockDictionary.UNKNOWN_STOCK, StockDictionary.shared().lookup("FILTER_SKIPPED_STOCK"));
+    }
+
     private File createTempJsonFile(String fileName, String content) throws IOException {
         File file = new File(tempDir.toFile(), fileName);
         try (FileWriter writer = new FileWriter(file)) {
@@ -0,0 +1,105 @@
+package com.example.geektrust.repository;
+
+import com.example.geektrust.domain.Fund;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedUniverseFileTest {
+
+    private static final String JSON = "{\"funds\": [" +
+            "{\"name\": \"FUND1\", \"stocks\": [\"STOCK1\", \"STOCK2\", \"STOCK3\"]}," +
+            "{\"name\": \"FUND2\", \"stocks\": [\"STOCK2\", \"STOCK4\"]}]}";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should build the universe file once and map it afterwards")
+    void shouldBuildOnceAndMapAfterwards() throws IOException {
+        // Given
+        Path json = write("stock_data.json", JSON);
+        Path universe = tempDir.resolve("cache").resolve("universe.bin");
+
+        // When
+        OffHeapFundRepository first = MappedUniverseFile.open(json.toString(), universe);
+        FileTime builtAt = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(universe, builtAt);
+        OffHeapFundRepository second = MappedUniverseFile.open(json.toString(), universe);
+
+        // Then
+        assertEquals(builtAt, Files.getLastModifiedTime(universe));
+        assertEquals(first.getAllFunds(), second.getAllFunds());
+        Fund fund2 = second.getFundByName("FUND2").get();
+        assertTrue(fund2.containsStock("STOCK4"));
+        assertEquals(2, fund2.getStockCount());
+    }
+
+    @Test
+    @DisplayName("Should rebuild the universe file when the source JSON changes")
+    void shouldRebuildWhenSourceChanges() throws IOException {
+        // Given
+        Path json = write("stock_data.json", JSON);
+        Path universe = tempDir.resolve("universe.bin");
+        MappedUniverseFile.open(json.toString(), universe);
+
+        // When
+        write("stock_data.json", JSON.replace("STOCK4", "STOCK5"));
+        OffHeapFundRepository repository = MappedUniverseFile.open(json.toString(), universe);
+
+        // Then
+        assertTrue(repository.getFundByName("FUND2").get().containsStock("STOCK5"));
+        assertFalse(repository.getFundByName("FUND2").get().containsStock("STOCK4"));
+    }
+
+    @Test
+    @DisplayName("Should keep mapping the universe file when the source JSON is only touched")
+    void shouldKeepMappingWhenSourceIsTouched() throws IOException {
+        // Given
+        Path json = write("stock_data.json", JSON);
+        Path universe = tempDir.resolve("universe.bin");
+        MappedUniverseFile.open(json.toString(), universe);
+        FileTime builtAt = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(universe, builtAt);
+
+        // When
+        Files.setLastModifiedTime(json, FileTime.fromMillis(Files.getLastModifiedTime(json).toMillis() - 60_000));
+        OffHeapFundRepository refreshed = MappedUniverseFile.open(json.toString(), universe);
+        FileTime refreshedAt = Files.getLastModifiedTime(universe);
+        Files.setLastModifiedTime(universe, builtAt);
+        OffHeapFundRepository mapped = MappedUniverseFile.open(json.toString(), universe);
+
+        // Then
+        assertNotEquals(builtAt, refreshedAt);
+        assertEquals(builtAt, Files.getLastModifiedTime(universe));
+        assertEquals(refreshed.getAllFunds(), mapped.getAllFunds());
+        assertTrue(mapped.getFundByName("FUND2").get().containsStock("STOCK4"));
+    }
+
+    @Test
+    @DisplayName("Should replace a truncated or foreign universe file")
+    void shouldReplaceCorruptFile() throws IOException {
+        // Given
+        Path json = write("stock_data.json", JSON);
+        Path universe = write("universe.bin", "not a universe file");
+
+        // When
+        OffHeapFundRepository repository = MappedUniverseFile.open(json.toString(), universe);
+
+        // Then
+        assertEquals(2, repository.getFundCount());
+        assertTrue(Files.size(universe) > MappedUniverseFile.FILE_HEADER_SIZE);
+    }
+
+    private Path write(String fileName, String content) throws IOException {
+        return Files.write(tempDir.resolve(fileName), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
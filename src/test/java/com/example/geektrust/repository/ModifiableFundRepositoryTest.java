@@ -0,0 +1,185 @@
+package com.example.geektrust.repository;
+
+import com.example.geektrust.domain.Fund;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModifiableFundRepositoryTest {
+
+    private static final String JSON = "{\"funds\": [" +
+            "{\"name\": \"FUND1\", \"stocks\": [\"STOCK1\", \"STOCK2\"]}," +
+            "{\"name\": \"FUND2\", \"stocks\": [\"STOCK2\"]}]}";
+
+    private ModifiableFundRepository repository;
+    private List<Fund> notifications;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ModifiableFundRepository(new JsonFundRepository(new ByteArrayInputStream(JSON.getBytes())));
+        notifications = Collections.synchronizedList(new ArrayList<>());
+        repository.addModificationListener(notifications::add);
+    }
+
+    @Test
+    @DisplayName("Should return original fund when not modified")
+    void shouldReturnOriginalFundWhenNotModified() {
+        assertEquals(2, repository.getFundByName("FUND1").get().getStockCount());
+        assertFalse(repository.getFundByName("UNKNOWN").isPresent());
+        assertFalse(repository.getFundByName(null).isPresent());
+        assertEquals(0L, repository.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should add stock, bump version and notify listeners")
+    void shouldAddStockBumpVersionAndNotifyListeners() {
+        repository.addStockToFund("FUND1", "STOCK3");
+
+        Fund modifiedFund = repository.getFundByName("FUND1").get();
+        assertTrue(modifiedFund.containsStock("STOCK3"));
+        assertEquals(3, modifiedFund.getStockCount());
+        assertEquals(1L, repository.getVersion());
+        assertEquals(1, notifications.size());
+        assertSame(modifiedFund, notifications.get(0));
+    }
+
+    @Test
+    @DisplayName("Should not notify when stock is already held or fund is unknown")
+    void shouldNotNotifyWhenStockIsAlreadyHeldOrFundIsUnknown() {
+        repository.addStockToFund("FUND1", "STOCK1");
+        repository.addStockToFund("UNKNOWN", "STOCK1");
+
+        assertTrue(notifications.isEmpty());
+        assertEquals(0L, repository.getVersion());
+        assertFalse(repository.getFundByName("UNKNOWN").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should accumulate additions to the same fund")
+    void shouldAccumulateAdditionsToSameFund() {
+        repository.addStockToFund("FUND2", "STOCK3");
+        repository.addStockToFund("FUND2", "STOCK4");
+
+        Fund modifiedFund = repository.getFundByName("FUND2").get();
+        assertEquals(3, modifiedFund.getStockCount());
+        assertEquals(2L, repository.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should apply a batch with one version bump and one notification per changed fund")
+    void shouldApplyBatchWithOneVersionBump() {
+        // Given
+        Map<String, List<String>> stocksByFund = new LinkedHashMap<>();
+        stocksByFund.put("FUND1", Arrays.asList("STOCK3", "STOCK1", "STOCK4", "STOCK3"));
+        stocksByFund.put("FUND2", Collections.singletonList("STOCK2"));
+        stocksByFund.put("UNKNOWN", Collections.singletonList("STOCK1"));
+
+        // When
+        repository.addStocksToFunds(stocksByFund);
+        repository.addStocksToFunds(stocksByFund);
+
+        // Then
+        assertEquals(4, repository.getFundByName("FUND1").get().getStockCount());
+        assertEquals(1, repository.getFundByName("FUND2").get().getStockCount());
+        assertEquals(1L, repository.getVersion());
+        assertEquals(1, notifications.size());
+        assertSame(repository.getFundByName("FUND1").get(), notifications.get(0));
+    }
+
+    @Test
+    @DisplayName("Should apply every concurrent addition exactly once")
+    void shouldApplyEveryConcurrentAdditionExactlyOnce() throws Exception {
+        // Given
+        int writers = 8;
+        int stocksPerWriter = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When every writer adds its own stocks to both funds
+        for (int writer = 0; writer < writers; writer++) {
+            int id = writer;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int stock = 0; stock < stocksPerWriter; stock++) {
+                    String stockName = "W" + id + "_" + stock;
+                    repository.addStockToFund("FUND1", stockName);
+                    repository.addStockToFund("FUND2", stockName);
+                    assertTrue(repository.getFundByName("FUND1").get().containsStock(stockName));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        int added = writers * stocksPerWriter;
+        assertEquals(2 + added, repository.getFundByName("FUND1").get().getStockCount());
+        assertEquals(1 + added, repository.getFundByName("FUND2").get().getStockCount());
+        assertEquals(2L * added, repository.getVersion());
+        assertEquals(2 * added, notifications.size());
+        assertSame(repository.getFundByName("FUND1").get(), lastNotificationFor("FUND1"));
+        assertSame(repository.getFundByName("FUND2").get(), lastNotificationFor("FUND2"));
+    }
+
+    @Test
+    @DisplayName("Should restore a checkpoint and notify only the funds it reverts")
+    void shouldRestoreCheckpointAndNotifyRevertedFunds() {
+        // Given
+        repository.addStockToFund("FUND1", "STOCK3");
+        ModifiableFundRepository.Checkpoint checkpoint = repository.checkpoint();
+        repository.addStockToFund("FUND2", "STOCK3");
+        notifications.clear();
+
+        // When
+        repository.restore(checkpoint);
+        repository.restore(checkpoint);
+
+        // Then
+        assertEquals(1, notifications.size());
+        assertEquals(1, notifications.get(0).getStockCount());
+        assertTrue(repository.getFundByName("FUND1").get().containsStock("STOCK3"));
+        assertFalse(repository.getFundByName("FUND2").get().containsStock("STOCK3"));
+        assertEquals(3L, repository.getVersion());
+        assertEquals(3, repository.getAllFunds().get(0).getStockCount());
+    }
+
+    @Test
+    @DisplayName("Should give each processor at least two stripes, rounded up to a power of two")
+    void shouldSizeStripesByProcessors() {
+        assertEquals(2, ModifiableFundRepository.stripeCountFor(1));
+        assertEquals(8, ModifiableFundRepository.stripeCountFor(3));
+        assertEquals(8, ModifiableFundRepository.stripeCountFor(4));
+        assertEquals(16, ModifiableFundRepository.stripeCountFor(5));
+    }
+
+    private Fund lastNotificationFor(String fundName) {
+        Fund last = null;
+        for (Fund fund : notifications) {
+            if (fund.getName().equals(fundName)) {
+                last = fund;
+            }
+        }
+        return last;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.geektrust.repository;
+
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.StockDictionary;
+import com.example.geektrust.service.OverlapCalculator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapFundRepositoryTest {
+
+    private static final String JSON = "{\n" +
+            "  \"funds\": [\n" +
+            "    {\"name\": \"FUND1\", \"stocks\": [\"STOCK1\", \"STOCK2\", \"STOCK3\"]},\n" +
+            "    {\"name\": \"FUND2\", \"stocks\": [\"STOCK2\", \"STOCK4\"], \"ignored\": {\"a\": [1]}},\n" +
+            "    {\"name\": \"WEIGHTED\", \"stocks\": [{\"name\": \"STOCK4\", \"weight\": 70}, {\"name\": \"STOCK1\", \"weight\": 30}]},\n" +
+            "    {\"name\": \"EMPTY_FUND\", \"stocks\": []}\n" +
+            "  ]\n" +
+            "}";
+
+    private OffHeapFundRepository load(String json) throws IOException {
+        return OffHeapFundRepository.fromJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Should expose the same funds as the JSON repository")
+    void shouldExposeSameFundsAsJsonRepository() throws IOException {
+        // Given
+        OffHeapFundRepository offHeap = load(JSON);
+        JsonFundRepository json = new JsonFundRepository(new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8)));
+
+        // When
+        List<Fund> funds = offHeap.getAllFunds();
+
+        // Then
+        assertEquals(4, offHeap.getFundCount());
+        assertEquals(4, offHeap.getStockCount());
+        assertEquals(json.getAllFunds().size(), funds.size());
+        assertEquals(json.getFundNames(), offHeap.getFundNames());
+        for (Fund fund : funds) {
+            Fund expected = json.getFundByName(fund.getName()).get();
+            assertEquals(expected, fund);
+            assertEquals(fund, expected);
+            assertEquals(expected.hashCode(), fund.hashCode());
+            assertArrayEquals(expected.getStockIds(), fund.getStockIds());
+            assertEquals(expected.getStockCount(), fund.getStockCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should compute identical overlaps from off-heap views")
+    void shouldComputeIdenticalOverlaps() throws IOException {
+        // Given
+        OffHeapFundRepository offHeap = load(JSON);
+        OverlapCalculator calculator = new OverlapCalculator();
+        Fund fund1 = offHeap.getFundByName("FUND1").get();
+        Fund fund2 = offHeap.getFundByName("FUND2").get();
+
+        // When
+        double overlap = calculator.calculateOverlapPercentage(fund1, fund2);
+        double weighted = calculator.calculateWeightedOverlapPercentage(fund1, offHeap.getFundByName("WEIGHTED").get());
+
+        // Then
+        assertEquals(40.0, overlap);
+        assertEquals(30.0, weighted);
+    }
+
+    @Test
+    @DisplayName("Should look up stocks and weights without decoding the whole fund")
+    void shouldLookUpStocksAndWeights() throws IOException {
+        // Given
+        OffHeapFundRepository offHeap = load(JSON);
+
+        // When
+        Fund weighted = offHeap.getFundByName("WEIGHTED").get();
+        Fund fund1 = offHeap.getFundByName("FUND1").get();
+
+        // Then
+        assertTrue(weighted.isWeighted());
+        assertFalse(fund1.isWeighted());
+        assertTrue(fund1.containsStock("STOCK3"));
+        assertFalse(fund1.containsStock("STOCK4"));
+        assertFalse(fund1.containsStock("UNKNOWN"));
+        assertFalse(fund1.containsStock(null));
+        assertEquals(new HashSet<>(Arrays.asList("STOCK1", "STOCK4")), weighted.getStocks());
+        assertEquals(100.0, Arrays.stream(weighted.getStockWeights()).sum(), 1e-9);
+        assertTrue(offHeap.getFundByName("EMPTY_FUND").get().getStocks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return empty for unknown or null fund names")
+    void shouldReturnEmptyForUnknownFundNames() throws IOException {
+        // Given
+        OffHeapFundRepository offHeap = load(JSON);
+
+        // When & Then
+        assertEquals(Optional.empty(), offHeap.getFundByName("FUND3"));
+        assertEquals(Optional.empty(), offHeap.getFundByName("FUND"));
+        assertEquals(Optional.empty(), offHeap.getFundByName(null));
+    }
+
+    @Test
+    @DisplayName("Should merge duplicate stocks and let later duplicate funds win")
+    void shouldMergeDuplicates() {
+        // Given
+        OffHeapFundRepository offHeap = new OffHeapFundRepository.Builder()
+            .addFund("DUP", new String[]{"A", "B", "A"}, new double[]{10, 20, 30})
+            .addFund("DUP", new String[]{"C"}, null)
+            .addFund("OTHER", new String[]{"A", "B", "A"}, new double[]{10, 20, 30})
+            .build();
+
+        // When
+        Fund dup = offHeap.getFundByName("DUP").get();
+        Fund other = offHeap.getFundByName("OTHER").get();
+
+        // Then
+        assertEquals(new HashSet<>(Arrays.asList("C")), dup.getStocks());
+        assertEquals(new Fund("OTHER", new String[]{"A", "B"}, new double[]{40, 20}), other);
+        assertEquals(3, offHeap.getAllFunds().size());
+    }
+
+    @Test
+    @DisplayName("Should reopen a copied arena and reject foreign buffers")
+    void shouldReopenCopiedArena() throws IOException {
+        // Given
+        ByteBuffer arena = load(JSON).getArena();
+        ByteBuffer copy = ByteBuffer.allocateDirect(arena.capacity());
+        copy.put(arena.duplicate());
+
+        // When
+        OffHeapFundRepository reopened = new OffHeapFundRepository(copy);
+
+        // Then
+        assertTrue(reopened.getFundByName("FUND2").get().containsStock("STOCK4"));
+        assertThrows(IllegalArgumentException.class,
+            () -> new OffHeapFundRepository(ByteBuffer.allocate(64)));
+    }
+
+    @Test
+    @DisplayName("Should adopt the arena's stock names and decode views per lookup")
+    void shouldAdoptStockNamesAndDecodeViewsPerLookup() throws IOException {
+        // Given
+        String json = "{\"funds\": [{\"name\": \"VIEWED\", \"stocks\": [\"OFF_HEAP_ONLY_A\", \"OFF_HEAP_ONLY_B\"]}]}";
+        int sizeBefore = StockDictionary.shared().size();
+
+        // When
+        OffHeapFundRepository repository = load(json);
+
+        // Then
+        StockDictionary dictionary = StockDictionary.shared();
+        assertEquals(sizeBefore + 2, dictionary.size());
+        int first = dictionary.lookup("OFF_HEAP_ONLY_A");
+        assertEquals(first + 1, dictionary.lookup("OFF_HEAP_ONLY_B"));
+        assertEquals("OFF_HEAP_ONLY_B", dictionary.nameOf(first + 1));
+        Fund fund = repository.findFundByName("VIEWED");
+        assertNotSame(fund, repository.findFundByName("VIEWED"));
+        assertEquals(fund, repository.getAllFunds().get(0));
+        assertSame(fund.getStockIds(), fund.getStockIds());
+        assertArrayEquals(new int[]{first, first + 1}, fund.getStockIds());
+    }
+
+    @Test
+    @DisplayName("Should keep earlier ids for stocks the dictionary already knew")
+    void shouldKeepEarlierIdsForKnownStocks() throws IOException {
+        // Given
+        StockDictionary dictionary = StockDictionary.shared();
+        int known = dictionary.idOf("ALIASED_STOCK_B");
+        String json = "{\"funds\": [{\"name\": \"ALIASED\", \"stocks\": [" +
+                "{\"name\": \"ALIASED_STOCK_C\", \"weight\": 50}, {\"name\": \"ALIASED_STOCK_B\", \"weight\": 30}, " +
+                "{\"name\": \"ALIASED_STOCK_A\", \"weight\": 20}]}]}";
+
+        // When
+        Fund fund = load(json).findFundByName("ALIASED");
+
+        // Then
+        assertEquals(known, dictionary.lookup("ALIASED_STOCK_B"));
+        assertArrayEquals(new int[]{known, dictionary.lookup("ALIASED_STOCK_A"), dictionary.lookup("ALIASED_STOCK_C")},
+            fund.getStockIds());
+        assertArrayEquals(new double[]{30, 20, 50}, fund.getStockWeights(), 0.0);
+        assertTrue(fund.containsStock("ALIASED_STOCK_B"));
+        assertEquals(new HashSet<>(Arrays.asList("ALIASED_STOCK_A", "ALIASED_STOCK_B", "ALIASED_STOCK_C")), fund.getStocks());
+    }
+}
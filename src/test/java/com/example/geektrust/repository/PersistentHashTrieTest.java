@@ -0,0 +1,63 @@
+package com.example.geektrust.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentHashTrieTest {
+
+    @Test
+    @DisplayName("Should keep earlier versions unchanged after put")
+    void shouldKeepEarlierVersionsUnchanged() {
+        // Given
+        PersistentHashTrie<String, Integer> empty = PersistentHashTrie.empty();
+        PersistentHashTrie<String, Integer> first = empty.put("FUND1", 1);
+
+        // When
+        PersistentHashTrie<String, Integer> second = first.put("FUND1", 2).put("FUND2", 3);
+
+        // Then
+        assertTrue(empty.isEmpty());
+        assertNull(empty.get("FUND1"));
+        assertEquals(1, first.size());
+        assertEquals(Integer.valueOf(1), first.get("FUND1"));
+        assertNull(first.get("FUND2"));
+        assertEquals(2, second.size());
+        assertEquals(Integer.valueOf(2), second.get("FUND1"));
+        assertEquals(Integer.valueOf(3), second.get("FUND2"));
+        assertNull(second.get(null));
+        assertSame(second, second.put("FUND2", second.get("FUND2")));
+        assertThrows(IllegalArgumentException.class, () -> second.put(null, 0));
+    }
+
+    @Test
+    @DisplayName("Should hold keys with equal hash codes and many keys across levels")
+    void shouldHoldCollidingAndManyKeys() {
+        // Given "Aa" and "BB" share a hash code
+        PersistentHashTrie<String, Integer> trie = PersistentHashTrie.<String, Integer>empty()
+            .put("Aa", 1).put("BB", 2);
+        Map<String, Integer> expected = new HashMap<>();
+        expected.put("Aa", 1);
+        expected.put("BB", 3);
+
+        // When
+        trie = trie.put("BB", 3);
+        for (int i = 0; i < 2000; i++) {
+            trie = trie.put("FUND_" + i, i);
+            expected.put("FUND_" + i, i);
+        }
+
+        // Then
+        assertEquals(expected.size(), trie.size());
+        Map<String, Integer> visited = new HashMap<>();
+        trie.forEach(visited::put);
+        assertEquals(expected, visited);
+        assertEquals(Integer.valueOf(1), trie.get("Aa"));
+        assertEquals(Integer.valueOf(3), trie.get("BB"));
+        assertNull(trie.get("C#"));
+    }
+}
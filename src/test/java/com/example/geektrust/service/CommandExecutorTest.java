@@ -18,13 +18,15 @@ import static org.junit.jupiter.api.Assertions.*;
 class CommandExecutorTest {
 
     private CommandExecutor commandExecutor;
+    private Portfolio portfolio;
+    private ModifiableFundRepository modifiableRepository;
 
     @BeforeEach
     void setUp() {
         String stockDataPath = getClass().getClassLoader().getResource("stock_data.json").getPath();
         JsonFundRepository jsonRepository = new JsonFundRepository(stockDataPath);
-        ModifiableFundRepository modifiableRepository = new ModifiableFundRepository(jsonRepository);
-        Portfolio portfolio = new Portfolio();
+        modifiableRepository = new ModifiableFundRepository(jsonRepository);
+        portfolio = new Portfolio();
         OverlapCalculator overlapCalculator = new OverlapCalculator();
 
         commandExecutor = new CommandExecutor();
@@ -191,4 +193,33 @@ class CommandExecutorTest {
         assertFalse(results.get(0).isSuccess());
         assertTrue(results.get(0).getErrorMessage().contains("Invalid command:"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should reuse read-only results until the portfolio or universe changes")
+    void shouldMemoiseReadOnlyCommands() {
+        // Given
+        commandExecutor.enableMemoisation(portfolio, modifiableRepository);
+        List<String> commands = Arrays.asList(
+            "CURRENT_PORTFOLIO AXIS_BLUECHIP ICICI_PRU_BLUECHIP",
+            "CALCULATE_OVERLAP MIRAE_ASSET_EMERGING_BLUECHIP",
+            "CALCULATE_OVERLAP   MIRAE_ASSET_EMERGING_BLUECHIP",
+            "ADD_STOCK AXIS_BLUECHIP MEMO_TEST_STOCK",
+            "ADD_STOCK MIRAE_ASSET_EMERGING_BLUECHIP MEMO_TEST_STOCK",
+            "CALCULATE_OVERLAP MIRAE_ASSET_EMERGING_BLUECHIP",
+            "CURRENT_PORTFOLIO AXIS_BLUECHIP",
+            "CALCULATE_OVERLAP MIRAE_ASSET_EMERGING_BLUECHIP",
+            "CALCULATE_OVERLAP MIRAE_ASSET_EMERGING_BLUECHIP"
+        );
+
+        // When
+        List<CommandResult> results = commandExecutor.executeCommands(commands);
+
+        // Then
+        assertEquals(2, commandExecutor.getMemoHits());
+        assertEquals(3, commandExecutor.getMemoMisses());
+        assertSame(results.get(1), results.get(2));
+        assertNotEquals(results.get(1), results.get(5));
+        assertEquals(1, results.get(8).getOutputs().size());
+        assertSame(results.get(7), results.get(8));
+    }
+}
@@ -5,7 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.BeforeEach;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -216,6 +221,174 @@ class OverlapCalculatorTest {
         assertEquals(50.0, overlap, 0.001);
     }
 
+    @Test
+    @DisplayName("Should score target against every portfolio fund in one call")
+    void shouldScoreTargetAgainstEveryPortfolioFundInOneCall() {
+        Fund target = new Fund("TARGET", createStockSet("A", "B", "C"));
+        List<Fund> funds = Arrays.asList(
+            new Fund("FUND1", createStockSet("B", "C", "D")),
+            new Fund("FUND2", createStockSet("X", "Y")),
+            new Fund("FUND3", createStockSet("A", "B", "C")),
+            new Fund("FUND4", new HashSet<>()));
+        double[] results = new double[5];
+
+        calculator.calculateOverlapPercentages(target, funds, results);
+
+        for (int i = 0; i < funds.size(); i++) {
+            assertEquals(calculator.calculateOverlapPercentage(target, funds.get(i)), results[i], 0.0);
+        }
+        assertEquals(66.67, results[0], 0.001);
+        assertEquals(0.0, results[1], 0.001);
+        assertEquals(100.0, results[2], 0.001);
+        assertEquals(0.0, results[3], 0.001);
+    }
+
+    @Test
+    @DisplayName("Should score funds with dense bitmap chunks like sparse ones")
+    void shouldScoreDenseFundsLikeSparseOnes() {
+        Set<String> indexStocks = new HashSet<>();
+        for (int i = 0; i < 5000; i++) {
+            indexStocks.add("INDEX_STOCK_" + i);
+        }
+        Fund index = new Fund("INDEX", indexStocks);
+        Fund target = new Fund("TARGET", createStockSet("INDEX_STOCK_1", "INDEX_STOCK_4999", "OTHER"));
+        List<Fund> funds = Arrays.asList(index, new Fund("SMALL", createStockSet("INDEX_STOCK_1")));
+        double[] results = new double[2];
+
+        calculator.calculateOverlapPercentages(target, funds, results);
+
+        // Overlap = 2 * 2 / (3 + 5000) * 100
+        assertEquals(0.08, calculator.calculateOverlapPercentage(target, index), 0.0);
+        assertEquals(0.08, results[0], 0.0);
+        assertEquals(50.0, results[1], 0.0);
+    }
+
+    @Test
+    @DisplayName("Should leave no probe state behind between batch calls")
+    void shouldLeaveNoProbeStateBehindBetweenBatchCalls() {
+        Fund first = new Fund("FIRST", createStockSet("A", "B"));
+        Fund second = new Fund("SECOND", createStockSet("C"));
+        List<Fund> funds = Arrays.asList(new Fund("FUND", createStockSet("A", "B")));
+        double[] results = new double[1];
+
+        calculator.calculateOverlapPercentages(first, funds, results);
+        assertEquals(100.0, results[0], 0.001);
+
+        calculator.calculateOverlapPercentages(second, funds, results);
+        assertEquals(0.0, results[0], 0.001);
+    }
+
+    @Test
+    @DisplayName("Should reject results array smaller than fund list")
+    void shouldRejectResultsArraySmallerThanFundList() {
+        Fund target = new Fund("TARGET", createStockSet("A"));
+        List<Fund> funds = Arrays.asList(target, target);
+
+        assertThrows(IllegalArgumentException.class, () ->
+            calculator.calculateOverlapPercentages(target, funds, new double[1]));
+        assertThrows(IllegalArgumentException.class, () ->
+            calculator.calculateOverlapPercentages(null, funds, new double[2]));
+    }
+
+    @Test
+    @DisplayName("Should round identically to BigDecimal half-up rounding")
+    void shouldRoundIdenticallyToBigDecimalHalfUpRounding() {
+        List<String> stocks = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            stocks.add("ROUNDING_STOCK_" + i);
+        }
+
+        for (int size1 = 1; size1 <= 200; size1 += 7) {
+            for (int size2 = 1; size2 <= 200; size2 += 3) {
+                for (int common = 0; common <= Math.min(size1, size2); common += 5) {
+                    Fund fund1 = new Fund("FUND1", new HashSet<>(stocks.subList(0, size1)));
+                    Fund fund2 = new Fund("FUND2", new HashSet<>(stocks.subList(size1 - common, size1 - common + size2)));
+                    double raw = (2.0 * common) / (size1 + size2) * 100.0;
+                    double expected = BigDecimal.valueOf(raw).setScale(2, RoundingMode.HALF_UP).doubleValue();
+
+                    assertEquals(expected, calculator.calculateOverlapPercentage(fund1, fund2), 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should calculate weighted overlap as sum of minimum weights")
+    void shouldCalculateWeightedOverlapAsSumOfMinimumWeights() {
+        Fund fund1 = new Fund("FUND1", new String[]{"A", "B", "C"}, new double[]{50, 30, 20});
+        Fund fund2 = new Fund("FUND2", new String[]{"B", "C", "D"}, new double[]{10, 40, 50});
+
+        // min(30, 10) + min(20, 40) = 30
+        assertEquals(30.0, calculator.calculateWeightedOverlapPercentage(fund1, fund2), 0.001);
+        assertEquals(30.0, calculator.calculateWeightedOverlapPercentage(fund2, fund1), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should treat unweighted funds as equally weighted")
+    void shouldTreatUnweightedFundsAsEquallyWeighted() {
+        Fund fund1 = new Fund("FUND1", createStockSet("A", "B", "C", "D"));
+        Fund fund2 = new Fund("FUND2", createStockSet("A", "B"));
+
+        // min(25, 50) + min(25, 50) = 50
+        assertEquals(50.0, calculator.calculateWeightedOverlapPercentage(fund1, fund2), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should match pairwise weighted overlap in batch mode")
+    void shouldMatchPairwiseWeightedOverlapInBatchMode() {
+        Fund target = new Fund("TARGET", new String[]{"A", "B", "C"}, new double[]{33.3, 33.3, 33.4});
+        List<Fund> funds = Arrays.asList(
+            new Fund("FUND1", new String[]{"A", "X"}, new double[]{70, 30}),
+            new Fund("FUND2", createStockSet("B", "C", "Y")),
+            new Fund("FUND3", createStockSet("Z")));
+        double[] results = new double[funds.size()];
+
+        calculator.calculateWeightedOverlapPercentages(target, funds, results);
+
+        for (int i = 0; i < funds.size(); i++) {
+            assertEquals(calculator.calculateWeightedOverlapPercentage(target, funds.get(i)), results[i], 0.0);
+        }
+        assertEquals(33.3, results[0], 0.001);
+        assertEquals(0.0, results[2], 0.001);
+    }
+
+    @Test
+    @DisplayName("Should derive several metrics from one intersection count")
+    void shouldDeriveSeveralMetricsFromOneIntersectionCount() {
+        Fund target = new Fund("TARGET", createStockSet("A", "B", "C", "D"));
+        List<Fund> funds = Arrays.asList(
+            new Fund("FUND1", createStockSet("A", "B")),
+            new Fund("FUND2", createStockSet("X")));
+        SimilarityMetric[] metrics = SimilarityMetric.values();
+        double[] results = new double[funds.size() * metrics.length];
+
+        calculator.calculateSimilarities(target, funds, metrics, results);
+
+        // |A| = 4, |B| = 2, |A∩B| = 2
+        assertEquals(66.67, results[SimilarityMetric.OVERLAP.ordinal()], 0.001);
+        assertEquals(50.0, results[SimilarityMetric.JACCARD.ordinal()], 0.001);
+        assertEquals(50.0, results[SimilarityMetric.CONTAINMENT_OF_TARGET.ordinal()], 0.001);
+        assertEquals(100.0, results[SimilarityMetric.CONTAINMENT_OF_FUND.ordinal()], 0.001);
+        assertEquals(70.71, results[SimilarityMetric.COSINE.ordinal()], 0.001);
+        for (int m = 0; m < metrics.length; m++) {
+            assertEquals(0.0, results[metrics.length + m], 0.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should return zero similarity for empty funds")
+    void shouldReturnZeroSimilarityForEmptyFunds() {
+        Fund empty = new Fund("EMPTY", new HashSet<>());
+        SimilarityMetric[] metrics = SimilarityMetric.values();
+        double[] results = new double[metrics.length];
+
+        calculator.calculateSimilarities(empty, Arrays.asList(empty), metrics, results);
+
+        for (double result : results) {
+            assertEquals(0.0, result, 0.0);
+        }
+    }
+
     private Set<String> createStockSet(String... stockNames) {
         Set<String> stocks = new HashSet<>();
         for (String stockName : stockNames) {
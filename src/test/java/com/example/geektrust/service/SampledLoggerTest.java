@@ -0,0 +1,109 @@
+package com.example.geektrust.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SampledLoggerTest {
+
+    private final Logger logger = Logger.getLogger(SampledLoggerTest.class.getName());
+    private final List<String> messages = new ArrayList<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final Handler capture = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            messages.add(record.getMessage());
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        logger.setUseParentHandlers(false);
+        logger.addHandler(capture);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.removeHandler(capture);
+        logger.setUseParentHandlers(true);
+    }
+
+    @Test
+    @DisplayName("Should log a burst, then sample and count the suppressed messages")
+    void shouldLogBurstThenSample() {
+        // Given
+        SampledLogger sampled = new SampledLogger(logger, 2, 10, 100, clock::get);
+
+        // When
+        for (int i = 1; i <= 22; i++) {
+            sampled.log(Level.WARNING, "bad " + i);
+        }
+
+        // Then
+        assertEquals(4, messages.size());
+        assertEquals("bad 1", messages.get(0));
+        assertEquals("bad 2", messages.get(1));
+        assertEquals("bad 12 (9 similar messages suppressed)", messages.get(2));
+        assertEquals("bad 22 (9 similar messages suppressed)", messages.get(3));
+        assertEquals(18, sampled.getSuppressedCount());
+    }
+
+    @Test
+    @DisplayName("Should cap sampled messages per second")
+    void shouldCapSampledMessagesPerSecond() {
+        // Given
+        SampledLogger sampled = new SampledLogger(logger, 0, 1, 3, clock::get);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            sampled.log(Level.WARNING, "bad");
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        sampled.log(Level.WARNING, "later");
+
+        // Then
+        assertEquals(4, messages.size());
+        assertEquals("later (7 similar messages suppressed)", messages.get(3));
+    }
+
+    @Test
+    @DisplayName("Should build a supplied message only when it is logged")
+    void shouldBuildSuppliedMessageOnlyWhenLogged() {
+        // Given
+        SampledLogger sampled = new SampledLogger(logger, 1, 5, 100, clock::get);
+        int[] built = new int[1];
+
+        // When
+        for (int i = 1; i <= 11; i++) {
+            int line = i;
+            sampled.log(Level.WARNING, () -> {
+                built[0]++;
+                return "bad " + line;
+            });
+        }
+
+        // Then
+        assertEquals(3, built[0]);
+        assertEquals("bad 11 (4 similar messages suppressed)", messages.get(2));
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.geektrust.service;
+
+import com.example.geektrust.domain.Fund;
+import com.example.geektrust.domain.ScoredFund;
+import com.example.geektrust.repository.FundRepository;
+import com.example.geektrust.repository.ModifiableFundRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopOverlapIndexTest {
+
+    private final OverlapCalculator calculator = new OverlapCalculator();
+
+    private static List<Fund> randomFunds(long seed, int count) {
+        Random random = new Random(seed);
+        List<Fund> funds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Set<String> stocks = new HashSet<>();
+            int size = 1 + random.nextInt(40);
+            while (stocks.size() < size) {
+                stocks.add("TOP_INDEX_STOCK_" + random.nextInt(80));
+            }
+            funds.add(new Fund("FUND_" + i, stocks));
+        }
+        return funds;
+    }
+
+    private List<ScoredFund> bruteForce(List<Fund> funds, Fund target, int k, double minPercent) {
+        List<ScoredFund> scored = new ArrayList<>();
+        for (Fund fund : funds) {
+            double overlap = calculator.calculateOverlapPercentage(target, fund);
+            if (overlap > 0 && overlap >= minPercent && !fund.getName().equals(target.getName())) {
+                scored.add(new ScoredFund(fund.getName(), overlap));
+            }
+        }
+        scored.sort(ScoredFund.BY_OVERLAP_DESCENDING);
+        return scored.size() > k ? scored.subList(0, k) : scored;
+    }
+
+    @Test
+    @DisplayName("Should match a brute-force scan for every target, k and threshold")
+    void shouldMatchBruteForce() {
+        // Given
+        List<Fund> funds = randomFunds(42L, 300);
+        TopOverlapIndex index = TopOverlapIndex.build(funds);
+
+        for (Fund target : funds.subList(0, 40)) {
+            for (int k : new int[]{1, 3, 10, 500}) {
+                for (double minPercent : new double[]{0.0, 25.0, 60.0}) {
+                    // When
+                    List<ScoredFund> top = index.top(target, k, minPercent, calculator);
+
+                    // Then
+                    assertEquals(bruteForce(funds, target, k, minPercent), top,
+                        target.getName() + " k=" + k + " min=" + minPercent);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should break ties by fund name and exclude the target itself")
+    void shouldBreakTiesByName() {
+        // Given
+        Fund target = new Fund("TARGET", new HashSet<>(Arrays.asList("A", "B")));
+        List<Fund> funds = Arrays.asList(
+            target,
+            new Fund("ZETA", new HashSet<>(Arrays.asList("A", "C"))),
+            new Fund("ALPHA", new HashSet<>(Arrays.asList("B", "D"))),
+            new Fund("NONE", new HashSet<>(Arrays.asList("X", "Y"))));
+
+        // When
+        List<ScoredFund> top = TopOverlapIndex.build(funds).top(target, 5, 0.0, calculator);
+
+        // Then
+        assertEquals(Arrays.asList(new ScoredFund("ALPHA", 50.0), new ScoredFund("ZETA", 50.0)), top);
+        assertEquals(Collections.emptyList(), TopOverlapIndex.build(funds).top(target, 0, 0.0, calculator));
+        assertEquals(Collections.emptyList(),
+            TopOverlapIndex.build(Collections.emptyList()).top(target, 3, 0.0, calculator));
+    }
+
+    @Test
+    @DisplayName("Should size the result by the fund count, not by a huge k")
+    void shouldHandleHugeK() {
+        // Given
+        Fund target = new Fund("TARGET", new HashSet<>(Arrays.asList("A", "B")));
+        List<Fund> funds = Arrays.asList(
+            target,
+            new Fund("ZETA", new HashSet<>(Arrays.asList("A", "C"))),
+            new Fund("ALPHA", new HashSet<>(Arrays.asList("B", "D"))));
+
+        // When
+        List<ScoredFund> top = TopOverlapIndex.build(funds).top(target, 999_999_999, 0.0, calculator);
+
+        // Then
+        assertEquals(Arrays.asList(new ScoredFund("ALPHA", 50.0), new ScoredFund("ZETA", 50.0)), top);
+    }
+
+    @Test
+    @DisplayName("Should move modified funds between size buckets without touching the original")
+    void shouldMoveModifiedFunds() {
+        // Given
+        List<Fund> funds = randomFunds(7L, 200);
+        TopOverlapIndex original = TopOverlapIndex.build(funds);
+        List<Fund> modified = new ArrayList<>(funds);
+        TopOverlapIndex index = original;
+        Random random = new Random(11L);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            int position = random.nextInt(modified.size());
+            Fund previous = modified.get(position);
+            Fund updated = previous.withStocks(Arrays.asList(
+                "TOP_INDEX_STOCK_" + random.nextInt(80), "NEW_STOCK_" + random.nextInt(20)));
+            modified.set(position, updated);
+            index = index.withFund(previous.getStockCount(), updated);
+        }
+
+        // Then
+        for (Fund target : modified.subList(0, 30)) {
+            assertEquals(bruteForce(modified, target, 10, 0.0), index.top(target, 10, 0.0, calculator));
+            assertEquals(bruteForce(funds, target, 10, 0.0), original.top(target, 10, 0.0, calculator));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the search current from modification events without rescanning")
+    void shouldFollowRepositoryModifications() {
+        // Given
+        List<Fund> funds = randomFunds(3L, 50);
+        int[] scans = new int[1];
+        FundRepository source = new FundRepository() {
+            @Override
+            public Optional<Fund> getFundByName(String fundName) {
+                return funds.stream().filter(fund -> fund.getName().equals(fundName)).findFirst();
+            }
+
+            @Override
+            public List<Fund> getAllFunds() {
+                scans[0]++;
+                return funds;
+            }
+        };
+        ModifiableFundRepository repository = new ModifiableFundRepository(source);
+        TopOverlapSearch search = new TopOverlapSearch(repository, calculator);
+        Fund target = new Fund("TARGET", new HashSet<>(Arrays.asList("NEW_A", "NEW_B")));
+        assertTrue(search.findTopOverlaps(target, 3, 0.0).isEmpty());
+        int scansAfterBuild = scans[0];
+
+        // When
+        ModifiableFundRepository.Checkpoint checkpoint = repository.checkpoint();
+        repository.addStocksToFunds(Collections.singletonMap("FUND_4", Arrays.asList("NEW_A", "NEW_B")));
+        List<ScoredFund> afterAdd = search.findTopOverlaps(target, 3, 0.0);
+        repository.restore(checkpoint);
+        List<ScoredFund> afterRestore = search.findTopOverlaps(target, 3, 0.0);
+
+        // Then
+        assertEquals(Collections.singletonList(new ScoredFund("FUND_4",
+            calculator.calculateOverlapPercentage(target, repository.findFundByName("FUND_4").withStocks(
+                Arrays.asList("NEW_A", "NEW_B"))))), afterAdd);
+        assertTrue(afterRestore.isEmpty());
+        assertEquals(scansAfterBuild, scans[0]);
+    }
+}